@@ -0,0 +1,142 @@
+package net.xrrocha.spellbound.java;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Shared benchmark inputs: the dictionary and seeded words of a given
+ * length and {@link TypoClass}.
+ * <p>
+ * The dictionary is read from the file named by system property
+ * <code>spellbound.dictionary</code> (forwarded to forked benchmark JVMs)
+ * or, by default, from <code>data/dictionary.tsv</code> in the current
+ * directory or its parent.
+ * </p>
+ */
+final class BenchmarkData {
+
+    /**
+     * Number of distinct words each benchmark cycles through, so results
+     * don't hinge on a single word.
+     */
+    static final int WORD_COUNT = 16;
+
+    /**
+     * Letters seldom found together, from which gibberish is drawn.
+     */
+    private static final String RARE_LETTERS = "jqxzvkw";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Return the benchmark dictionary file.
+     *
+     * @return The dictionary path
+     */
+    static Path dictionaryPath() {
+        var property = System.getProperty("spellbound.dictionary");
+        if (property != null) {
+            return Paths.get(property);
+        }
+        return Stream.of("data/dictionary.tsv", "../data/dictionary.tsv")
+            .map(Paths::get)
+            .filter(Files::exists)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException(
+                "No dictionary found: set -Dspellbound.dictionary=<path to dictionary.tsv>"));
+    }
+
+    /**
+     * Load the benchmark dictionary.
+     *
+     * @return The dictionary
+     */
+    static Dictionary dictionary() {
+        return DictionaryLoader.load(dictionaryPath(), message -> {});
+    }
+
+    /**
+     * Generate {@link #WORD_COUNT} distinct words of a given length and
+     * class, checking each typo's class against a spelling corrector.
+     *
+     * @param dictionary        The dictionary to draw words from
+     * @param spellingCorrector The spelling corrector deciding typo classes
+     * @param typoClass         The class of words to generate
+     * @param length            The word length
+     * @param random            The random number generator
+     * @return The words
+     */
+    static String[] words(Dictionary dictionary, SpellingCorrector spellingCorrector, TypoClass typoClass,
+                          int length, Random random) {
+        var words = Stream.of(EditDistance.lowercaseWords(dictionary))
+            .filter(word -> word.length() == length)
+            .toArray(String[]::new);
+        var result = new ArrayList<String>();
+        for (int attempt = 0; result.size() < WORD_COUNT; attempt++) {
+            if (attempt == 100 * WORD_COUNT) {
+                throw new IllegalStateException("Can't generate " + typoClass + " words of length " + length);
+            }
+            var word = candidate(words, typoClass, length, random);
+            if (!result.contains(word) && typoClass == classOf(spellingCorrector, word)) {
+                result.add(word);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * Generate a word likely to be of a given class.
+     *
+     * @param words     The dictionary words of the desired length
+     * @param typoClass The class of word to generate
+     * @param length    The word length
+     * @param random    The random number generator
+     * @return The candidate word
+     */
+    private static String candidate(String[] words, TypoClass typoClass, int length, Random random) {
+        var chars = words[random.nextInt(words.length)].toCharArray();
+        switch (typoClass) {
+            case KNOWN:
+                break;
+            case DISTANCE_1:
+                chars[random.nextInt(length)] = (char) ('a' + random.nextInt(26));
+                break;
+            case DISTANCE_2:
+                var first = random.nextInt(length);
+                var second = (first + 1 + random.nextInt(length - 1)) % length;
+                chars[first] = (char) ('a' + random.nextInt(26));
+                chars[second] = (char) ('a' + random.nextInt(26));
+                break;
+            case GIBBERISH:
+                for (int i = 0; i < length; i++) {
+                    chars[i] = RARE_LETTERS.charAt(random.nextInt(RARE_LETTERS.length()));
+                }
+                break;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Classify a word.
+     *
+     * @param spellingCorrector The spelling corrector
+     * @param word              The normalized word
+     * @return The word's class
+     */
+    private static TypoClass classOf(SpellingCorrector spellingCorrector, String word) {
+        List<Suggestion> best = spellingCorrector.getCorrections(word, 1).orElse(null);
+        if (best == null) {
+            return TypoClass.KNOWN;
+        }
+        if (best.isEmpty()) {
+            return TypoClass.GIBBERISH;
+        }
+        return best.get(0).getDistance() == 1 ? TypoClass.DISTANCE_1 : TypoClass.DISTANCE_2;
+    }
+}
@@ -0,0 +1,32 @@
+package net.xrrocha.spellbound.java;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark launcher: the standard JMH command line, always run with the
+ * GC profiler so allocation per operation (<code>gc.alloc.rate.norm</code>)
+ * is reported alongside each score. For example:
+ * <blockquote>
+ *
+ * <pre>
+ * <code>java -jar target/benchmarks.jar CorrectionBenchmark -p length=7 -Dspellbound.dictionary=../data/dictionary.tsv</code>
+ * </pre>
+ *
+ * </blockquote>
+ * <p>
+ * The dictionary is looked up as described in {@link BenchmarkData}.
+ * </p>
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws Exception {
+        var options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
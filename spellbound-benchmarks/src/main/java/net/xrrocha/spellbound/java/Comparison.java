@@ -0,0 +1,393 @@
+package net.xrrocha.spellbound.java;
+
+import static java.util.stream.Collectors.toList;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Side-by-side comparison of the repository's spelling corrector
+ * implementations (Java, Kotlin, Scala and Xtend) on identical seeded
+ * {@link TypoWorkload typo workloads} one, two and three edits away from
+ * dictionary words.
+ * <p>
+ * Every implementation gets the same dictionary, warm-up and number of
+ * caller threads. For each implementation and edit count the harness
+ * reports median and 99th percentile latency, throughput, bytes allocated
+ * per typo (by all threads, as the Kotlin port corrects on coroutines) and
+ * recall: the fraction of typos whose original word is among the
+ * suggestions.
+ * </p>
+ * <p>
+ * The Java port is called directly (with its default brute-force engine,
+ * sequential since the harness provides the parallelism); the others are
+ * called reflectively, so they need only be on the class path: build with
+ * profile <code>comparison</code> to include them in
+ * <code>benchmarks.jar</code>. Missing implementations are reported and
+ * skipped. Run with:
+ * </p>
+ * <blockquote>
+ *
+ * <pre>
+ * <code>java -cp target/benchmarks.jar net.xrrocha.spellbound.java.Comparison [--typos=100] [--warmup=50] [--threads=1] [--seed=42] [--dictionary=../data/dictionary.tsv]</code>
+ * </pre>
+ *
+ * </blockquote>
+ */
+public class Comparison {
+
+    /**
+     * Edit counts of the generated typos.
+     */
+    private static final int[] EDITS = {1, 2, 3};
+
+    /**
+     * Corrector implementation under comparison.
+     */
+    @FunctionalInterface
+    interface Contender {
+
+        /**
+         * Correct a typo.
+         *
+         * @param typo The typo
+         * @return Its suggestions (empty for dictionary words)
+         */
+        List<String> correct(String typo);
+    }
+
+    /**
+     * Generate the workloads and print the comparison table.
+     *
+     * @param args The <code>--name=value</code> options
+     * @throws Exception If a corrector fails
+     */
+    public static void main(String[] args) throws Exception {
+        var options = Main.parseOptions(Arrays.stream(args));
+        var typoCount = Integer.parseInt(options.getOrDefault("typos", "100"));
+        var warmupCount = Integer.parseInt(options.getOrDefault("warmup", "50"));
+        var threads = Integer.parseInt(options.getOrDefault("threads", "1"));
+        var seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        var dictionaryPath = options.containsKey("dictionary") ?
+            Path.of(options.get("dictionary")) :
+            BenchmarkData.dictionaryPath();
+
+        var dictionary = loadDictionary(dictionaryPath);
+        var workloads = new HashMap<Integer, List<TypoWorkload.Typo>>();
+        for (var edits : EDITS) {
+            workloads.put(edits, TypoWorkload.generate(dictionary, edits, typoCount, seed + edits));
+        }
+        // Warm up on typos disjoint from the measured ones
+        var warmup = TypoWorkload.generate(dictionary, 2, warmupCount, seed - 1).stream()
+            .map(typo -> typo.typo)
+            .collect(toList());
+
+        System.out.printf("%d CPUs, %d threads, %d typos per edit count, %d warm-up typos, seed %d%n",
+                          Runtime.getRuntime().availableProcessors(), threads, typoCount, warmupCount, seed);
+        System.out.printf("%-8s %5s %10s %10s %10s %10s %8s%n",
+                          "impl", "edits", "p50 ms", "p99 ms", "typos/s", "KB/typo", "recall");
+        for (var contender : contenders(dictionary).entrySet()) {
+            var name = contender.getKey();
+            Contender corrector;
+            try {
+                corrector = contender.getValue().call();
+            } catch (ClassNotFoundException e) {
+                System.out.printf("%-8s not on the class path (%s)%n", name, e.getMessage());
+                continue;
+            }
+            run(corrector, warmup, threads);
+            for (var edits : EDITS) {
+                var result = run(corrector, workloads.get(edits).stream().map(typo -> typo.typo).collect(toList()),
+                                 threads);
+                var typos = workloads.get(edits);
+                var found = 0;
+                for (int i = 0; i < typos.size(); i++) {
+                    if (result.suggestions.get(i).contains(typos.get(i).original)) {
+                        found++;
+                    }
+                }
+                System.out.printf("%-8s %5d %10.2f %10.2f %10.1f %10.0f %7.1f%%%n",
+                                  name, edits, result.percentile(0.50) / 1e6, result.percentile(0.99) / 1e6,
+                                  typos.size() / result.seconds, result.allocatedBytes / 1024.0 / typos.size(),
+                                  100.0 * found / typos.size());
+            }
+        }
+    }
+
+    /**
+     * Return the implementations under comparison, each created on demand.
+     *
+     * @param dictionary The word-to-rank dictionary
+     * @return The implementation factories by name, in reporting order
+     */
+    private static Map<String, Callable<Contender>> contenders(Map<String, Integer> dictionary) {
+        var contenders = new LinkedHashMap<String, Callable<Contender>>();
+        contenders.put("java", () -> {
+            var spellingCorrector = new SpellingCorrector(dictionary, Main.engineFactory(Map.of("threads", "1")));
+            return typo -> spellingCorrector.getCorrections(typo).orElse(List.of());
+        });
+        contenders.put("kotlin", () -> reflective(
+            "net.xrrocha.spellbound.kotlin.SpellingCorrector", dictionary,
+            // Iterable<String>, null for dictionary words
+            corrections -> corrections == null ? List.of() : copy((Iterable<?>) corrections)));
+        contenders.put("scala", () -> reflective(
+            "net.xrrocha.spellbound.scala.SpellingCorrector", toScalaMap(dictionary),
+            // Option[Seq[String]]
+            corrections -> {
+                if ((boolean) invoke(corrections, "isEmpty")) {
+                    return List.of();
+                }
+                var iterator = invoke(invoke(corrections, "get"), "iterator");
+                var list = new ArrayList<String>();
+                while ((boolean) invoke(iterator, "hasNext")) {
+                    list.add((String) invoke(iterator, "next"));
+                }
+                return list;
+            }));
+        contenders.put("xtend", () -> reflective(
+            "net.xrrocha.spellbound.xtend.SpellingCorrector", dictionary,
+            // Optional<List<String>>
+            corrections -> copy(((Optional<?>) corrections).map(list -> (Collection<?>) list).orElse(List.of()))));
+        return contenders;
+    }
+
+    /**
+     * Create a contender calling a <code>SpellingCorrector</code> class'
+     * <code>getCorrections(String)</code> method reflectively.
+     *
+     * @param className  The corrector class name
+     * @param dictionary The dictionary to pass to its (single-argument) constructor
+     * @param converter  The conversion of its results into a list
+     * @return The contender
+     */
+    private static Contender reflective(String className, Object dictionary,
+                                        Function<Object, List<String>> converter) throws Exception {
+        var type = Class.forName(className);
+        var constructor = Arrays.stream(type.getConstructors())
+            .filter(candidate -> candidate.getParameterCount() == 1)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No dictionary constructor in " + className));
+        var corrector = constructor.newInstance(dictionary);
+        var getCorrections = type.getMethod("getCorrections", String.class);
+        return typo -> {
+            try {
+                return converter.apply(getCorrections.invoke(corrector, typo));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+            }
+        };
+    }
+
+    /**
+     * Convert a Java map into an immutable Scala map, reflectively.
+     *
+     * @param map The Java map
+     * @return The Scala map
+     */
+    private static Object toScalaMap(Map<String, Integer> map) throws Exception {
+        var converters = Class.forName("scala.collection.JavaConverters$").getField("MODULE$").get(null);
+        var predef = Class.forName("scala.Predef$").getField("MODULE$").get(null);
+        var mutableMap = invoke(invoke(converters, "mapAsScalaMapConverter", map), "asScala");
+        var evidence = invoke(predef, "$conforms");
+        return invoke(mutableMap, "toMap", evidence);
+    }
+
+    /**
+     * Invoke a public method by name and arity.
+     *
+     * @param target    The receiver
+     * @param name      The method name
+     * @param arguments The arguments
+     * @return The method's result
+     */
+    private static Object invoke(Object target, String name, Object... arguments) {
+        try {
+            for (var method : target.getClass().getMethods()) {
+                if (method.getName().equals(name) && method.getParameterCount() == arguments.length) {
+                    method.setAccessible(true);
+                    return method.invoke(target, arguments);
+                }
+            }
+            throw new IllegalStateException("No method " + name + " in " + target.getClass().getName());
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Copy an iterable of words into a list.
+     *
+     * @param iterable The words
+     * @return The list
+     */
+    private static List<String> copy(Iterable<?> iterable) {
+        var list = new ArrayList<String>();
+        iterable.forEach(word -> list.add((String) word));
+        return list;
+    }
+
+    /**
+     * Correct typos from caller threads, each taking every
+     * <code>threads</code>-th typo.
+     *
+     * @param contender The implementation
+     * @param typos     The typos
+     * @param threads   The number of caller threads
+     * @return The measurements
+     */
+    private static Result run(Contender contender, List<String> typos, int threads) throws Exception {
+        var latencies = new long[typos.size()];
+        var suggestions = new ArrayList<List<String>>(Collections.nCopies(typos.size(), List.<String>of()));
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (int thread = 0; thread < threads; thread++) {
+                var first = thread;
+                tasks.add(() -> {
+                    for (int i = first; i < typos.size(); i += threads) {
+                        var start = System.nanoTime();
+                        var corrections = contender.correct(typos.get(i));
+                        latencies[i] = System.nanoTime() - start;
+                        synchronized (suggestions) {
+                            suggestions.set(i, corrections);
+                        }
+                    }
+                    return null;
+                });
+            }
+            var allocatedBefore = allocatedBytes();
+            var start = System.nanoTime();
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            var seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+            return new Result(latencies, suggestions, seconds, allocatedBetween(allocatedBefore, allocatedBytes()));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Return the bytes allocated so far by each live thread.
+     *
+     * @return The allocated byte counts by thread id
+     */
+    private static Map<Long, Long> allocatedBytes() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var ids = threads.getAllThreadIds();
+        var bytes = threads.getThreadAllocatedBytes(ids);
+        var allocated = new HashMap<Long, Long>();
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] > 0) {
+                allocated.put(ids[i], bytes[i]);
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Return the bytes allocated between two snapshots by the threads alive
+     * at the second one (threads ending in between take their count along).
+     *
+     * @param before The earlier snapshot
+     * @param after  The later snapshot
+     * @return The allocated byte count
+     */
+    private static long allocatedBetween(Map<Long, Long> before, Map<Long, Long> after) {
+        return after.entrySet().stream()
+            .mapToLong(entry -> entry.getValue() - before.getOrDefault(entry.getKey(), 0L))
+            .sum();
+    }
+
+    /**
+     * Read a tab-delimited word/rank dictionary into a map, keeping only the
+     * ASCII-alphabetic words with a positive rank every port accepts (as
+     * {@link DictionaryLoader} does).
+     *
+     * @param path The dictionary file
+     * @return The word-to-rank map
+     */
+    private static Map<String, Integer> loadDictionary(Path path) throws Exception {
+        var dictionary = new HashMap<String, Integer>();
+        for (var line : Files.readAllLines(path)) {
+            var fields = line.split("\t");
+            if (fields.length == 2 && fields[0].chars().allMatch(c -> c < 128 && Character.isLetter(c))) {
+                var rank = Integer.parseInt(fields[1]);
+                if (rank > 0) {
+                    dictionary.put(fields[0], rank);
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    /**
+     * Measurements of a run.
+     */
+    private static final class Result {
+
+        /**
+         * Per-typo latencies in nanoseconds, ascending.
+         */
+        final long[] sortedLatencies;
+
+        /**
+         * Suggestions, in typo order.
+         */
+        final List<List<String>> suggestions;
+
+        /**
+         * Elapsed wall-clock time.
+         */
+        final double seconds;
+
+        /**
+         * Bytes allocated by all threads during the run.
+         */
+        final long allocatedBytes;
+
+        /**
+         * Constructor.
+         *
+         * @param sortedLatencies Per-typo latencies in nanoseconds, ascending
+         * @param suggestions     Suggestions, in typo order
+         * @param seconds         Elapsed wall-clock time
+         * @param allocatedBytes  Bytes allocated by all threads during the run
+         */
+        Result(long[] sortedLatencies, List<List<String>> suggestions, double seconds, long allocatedBytes) {
+            this.sortedLatencies = sortedLatencies;
+            this.suggestions = suggestions;
+            this.seconds = seconds;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Return a latency percentile.
+         *
+         * @param fraction The percentile, as a fraction
+         * @return The latency in nanoseconds
+         */
+        long percentile(double fraction) {
+            return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, fraction * sortedLatencies.length)];
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package net.xrrocha.spellbound.java;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of {@link SpellingCorrector#getCorrections(String)} by word length
+ * and {@link TypoClass typo class}. Engines run sequentially
+ * (as in the <code>serve</code> and <code>daemon</code> commands), so scores
+ * measure work per call rather than fork/join scheduling; parameter
+ * <code>engine</code> accepts any {@link EngineType} name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorrectionBenchmark {
+
+    @Param({"4", "7", "10"})
+    public int length;
+
+    @Param({"KNOWN", "DISTANCE_1", "DISTANCE_2", "GIBBERISH"})
+    public TypoClass typoClass;
+
+    @Param({"brute-force"})
+    public String engine;
+
+    private SpellingCorrector spellingCorrector;
+    private String[] words;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        var dictionary = BenchmarkData.dictionary();
+        spellingCorrector = new SpellingCorrector(dictionary,
+                                                  Main.engineFactory(Map.of("engine", engine, "threads", "1")));
+        words = BenchmarkData.words(dictionary, spellingCorrector, typoClass, length, new Random(42));
+    }
+
+    @Benchmark
+    public Optional<List<String>> getCorrections() {
+        return spellingCorrector.getCorrections(words[index++ % words.length]);
+    }
+}
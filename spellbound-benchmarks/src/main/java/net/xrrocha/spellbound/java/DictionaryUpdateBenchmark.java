@@ -0,0 +1,180 @@
+package net.xrrocha.spellbound.java;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a {@link ConcurrentDictionary} under mixed read/write
+ * workloads: three reader threads (dictionary lookups or distance-1
+ * corrections) running alongside one writer thread cycling words through
+ * {@link ConcurrentDictionary#addWord addWord},
+ * {@link ConcurrentDictionary#updateRank updateRank} and
+ * {@link ConcurrentDictionary#removeWord removeWord}. Benchmark
+ * <code>lookup</code> gives the read-only baseline of three reader threads,
+ * against the concurrent dictionary as well as the immutable {@link RankTable}
+ * and {@link FrontCodedDictionary}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DictionaryUpdateBenchmark {
+
+    /**
+     * Number of distinct words the writer cycles through.
+     */
+    private static final int UPDATED_WORD_COUNT = 1024;
+
+    private ConcurrentDictionary dictionary;
+    private SpellingCorrector spellingCorrector;
+    private String[] lookups;
+    private String[] typos;
+    private String[] updatedWords;
+    private int writeIndex;
+
+    /**
+     * Read-only lookups, by dictionary implementation.
+     */
+    @State(Scope.Benchmark)
+    public static class ReadOnly {
+
+        @Param({"rank-table", "concurrent", "front-coded"})
+        public String dictionaryType;
+
+        Dictionary dictionary;
+        String[] lookups;
+
+        @Setup
+        public void setUp() {
+            var rankTable = BenchmarkData.dictionary();
+            switch (dictionaryType) {
+                case "concurrent":
+                    dictionary = ConcurrentDictionary.copyOf(rankTable);
+                    break;
+                case "front-coded":
+                    dictionary = FrontCodedDictionary.of(rankTable);
+                    break;
+                default:
+                    dictionary = rankTable;
+            }
+            lookups = lookups(rankTable);
+        }
+    }
+
+    /**
+     * Per-thread position in the inputs.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int index;
+    }
+
+    @Setup
+    public void setUp() {
+        var rankTable = BenchmarkData.dictionary();
+        dictionary = ConcurrentDictionary.copyOf(rankTable);
+        spellingCorrector = new SpellingCorrector(dictionary, d -> new BruteForceEngine(
+            d, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false));
+        lookups = lookups(rankTable);
+        typos = BenchmarkData.words(rankTable, spellingCorrector, TypoClass.DISTANCE_1, 7, new Random(42));
+
+        // New words, shaped like the ones readers look up
+        var random = new Random(7);
+        var words = EditDistance.lowercaseWords(rankTable);
+        updatedWords = new String[UPDATED_WORD_COUNT];
+        for (int i = 0; i < updatedWords.length; ) {
+            var word = words[random.nextInt(words.length)] + "q";
+            if (!rankTable.contains(word)) {
+                updatedWords[i++] = word;
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("lookup")
+    @GroupThreads(3)
+    public boolean lookup(ReadOnly readOnly, Cursor cursor) {
+        return readOnly.dictionary.contains(readOnly.lookups[cursor.index++ % readOnly.lookups.length]);
+    }
+
+    @Benchmark
+    @Group("lookupWhileUpdating")
+    @GroupThreads(3)
+    public boolean lookupWhileUpdating(Cursor cursor) {
+        return dictionary.contains(lookups[cursor.index++ % lookups.length]);
+    }
+
+    @Benchmark
+    @Group("lookupWhileUpdating")
+    @GroupThreads(1)
+    public boolean updateWhileLookingUp() {
+        return update();
+    }
+
+    @Benchmark
+    @Group("correctWhileUpdating")
+    @GroupThreads(3)
+    public Optional<List<String>> correctWhileUpdating(Cursor cursor) {
+        return spellingCorrector.getCorrections(typos[cursor.index++ % typos.length]);
+    }
+
+    @Benchmark
+    @Group("correctWhileUpdating")
+    @GroupThreads(1)
+    public boolean updateWhileCorrecting() {
+        return update();
+    }
+
+    /**
+     * Add, then re-rank, then remove each of the updated words in turn.
+     *
+     * @return Whether the update changed the dictionary
+     */
+    private boolean update() {
+        var index = writeIndex++;
+        var word = updatedWords[index % UPDATED_WORD_COUNT];
+        switch (index / UPDATED_WORD_COUNT % 3) {
+            case 0:
+                return dictionary.addWord(word, index);
+            case 1:
+                return dictionary.updateRank(word, index);
+            default:
+                return dictionary.removeWord(word);
+        }
+    }
+
+    /**
+     * Return a mix of present and absent words to look up.
+     *
+     * @param dictionary The dictionary
+     * @return The words, half of them present
+     */
+    private static String[] lookups(Dictionary dictionary) {
+        var random = new Random(42);
+        var words = EditDistance.lowercaseWords(dictionary);
+        var lookups = new String[4096];
+        for (int i = 0; i < lookups.length; i++) {
+            var word = words[random.nextInt(words.length)];
+            lookups[i] = i % 2 == 0 ? word : word + "q";
+        }
+        return lookups;
+    }
+}
@@ -0,0 +1,107 @@
+package net.xrrocha.spellbound.java;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of Norvig's building blocks by word length: generating
+ * {@link SpellingCorrector#edits1(String) edits1} and
+ * {@link SpellingCorrector#edits2(String) edits2} candidates, and
+ * {@link BruteForceEngine#known(Stream) known}, i.e. filtering the
+ * <code>edits1</code> candidates down to dictionary words (behind the
+ * engine's default prefilter). Distance-2 corrections, whose
+ * <code>edits2</code> candidates nearly all miss the dictionary, are also
+ * timed by {@link BloomFilter} false positive rate (<code>1</code> disabling
+ * the prefilter) for the two engines probing candidates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EditsBenchmark {
+
+    @Param({"4", "7", "10"})
+    public int length;
+
+    private BruteForceEngine engine;
+    private String[] typos;
+    private List<List<String>> candidates;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        var dictionary = BenchmarkData.dictionary();
+        engine = new BruteForceEngine(dictionary, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false);
+        var spellingCorrector = new SpellingCorrector(dictionary);
+        typos = BenchmarkData.words(dictionary, spellingCorrector, TypoClass.DISTANCE_1, length,
+                                    new Random(42));
+        candidates = Stream.of(typos)
+            .map(typo -> SpellingCorrector.edits1(typo).collect(toList()))
+            .collect(toList());
+    }
+
+    @Benchmark
+    public long edits1() {
+        return SpellingCorrector.edits1(typos[index++ % typos.length]).count();
+    }
+
+    @Benchmark
+    public long edits2() {
+        return SpellingCorrector.edits2(typos[index++ % typos.length]).count();
+    }
+
+    @Benchmark
+    public Optional<List<String>> prefilteredCorrections(Prefiltered prefiltered) {
+        return prefiltered.spellingCorrector.getCorrections(prefiltered.words[index++ % prefiltered.words.length]);
+    }
+
+    @Benchmark
+    public List<String> known() {
+        return engine.known(candidates.get(index++ % typos.length).stream());
+    }
+
+    /**
+     * Sequential engine with a given prefilter rate, correcting distance-2
+     * typos of the benchmark's word length.
+     */
+    @State(Scope.Thread)
+    public static class Prefiltered {
+
+        @Param({"1", "0.1", "0.01", "0.001"})
+        public String falsePositiveRate;
+
+        @Param({"brute-force", "scratch-buffer"})
+        public String engine;
+
+        private SpellingCorrector spellingCorrector;
+        private String[] words;
+
+        @Setup
+        public void setUp(EditsBenchmark benchmark) {
+            var dictionary = BenchmarkData.dictionary();
+            spellingCorrector = new SpellingCorrector(dictionary, Main.engineFactory(Map.of(
+                "engine", engine, "threads", "1", "false-positive-rate", falsePositiveRate)));
+            words = BenchmarkData.words(dictionary, spellingCorrector, TypoClass.DISTANCE_2, benchmark.length,
+                                        new Random(42));
+        }
+    }
+}
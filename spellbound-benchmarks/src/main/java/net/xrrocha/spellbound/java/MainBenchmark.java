@@ -0,0 +1,118 @@
+package net.xrrocha.spellbound.java;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end costs of the command-line tool: opening the dictionary (as
+ * parsed from tab-delimited text or as a mapped {@link MappedDictionary}
+ * image) and running {@link Main#processInputLines} over a block of text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MainBenchmark {
+
+    /**
+     * Number of text lines processed per operation.
+     */
+    private static final int LINE_COUNT = 100;
+
+    /**
+     * Number of words per text line.
+     */
+    private static final int WORDS_PER_LINE = 10;
+
+    /**
+     * Fraction of text words that are (distance-1) typos.
+     */
+    private static final double TYPO_RATE = 0.02;
+
+    private SpellingCorrector spellingCorrector;
+    private List<String> lines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var dictionary = BenchmarkData.dictionary();
+        spellingCorrector = new SpellingCorrector(dictionary, Main.engineFactory(Map.of("threads", "1")));
+
+        // Text drawn from dictionary words, with seeded replacement typos
+        var random = new Random(42);
+        var words = EditDistance.lowercaseWords(dictionary);
+        lines = new ArrayList<>();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            var line = new StringBuilder();
+            for (int j = 0; j < WORDS_PER_LINE; j++) {
+                var word = words[random.nextInt(words.length)].toCharArray();
+                if (random.nextDouble() < TYPO_RATE) {
+                    word[random.nextInt(word.length)] = (char) ('a' + random.nextInt(26));
+                }
+                line.append(j == 0 ? "" : " ").append(word);
+            }
+            lines.add(line.toString());
+        }
+    }
+
+    @Benchmark
+    public Dictionary openDictionary(DictionaryFile dictionaryFile) {
+        return Main.openDictionary(dictionaryFile.filename);
+    }
+
+    @Benchmark
+    public long processInputLines() {
+        return Main.processInputLines(lines.stream(), spellingCorrector, (word, suggestions) -> suggestions.size())
+            .count();
+    }
+
+    /**
+     * The dictionary file to open, as tab-delimited text or as an image
+     * compiled from it.
+     */
+    @State(Scope.Benchmark)
+    public static class DictionaryFile {
+
+        @Param({"tsv", "image"})
+        public String format;
+
+        private Path image;
+        private String filename;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            filename = BenchmarkData.dictionaryPath().toString();
+            if (format.equals("image")) {
+                image = Files.createTempFile("spellbound-", ".img");
+                Main.compile(filename, image.toString());
+                filename = image.toString();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (image != null) {
+                Files.deleteIfExists(image);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package net.xrrocha.spellbound.java;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of the {@link ScratchBufferEngine} with and without
+ * {@link TrigramTable trigram} pruning of final-level candidates, by word
+ * length and {@link TypoClass typo class}. The candidates generated and
+ * probed per correction are printed at the end of each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PruningBenchmark {
+
+    @Param({"4", "7", "10"})
+    public int length;
+
+    @Param({"DISTANCE_1", "DISTANCE_2", "GIBBERISH"})
+    public TypoClass typoClass;
+
+    @Param({"false", "true"})
+    public boolean pruning;
+
+    private SpellingCorrector spellingCorrector;
+    private String[] words;
+    private int index;
+    private long correctionCount;
+    private long candidateCount;
+    private long probeCount;
+
+    @Setup
+    public void setUp() {
+        var dictionary = BenchmarkData.dictionary();
+        spellingCorrector = new SpellingCorrector(dictionary, d -> new ScratchBufferEngine(
+            d, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, pruning))
+            .withListener(metrics -> {
+                correctionCount++;
+                candidateCount += metrics.getCandidateCount();
+                probeCount += metrics.getProbeCount();
+            });
+        words = BenchmarkData.words(dictionary, spellingCorrector, typoClass, length, new Random(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%.0f candidates and %.1f probes per correction%n",
+                          (double) candidateCount / correctionCount, (double) probeCount / correctionCount);
+    }
+
+    @Benchmark
+    public Optional<List<String>> getCorrections() {
+        return spellingCorrector.getCorrections(words[index++ % words.length]);
+    }
+}
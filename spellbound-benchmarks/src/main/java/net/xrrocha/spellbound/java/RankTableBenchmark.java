@@ -0,0 +1,117 @@
+package net.xrrocha.spellbound.java;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Probe latency and footprint of the {@link RankTable} against the
+ * <code>HashMap&lt;String, Integer&gt;</code> it replaced, over the same mix
+ * of present and absent words. Strings keep their hash cached, as in the
+ * map. The <code>slice</code> benchmarks probe <code>char[]</code> slices, as
+ * the {@link ScratchBufferEngine} does: the rank table hashes each one in
+ * place, while the map needs it as a new string. Both footprints are
+ * printed at the end of each trial (the map's estimated for a 64-bit JVM
+ * with compressed references).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankTableBenchmark {
+
+    private RankTable rankTable;
+    private Map<String, Integer> hashMap;
+    private String[] lookups;
+    private char[] chars;
+    private int[] offsets;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rankTable = DictionaryLoader.load(BenchmarkData.dictionaryPath(), message -> {});
+        hashMap = new HashMap<>();
+        rankTable.forEach(hashMap::put);
+
+        // Half present, half absent words, also packed back to back as slices
+        var random = new Random(42);
+        var words = EditDistance.lowercaseWords(rankTable);
+        lookups = new String[4096];
+        offsets = new int[lookups.length + 1];
+        var packed = new StringBuilder();
+        for (int i = 0; i < lookups.length; i++) {
+            var word = words[random.nextInt(words.length)];
+            lookups[i] = i % 2 == 0 ? word : word + "q";
+            packed.append(lookups[i]);
+            offsets[i + 1] = packed.length();
+        }
+        chars = packed.toString().toCharArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%d words: rank table %,d bytes, hash map ~%,d bytes%n",
+                          rankTable.size(), rankTable.footprintBytes(), hashMapFootprintBytes(hashMap));
+    }
+
+    @Benchmark
+    public Integer hashMap() {
+        return hashMap.get(lookups[index++ % lookups.length]);
+    }
+
+    @Benchmark
+    public Integer hashMapSlice() {
+        var i = index++ % lookups.length;
+        return hashMap.get(new String(chars, offsets[i], offsets[i + 1] - offsets[i]));
+    }
+
+    @Benchmark
+    public int rankTableString() {
+        return rankTable.rank(lookups[index++ % lookups.length]);
+    }
+
+    @Benchmark
+    public int rankTableSlice() {
+        var i = index++ % lookups.length;
+        return rankTable.rank(chars, offsets[i], offsets[i + 1] - offsets[i]);
+    }
+
+    /**
+     * Estimate the heap footprint of a <code>HashMap&lt;String, Integer&gt;</code>
+     * of ascii words: its table, a node per entry, each key (string and
+     * latin-1 byte array) and each uncached <code>Integer</code>.
+     *
+     * @param map The map
+     * @return The estimated footprint in bytes
+     */
+    private static long hashMapFootprintBytes(Map<String, Integer> map) {
+        var capacity = Integer.highestOneBit(Math.max(1, (int) (map.size() / 0.75f)) - 1) << 1;
+        var bytes = 48 + align(16 + 4L * capacity);
+        for (var entry : map.entrySet()) {
+            bytes += 32 + 24 + align(16 + entry.getKey().length());
+            if (entry.getValue() < -128 || entry.getValue() > 127) {
+                bytes += 16;
+            }
+        }
+        return bytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
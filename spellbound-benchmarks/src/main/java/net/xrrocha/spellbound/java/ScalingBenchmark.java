@@ -0,0 +1,149 @@
+package net.xrrocha.spellbound.java;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Throughput of the brute-force engine as the number of concurrent callers
+ * grows, comparing per-call parallelism (every call fans out onto the common
+ * fork/join pool), strictly sequential calls, and
+ * {@link SpellingCorrector#correctAll(java.util.Collection, java.util.concurrent.Executor)}
+ * batches on a thread pool.
+ * <p>
+ * A standalone harness rather than a JMH benchmark, packaged in
+ * <code>benchmarks.jar</code>: run it passing the dictionary
+ * file and, optionally, the largest number of callers (which defaults to
+ * <code>64</code>):
+ * </p>
+ * <blockquote>
+ *
+ * <pre>
+ * <code>java -cp target/benchmarks.jar net.xrrocha.spellbound.java.ScalingBenchmark ../data/dictionary.tsv 64</code>
+ * </pre>
+ *
+ * </blockquote>
+ */
+public class ScalingBenchmark {
+
+    /**
+     * Number of distinct typos corrected per measurement.
+     */
+    private static final int TYPO_COUNT = 256;
+
+    public static void main(String[] args) throws Exception {
+        var dictionary = DictionaryLoader.load(Paths.get(args[0]), message -> {});
+        var maxCallers = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        var typos = typos(dictionary, new Random(42));
+
+        var parallel = new SpellingCorrector(dictionary, d -> new BruteForceEngine(d, 0.01, true));
+        var sequential = new SpellingCorrector(dictionary, d -> new BruteForceEngine(d, 0.01, false));
+
+        // Warm up all code paths
+        measure(parallel, typos.subList(0, 32), 1);
+        measure(sequential, typos.subList(0, 32), 1);
+        measureBatch(sequential, typos.subList(0, 32), 1);
+
+        System.out.printf("%d CPUs, %d typos per run (typos/s)%n", Runtime.getRuntime().availableProcessors(),
+                          typos.size());
+        System.out.printf("%8s %12s %12s %12s%n", "callers", "parallel", "sequential", "correctAll");
+        for (int callers = 1; callers <= maxCallers; callers *= 2) {
+            System.out.printf("%8d %12.0f %12.0f %12.0f%n", callers,
+                              measure(parallel, typos, callers),
+                              measure(sequential, typos, callers),
+                              measureBatch(sequential, typos, callers));
+        }
+    }
+
+    /**
+     * Correct typos from concurrent caller threads, each taking every
+     * <code>callers</code>-th typo.
+     *
+     * @param corrector The spelling corrector
+     * @param typos     The typos to correct
+     * @param callers   The number of caller threads
+     * @return The throughput in typos per second
+     */
+    private static double measure(SpellingCorrector corrector, List<String> typos, int callers) throws Exception {
+        return time(callers, caller -> () -> {
+            for (int i = caller; i < typos.size(); i += callers) {
+                corrector.getCorrections(typos.get(i));
+            }
+            return null;
+        }, typos.size());
+    }
+
+    /**
+     * Correct typos as a single batch on a pool of <code>threads</code> threads.
+     *
+     * @param corrector The spelling corrector
+     * @param typos     The typos to correct
+     * @param threads   The number of pool threads
+     * @return The throughput in typos per second
+     */
+    private static double measureBatch(SpellingCorrector corrector, List<String> typos, int threads) {
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var start = System.nanoTime();
+            corrector.correctAll(typos, executor);
+            return typos.size() / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static double time(int callers, Function<Integer, Callable<Void>> task, int count) throws Exception {
+        var executor = Executors.newFixedThreadPool(callers);
+        try {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (int caller = 0; caller < callers; caller++) {
+                tasks.add(task.apply(caller));
+            }
+            var start = System.nanoTime();
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            return count / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Generate distinct typos one or two edits (deletes or replaces) away from
+     * random dictionary words.
+     *
+     * @param dictionary The dictionary
+     * @param random     The random number generator
+     * @return The typos
+     */
+    static List<String> typos(Dictionary dictionary, Random random) {
+        var words = EditDistance.lowercaseWords(dictionary);
+        var typos = new ArrayList<String>();
+        while (typos.size() < TYPO_COUNT) {
+            var chars = new StringBuilder(words[random.nextInt(words.length)]);
+            if (chars.length() < 5) {
+                continue;
+            }
+            for (int edit = 0; edit <= typos.size() % 2; edit++) {
+                var position = random.nextInt(chars.length());
+                if (random.nextBoolean()) {
+                    chars.deleteCharAt(position);
+                } else {
+                    chars.setCharAt(position, (char) ('a' + random.nextInt(26)));
+                }
+            }
+            var typo = chars.toString();
+            if (!dictionary.contains(typo) && !typos.contains(typo)) {
+                typos.add(typo);
+            }
+        }
+        return typos;
+    }
+}
@@ -0,0 +1,133 @@
+package net.xrrocha.spellbound.java;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Localhost load test of {@link CorrectionServer}: concurrent clients issue
+ * <code>GET /correct</code> requests back to back for a fixed time, reporting
+ * throughput, median and 99th percentile latency and the number of requests
+ * shed with <code>503</code>.
+ * <p>
+ * A standalone harness rather than a JMH benchmark, packaged in
+ * <code>benchmarks.jar</code>: run it passing the dictionary
+ * file and, optionally, the number of server threads, the queue capacity,
+ * the largest number of clients and the seconds per measurement (which
+ * default to the number of processors, <code>64</code>, <code>64</code> and
+ * <code>5</code>):
+ * </p>
+ * <blockquote>
+ *
+ * <pre>
+ * <code>java -cp target/benchmarks.jar net.xrrocha.spellbound.java.ServerLoadBenchmark ../data/dictionary.tsv 4 64 64 5</code>
+ * </pre>
+ *
+ * </blockquote>
+ */
+public class ServerLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        var dictionary = DictionaryLoader.load(Paths.get(args[0]), message -> {});
+        var threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        var queueCapacity = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        var maxClients = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        var duration = Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 5);
+        var typos = ScalingBenchmark.typos(dictionary, new Random(42));
+
+        // No cache: every request runs the engine
+        var spellingCorrector = new SpellingCorrector(dictionary, d -> new BruteForceEngine(d, 0.01, false));
+        var server = new CorrectionServer(spellingCorrector, new InetSocketAddress("127.0.0.1", 0),
+                                          threads, queueCapacity);
+        server.start();
+        try {
+            var url = "http://127.0.0.1:" + server.getAddress().getPort() + "/correct?word=";
+            measure(url, typos, 1, Duration.ofSeconds(2));
+
+            System.out.printf("%d CPUs, %d server threads, queue of %d, %ds per run%n",
+                              Runtime.getRuntime().availableProcessors(), threads, queueCapacity,
+                              duration.toSeconds());
+            System.out.printf("%8s %12s %10s %10s %10s%n", "clients", "requests/s", "p50 ms", "p99 ms", "shed");
+            for (int clients = 1; clients <= maxClients; clients *= 2) {
+                measure(url, typos, clients, duration);
+            }
+        } finally {
+            server.stop(Duration.ofSeconds(1));
+        }
+    }
+
+    /**
+     * Issue requests from concurrent clients for a while and print a result
+     * row.
+     *
+     * @param url      The request URL, less the word
+     * @param typos    The typos to request
+     * @param clients  The number of client threads
+     * @param duration The measurement time
+     */
+    private static void measure(String url, List<String> typos, int clients, Duration duration) throws Exception {
+        var executor = Executors.newFixedThreadPool(clients);
+        try {
+            var tasks = new ArrayList<Callable<long[]>>();
+            var end = System.nanoTime() + duration.toNanos();
+            for (int client = 0; client < clients; client++) {
+                var first = client;
+                tasks.add(() -> {
+                    // Latencies of successful requests, negated for shed ones
+                    var latencies = new long[1024];
+                    var count = 0;
+                    for (int i = first; System.nanoTime() < end; i += clients) {
+                        var start = System.nanoTime();
+                        var status = get(url + typos.get(i % typos.size()));
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, 2 * count);
+                        }
+                        latencies[count++] = status == 503 ? -1 : System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                });
+            }
+            var start = System.nanoTime();
+            var latencies = new ArrayList<Long>();
+            var shed = 0;
+            for (var future : executor.invokeAll(tasks)) {
+                for (var latency : future.get()) {
+                    if (latency < 0) {
+                        shed++;
+                    } else {
+                        latencies.add(latency);
+                    }
+                }
+            }
+            var seconds = (System.nanoTime() - start) / 1e9;
+            latencies.sort(null);
+            System.out.printf("%8d %12.0f %10.2f %10.2f %10d%n", clients, latencies.size() / seconds,
+                              percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, shed);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static int get(String url) throws Exception {
+        var connection = (HttpURLConnection) new URL(url).openConnection();
+        var status = connection.getResponseCode();
+        try (var input = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            input.readAllBytes();
+        }
+        return status;
+    }
+
+    private static long percentile(List<Long> sorted, double fraction) {
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, fraction * sorted.size()));
+    }
+}
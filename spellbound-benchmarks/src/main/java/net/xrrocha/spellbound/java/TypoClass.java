@@ -0,0 +1,24 @@
+package net.xrrocha.spellbound.java;
+
+/**
+ * Classes of benchmark input words, by distance to their nearest
+ * corrections.
+ */
+public enum TypoClass {
+    /**
+     * Dictionary words.
+     */
+    KNOWN,
+    /**
+     * Typos with corrections one edit away.
+     */
+    DISTANCE_1,
+    /**
+     * Typos whose nearest corrections are two edits away.
+     */
+    DISTANCE_2,
+    /**
+     * Typos without corrections within two edits.
+     */
+    GIBBERISH
+}
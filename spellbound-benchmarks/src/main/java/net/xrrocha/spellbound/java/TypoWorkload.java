@@ -0,0 +1,131 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Reproducible synthetic typos: dictionary words with a given number of
+ * random edits (deletes, transposes, replaces and inserts, as in Norvig's
+ * <code>edits1</code>) applied, each remembering the word it was derived
+ * from. The same seed always yields the same typos.
+ * <p>
+ * A typo's edit count is an upper bound on its distance to the original
+ * word: edits may partly cancel out (e.g. a replace restoring the letter a
+ * previous one changed), and the typo may lie closer to another word.
+ * </p>
+ */
+final class TypoWorkload {
+
+    /**
+     * Shortest dictionary word typos are derived from.
+     */
+    static final int MIN_WORD_LENGTH = 4;
+
+    /**
+     * A typo and the word it was derived from.
+     */
+    static final class Typo {
+
+        /**
+         * The misspelled word.
+         */
+        final String typo;
+
+        /**
+         * The intended dictionary word.
+         */
+        final String original;
+
+        /**
+         * The number of edits applied.
+         */
+        final int edits;
+
+        /**
+         * Constructor.
+         *
+         * @param typo     The misspelled word
+         * @param original The intended dictionary word
+         * @param edits    The number of edits applied
+         */
+        Typo(String typo, String original, int edits) {
+            this.typo = typo;
+            this.original = original;
+            this.edits = edits;
+        }
+    }
+
+    private TypoWorkload() {
+    }
+
+    /**
+     * Generate distinct typos missing from a dictionary.
+     *
+     * @param dictionary The word-to-rank dictionary
+     * @param edits      The number of edits per typo
+     * @param count      The number of typos
+     * @param seed       The random seed
+     * @return The typos
+     */
+    static List<Typo> generate(Map<String, Integer> dictionary, int edits, int count, long seed) {
+        checkNotNull(dictionary);
+        checkArgument(edits > 0);
+        checkArgument(count >= 0);
+
+        // Sort words so the seed alone determines the workload
+        var words = dictionary.keySet().stream()
+            .filter(word -> word.length() >= MIN_WORD_LENGTH && EditDistance.isLowercase(word))
+            .sorted()
+            .toArray(String[]::new);
+        checkArgument(words.length > 0, "No dictionary words of length %s or more", MIN_WORD_LENGTH);
+
+        var random = new Random(seed);
+        var typos = new ArrayList<Typo>(count);
+        var seen = new HashSet<String>();
+        while (typos.size() < count) {
+            var original = words[random.nextInt(words.length)];
+            var chars = new StringBuilder(original);
+            for (int edit = 0; edit < edits; edit++) {
+                edit(chars, random);
+            }
+            var typo = chars.toString();
+            if (!typo.isEmpty() && !dictionary.containsKey(typo) && seen.add(typo)) {
+                typos.add(new Typo(typo, original, edits));
+            }
+        }
+        return typos;
+    }
+
+    /**
+     * Apply a random edit.
+     *
+     * @param chars  The word being edited
+     * @param random The random number generator
+     */
+    private static void edit(StringBuilder chars, Random random) {
+        var letter = (char) ('a' + random.nextInt(EditDistance.ALPHABET_SIZE));
+        var position = random.nextInt(chars.length());
+        switch (chars.length() > 1 ? random.nextInt(4) : 3) {
+            case 0:
+                chars.deleteCharAt(position);
+                break;
+            case 1:
+                var next = position + 1 < chars.length() ? position + 1 : position - 1;
+                var c = chars.charAt(position);
+                chars.setCharAt(position, chars.charAt(next));
+                chars.setCharAt(next, c);
+                break;
+            case 2:
+                chars.setCharAt(position, letter);
+                break;
+            default:
+                chars.insert(random.nextInt(chars.length() + 1), letter);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Correction engine walking a Levenshtein (Damerau) automaton for the typo in
+ * lockstep with a trie of the dictionary words.
+ * <p>
+ * The automaton is simulated rather than compiled: its state after reading a
+ * word prefix is the prefix's row of the Damerau-Levenshtein matrix against the
+ * typo (the cells capped at the maximum distance being the automaton's live
+ * positions). Walking a trie edge advances every word sharing the prefix at
+ * once and, as row minima never decrease, a subtree whose row minimum exceeds
+ * the maximum distance is pruned without being visited. Cost thus scales with
+ * the portion of the dictionary resembling the typo instead of with the
+ * <code>26&middot;n&sup2;</code> strings <code>edits2</code> would generate.
+ * </p>
+ * <p>
+ * Each trie node also records the highest rank in its subtree, and siblings
+ * are linked in descending order of it. Top-k requests visit the most
+ * promising subtrees first and stop descending as soon as no word left in a
+ * subtree can outrank the current k-th best suggestion.
+ * </p>
+ */
+public class AutomatonEngine implements CorrectionEngine {
+
+    /**
+     * Indexed (lowercase) dictionary words; word ids are positions in this array.
+     */
+    private final String[] words;
+
+    /**
+     * Ranks of the indexed words.
+     */
+    private final int[] ranks;
+
+    /**
+     * Trie over the indexed words.
+     */
+    private final Trie trie;
+
+    /**
+     * Highest word rank in the subtree rooted at each trie node.
+     */
+    private final int[] subtreeMaxRanks;
+
+    /**
+     * Constructor. Builds the dictionary trie.
+     *
+     * @param dictionary The word-to-rank dictionary to draw valid words from.
+     */
+    public AutomatonEngine(Dictionary dictionary) {
+        checkNotNull(dictionary);
+        checkArgument(!(dictionary instanceof ConcurrentDictionary),
+                      "%s indexes a snapshot of the words, which would go stale", getClass().getSimpleName());
+
+        // Only lowercase words are reachable from a normalized typo
+        words = EditDistance.lowercaseWords(dictionary);
+        ranks = Arrays.stream(words).mapToInt(dictionary::rank).toArray();
+        trie = new Trie(words);
+
+        // Propagate ranks upwards (children always have higher ids than their
+        // parents) and link the best subtrees first
+        subtreeMaxRanks = new int[trie.size];
+        Arrays.fill(subtreeMaxRanks, Integer.MIN_VALUE);
+        for (int node = trie.size - 1; node >= 0; node--) {
+            if (trie.wordIds[node] != Trie.NONE) {
+                subtreeMaxRanks[node] = Math.max(subtreeMaxRanks[node], ranks[trie.wordIds[node]]);
+            }
+            for (int child = trie.firstChild[node]; child != Trie.NONE; child = trie.nextSibling[child]) {
+                subtreeMaxRanks[node] = Math.max(subtreeMaxRanks[node], subtreeMaxRanks[child]);
+            }
+        }
+        trie.sortChildren(subtreeMaxRanks);
+    }
+
+    @Override
+    public void collect(String typo, int distance, SuggestionSink sink) {
+        checkArgument(distance > 0 && distance <= maxDistance());
+        new Walk(typo, distance, sink, null).visitChildren(0, 1);
+    }
+
+    /**
+     * Return the <code>k</code> best corrections, pruning every subtree whose
+     * best word can't outrank the current k-th best suggestion.
+     *
+     * @param typo A normalized (lowercase, alphabetic) word known to be absent
+     *             from the dictionary
+     * @param k    The maximum number of suggestions to return
+     * @return The (possibly empty) list of best suggestions
+     */
+    @Override
+    public List<Suggestion> getTopCorrections(String typo, int k) {
+        checkArgument(k > 0);
+        for (int distance = 1; distance <= maxDistance(); distance++) {
+            var topSuggestions = new TopSuggestions(k);
+            new Walk(typo, distance, topSuggestions, topSuggestions).visitChildren(0, 1);
+            if (!topSuggestions.isEmpty()) {
+                return topSuggestions.drain(distance);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * State of a single automaton/trie walk.
+     */
+    private class Walk {
+
+        /**
+         * The typo being corrected.
+         */
+        final String typo;
+
+        /**
+         * The exact distance of the words sought; also the pruning radius.
+         */
+        final int distance;
+
+        /**
+         * The consumer of the words found.
+         */
+        final SuggestionSink sink;
+
+        /**
+         * The top-k selection to prune against (or <code>null</code> if all
+         * words are sought).
+         */
+        final TopSuggestions topSuggestions;
+
+        /**
+         * Matrix rows for each trie depth, shifted by one to accommodate a
+         * sentinel border row and column (row <code>i + 1</code> corresponds to
+         * depth <code>i</code>).
+         */
+        final int[][] rows;
+
+        /**
+         * Deepest depth along the current path at which each letter occurred.
+         */
+        final int[] lastDepth = new int[EditDistance.ALPHABET_SIZE];
+
+        Walk(String typo, int distance, SuggestionSink sink, TopSuggestions topSuggestions) {
+            this.typo = typo;
+            this.distance = distance;
+            this.sink = sink;
+            this.topSuggestions = topSuggestions;
+
+            var width = typo.length() + 2;
+            var infinity = typo.length() + trie.maxDepth;
+            rows = new int[trie.maxDepth + 2][width];
+            for (int j = 0; j < width; j++) {
+                rows[0][j] = infinity;
+            }
+            rows[1][0] = infinity;
+            for (int j = 0; j <= typo.length(); j++) {
+                rows[1][j + 1] = j;
+            }
+        }
+
+        /**
+         * Advance the automaton along every child edge of a trie node.
+         *
+         * @param node  The trie node whose children are to be visited
+         * @param depth The depth of the children
+         */
+        void visitChildren(int node, int depth) {
+            for (int child = trie.firstChild[node]; child != Trie.NONE; child = trie.nextSibling[child]) {
+                // Siblings come best first: once one can't make it, none can
+                if (topSuggestions != null && topSuggestions.isFull() &&
+                        subtreeMaxRanks[child] < topSuggestions.lowestRank()) {
+                    return;
+                }
+                visit(child, depth);
+            }
+        }
+
+        /**
+         * Compute the automaton state (matrix row) for a trie node, record the
+         * node's word if within reach and descend unless the subtree is out of
+         * reach.
+         *
+         * @param node  The trie node to visit
+         * @param depth The node's depth
+         */
+        void visit(int node, int depth) {
+            var letter = trie.letters[node];
+            var previous = rows[depth];
+            var row = rows[depth + 1];
+            var typoLength = typo.length();
+
+            row[0] = rows[0][0];
+            row[1] = depth;
+            var rowMinimum = depth;
+            var lastMatchColumn = 0;
+            for (int j = 1; j <= typoLength; j++) {
+                var typoLetter = typo.charAt(j - 1);
+                var transposeDepth = lastDepth[typoLetter - 'a'];
+                var transposeColumn = lastMatchColumn;
+                int cost;
+                if (letter == typoLetter) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                } else {
+                    cost = 1;
+                }
+                var value = Math.min(
+                    Math.min(previous[j] + cost, row[j] + 1),
+                    Math.min(previous[j + 1] + 1,
+                             rows[transposeDepth][transposeColumn] +
+                                 (depth - transposeDepth - 1) + 1 + (j - transposeColumn - 1)));
+                row[j + 1] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+
+            // A word ends here at exactly the distance sought
+            var wordId = trie.wordIds[node];
+            if (wordId != Trie.NONE && row[typoLength + 1] == distance) {
+                sink.accept(words[wordId], ranks[wordId]);
+            }
+
+            // Row minima never decrease with depth: prune unreachable subtrees
+            if (rowMinimum <= distance) {
+                var letterIndex = letter - 'a';
+                var savedDepth = lastDepth[letterIndex];
+                lastDepth[letterIndex] = depth;
+                visitChildren(node, depth + 1);
+                lastDepth[letterIndex] = savedDepth;
+            }
+        }
+    }
+}
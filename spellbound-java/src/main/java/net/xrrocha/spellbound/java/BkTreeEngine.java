@@ -0,0 +1,299 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * <a href="https://en.wikipedia.org/wiki/BK-tree">BK-tree</a> correction
+ * engine with a configurable maximum edit distance.
+ * <p>
+ * A BK-tree is a metric tree: each child hangs off its parent under their
+ * mutual (Damerau-Levenshtein) distance. By the triangle inequality, when
+ * searching for words within distance <code>k</code> of a typo lying at
+ * distance <code>d</code> from a node only children hanging under distances
+ * <code>d - k</code> through <code>d + k</code> need be visited. Unlike
+ * brute-force generation, whose cost grows exponentially with the number of
+ * edits, search cost grows with the fraction of the tree within reach, so
+ * distances beyond 2 remain affordable.
+ * </p>
+ * <p>
+ * Nodes are stored as parallel arrays indexed by word id (first child, next
+ * sibling and distance to parent) rather than as objects.
+ * </p>
+ */
+public class BkTreeEngine implements CorrectionEngine {
+
+    /**
+     * The word-to-rank dictionary used to order suggestions.
+     */
+    private final Dictionary dictionary;
+
+    /**
+     * Maximum edit distance searched for.
+     */
+    private final int maxDistance;
+
+    /**
+     * Tree nodes: (lowercase) dictionary words indexed by node id. Node 0 is the
+     * root.
+     */
+    private final String[] words;
+
+    /**
+     * First child of each node (or <code>-1</code>).
+     */
+    private final int[] firstChild;
+
+    /**
+     * Next sibling of each node (or <code>-1</code>).
+     */
+    private final int[] nextSibling;
+
+    /**
+     * Distance of each node to its parent.
+     */
+    private final int[] parentDistance;
+
+    /**
+     * Tree depth (edges along the longest root-to-leaf path).
+     */
+    private final int depth;
+
+    /**
+     * Time taken to build the tree, in milliseconds.
+     */
+    private final long buildMillis;
+
+    /**
+     * Constructor using the default maximum edit distance.
+     *
+     * @param dictionary The word-to-rank dictionary to draw valid words from.
+     */
+    public BkTreeEngine(Dictionary dictionary) {
+        this(dictionary, DEFAULT_MAX_DISTANCE);
+    }
+
+    /**
+     * Constructor. Builds the BK-tree from the dictionary.
+     *
+     * @param dictionary  The word-to-rank dictionary to draw valid words from.
+     * @param maxDistance The maximum edit distance to search for (at least 1)
+     */
+    public BkTreeEngine(Dictionary dictionary, int maxDistance) {
+        checkNotNull(dictionary);
+        checkArgument(!(dictionary instanceof ConcurrentDictionary),
+                      "%s indexes a snapshot of the words, which would go stale", getClass().getSimpleName());
+        checkArgument(maxDistance > 0);
+        this.dictionary = dictionary;
+        this.maxDistance = maxDistance;
+
+        var startTime = System.nanoTime();
+
+        // Only lowercase words are reachable from a normalized typo; shuffling
+        // insertion order keeps the tree from degenerating on sorted input
+        words = EditDistance.lowercaseWords(dictionary);
+        Collections.shuffle(Arrays.asList(words), new Random(words.length));
+
+        firstChild = new int[words.length];
+        nextSibling = new int[words.length];
+        parentDistance = new int[words.length];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+
+        var maxDepth = 0;
+        for (int id = 1; id < words.length; id++) {
+            var word = words[id];
+            var node = 0;
+            var nodeDepth = 1;
+            while (true) {
+                var distance = exactDistance(word, words[node]);
+                var child = childAt(node, distance);
+                if (child < 0) {
+                    // Attach as new child of node
+                    parentDistance[id] = distance;
+                    nextSibling[id] = firstChild[node];
+                    firstChild[node] = id;
+                    break;
+                }
+                node = child;
+                nodeDepth++;
+            }
+            maxDepth = Math.max(maxDepth, nodeDepth);
+        }
+        depth = maxDepth;
+
+        buildMillis = (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    @Override
+    public void collect(String typo, int distance, SuggestionSink sink) {
+        checkArgument(distance > 0 && distance <= maxDistance);
+
+        // Searching with a radius of just distance prunes more than maxDistance
+        for (var word : search(typo, distance).get(distance)) {
+            sink.accept(word, dictionary.rank(word));
+        }
+    }
+
+    /**
+     * Return corrections within the nearest non-empty distance tier: words one
+     * edit away if any, otherwise two edits away and so on up to
+     * <code>maxDistance</code>. The tree is searched only once for all tiers.
+     *
+     * @param typo A normalized word known to be absent from the dictionary
+     * @return The (possibly empty) list of suggested corrections
+     */
+    @Override
+    public List<String> getCorrections(String typo) {
+        var correctionsByDistance = getCorrectionsByDistance(typo);
+        return correctionsByDistance.isEmpty() ? List.of() : correctionsByDistance.get(correctionsByDistance.firstKey());
+    }
+
+    /**
+     * Return all corrections within <code>maxDistance</code> grouped by their
+     * edit distance to the typo. Each group is rank-ordered and empty groups are
+     * omitted.
+     *
+     * @param typo A normalized word
+     * @return The (possibly empty) distance-to-corrections map
+     */
+    public SortedMap<Integer, List<String>> getCorrectionsByDistance(String typo) {
+        var tiers = search(typo, maxDistance);
+        var correctionsByDistance = new TreeMap<Integer, List<String>>();
+        for (int distance = 1; distance <= maxDistance; distance++) {
+            if (!tiers.get(distance).isEmpty()) {
+                var allSuggestions = new TopSuggestions(Integer.MAX_VALUE);
+                tiers.get(distance).forEach(word -> allSuggestions.accept(word, dictionary.rank(word)));
+                correctionsByDistance.put(distance, allSuggestions.drain(distance).stream()
+                    .map(Suggestion::getWord)
+                    .collect(toList()));
+            }
+        }
+        return correctionsByDistance;
+    }
+
+    /**
+     * Search the tree collecting words within a given radius of the typo.
+     *
+     * @param typo   The word to search around
+     * @param radius The maximum distance to the typo
+     * @return The words found, indexed by their distance to the typo
+     */
+    private List<List<String>> search(String typo, int radius) {
+        var tiers = new ArrayList<List<String>>();
+        for (int distance = 0; distance <= radius; distance++) {
+            tiers.add(new ArrayList<>());
+        }
+        if (words.length == 0) {
+            return tiers;
+        }
+
+        var pending = new int[64];
+        var pendingCount = 0;
+        pending[pendingCount++] = 0;
+        while (pendingCount > 0) {
+            var node = pending[--pendingCount];
+            var distance = exactDistance(typo, words[node]);
+            if (distance <= radius) {
+                tiers.get(distance).add(words[node]);
+            }
+            // Triangle inequality: only children within [d - r, d + r] qualify
+            for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                if (Math.abs(parentDistance[child] - distance) <= radius) {
+                    if (pendingCount == pending.length) {
+                        pending = Arrays.copyOf(pending, pendingCount * 2);
+                    }
+                    pending[pendingCount++] = child;
+                }
+            }
+        }
+
+        return tiers;
+    }
+
+    /**
+     * Locate the child of a node hanging under a given distance.
+     *
+     * @param node     The parent node
+     * @param distance The child's distance to its parent
+     * @return The child node or <code>-1</code> if none
+     */
+    private int childAt(int node, int distance) {
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            if (parentDistance[child] == distance) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compute the (uncapped) distance between two words.
+     *
+     * @param word1 The first word
+     * @param word2 The second word
+     * @return The Damerau-Levenshtein distance between both words
+     */
+    private static int exactDistance(String word1, String word2) {
+        return EditDistance.distance(word1, word2, word1.length() + word2.length());
+    }
+
+    @Override
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Return the tree depth (edges along the longest root-to-leaf path).
+     *
+     * @return The tree depth
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Return the time taken to build the tree.
+     *
+     * @return The build time in milliseconds
+     */
+    public long buildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * Return the (estimated) number of bytes taken by the tree: its node
+     * arrays and the lowercase words it holds (object headers included).
+     *
+     * @return The tree's heap footprint in bytes
+     */
+    public long footprintBytes() {
+        // 16 bytes per array header, plus the object itself; three ints and
+        // a (compressed) reference per node
+        var bytes = 32 + 4 * 16 + (long) words.length * (3 * Integer.BYTES + 4);
+        for (var word : words) {
+            // String object plus its (latin-1) byte array
+            bytes += 24 + 16 + word.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Summarize tree shape, build time and (estimated) memory footprint.
+     *
+     * @return A one-line, human-readable build report
+     */
+    public String report() {
+        return String.format("BK-tree: %d nodes, depth %d, max distance %d, built in %d ms, ~%d KiB",
+                             words.length, depth, maxDistance, buildMillis, footprintBytes() / 1024);
+    }
+}
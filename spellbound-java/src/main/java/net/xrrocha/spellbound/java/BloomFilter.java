@@ -0,0 +1,174 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Register-blocked Bloom filter over word hashes, used to reject generated
+ * candidates before they're probed against the dictionary.
+ * <p>
+ * Each word sets <code>k</code> bits within a single 64-bit block, so that a
+ * membership test costs one hash mix, one memory access and one mask
+ * comparison no matter <code>k</code>. Confining bits to a block costs some
+ * accuracy, which is made up for with extra bits per word. Words are keyed by
+ * their polynomial (<code>String.hashCode()</code>) hash, which callers have
+ * usually computed already for the dictionary probe that follows.
+ * </p>
+ */
+final class BloomFilter {
+
+    /**
+     * Default false positive rate.
+     */
+    static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Largest number of bits per word (each takes 6 bits of the low half of
+     * the mixed hash).
+     */
+    private static final int MAX_HASH_COUNT = 5;
+
+    /**
+     * Atomic access to the filter blocks, for concurrent additions.
+     */
+    private static final VarHandle BLOCKS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The filter blocks.
+     */
+    private final long[] blocks;
+
+    /**
+     * Number of bits set per word.
+     */
+    private final int hashCount;
+
+    /**
+     * Constructor
+     *
+     * @param expectedCount     The number of words to be added
+     * @param falsePositiveRate The desired false positive rate, in (0, 1)
+     */
+    BloomFilter(int expectedCount, double falsePositiveRate) {
+        checkArgument(expectedCount >= 0);
+        checkArgument(falsePositiveRate > 0 && falsePositiveRate < 1,
+                      "False positive rate not in (0, 1): %s", falsePositiveRate);
+
+        // Optimal standard Bloom sizing, inflated to make up for blocking
+        // (the tighter the rate, the more blocking hurts)
+        var standardBits = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        var bitsPerWord = standardBits * (1 + standardBits / 16);
+        hashCount = (int) Math.max(1, Math.min(MAX_HASH_COUNT, Math.round(standardBits * Math.log(2))));
+        blocks = new long[(int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, Math.ceil(expectedCount * bitsPerWord / 64)))];
+    }
+
+    /**
+     * Build a filter over a set of words.
+     *
+     * @param words             The words to add
+     * @param falsePositiveRate The desired false positive rate
+     * @return The filter
+     */
+    static BloomFilter of(String[] words, double falsePositiveRate) {
+        var filter = new BloomFilter(words.length, falsePositiveRate);
+        for (var word : words) {
+            filter.add(word.hashCode());
+        }
+        return filter;
+    }
+
+    /**
+     * Add a word.
+     *
+     * @param hash The word's polynomial hash
+     */
+    void add(int hash) {
+        var mixed = mix(hash);
+        blocks[blockOf(mixed)] |= maskOf(mixed);
+    }
+
+    /**
+     * Add a word while other threads may be adding words too (or testing
+     * membership). Bits are set atomically, so that no concurrent addition is
+     * lost, and published with volatile semantics.
+     *
+     * @param hash The word's polynomial hash
+     */
+    void addConcurrently(int hash) {
+        var mixed = mix(hash);
+        BLOCKS.getAndBitwiseOr(blocks, blockOf(mixed), maskOf(mixed));
+    }
+
+    /**
+     * Tell whether a word may have been added (or definitely wasn't).
+     *
+     * @param hash The word's polynomial hash
+     * @return <code>false</code> if the word was definitely not added
+     */
+    boolean mightContain(int hash) {
+        var mixed = mix(hash);
+        var mask = maskOf(mixed);
+        return (blocks[blockOf(mixed)] & mask) == mask;
+    }
+
+    /**
+     * Tell whether a word may have been added (or definitely wasn't) while
+     * other threads may be adding words. Blocks are read with acquire
+     * semantics, so that words added by {@link #addConcurrently(int)} before
+     * the test started are seen.
+     *
+     * @param hash The word's polynomial hash
+     * @return <code>false</code> if the word was definitely not added
+     */
+    boolean mightContainConcurrently(int hash) {
+        var mixed = mix(hash);
+        var mask = maskOf(mixed);
+        return ((long) BLOCKS.getAcquire(blocks, blockOf(mixed)) & mask) == mask;
+    }
+
+    /**
+     * Return the number of bytes taken by the filter blocks.
+     *
+     * @return The filter size in bytes
+     */
+    long sizeBytes() {
+        return 8L * blocks.length;
+    }
+
+    /**
+     * Return the number of bits set per word.
+     *
+     * @return The number of hash functions
+     */
+    int hashCount() {
+        return hashCount;
+    }
+
+    private int blockOf(long mixed) {
+        // Map the high half onto [0, blocks.length) without a division
+        return (int) (((mixed >>> 32) * blocks.length) >>> 32);
+    }
+
+    private long maskOf(long mixed) {
+        var mask = 0L;
+        for (int i = 0; i < hashCount; i++) {
+            mask |= 1L << (mixed >>> (6 * i));
+        }
+        return mask;
+    }
+
+    /**
+     * Murmur3 64-bit finalizer over the (golden ratio scaled) hash.
+     *
+     * @param hash The polynomial hash to mix
+     * @return The mixed hash
+     */
+    private static long mix(int hash) {
+        var value = hash * 0x9E3779B97F4A7C15L;
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,74 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+
+/**
+ * Immutable data class embodying the corrections found within a
+ * {@link CorrectionBudget}: either the complete corrections or, if the budget
+ * ran out while searching, the best ones found so far.
+ */
+public final class BoundedCorrections {
+
+    /**
+     * The rank-ordered corrections found.
+     */
+    private final List<String> corrections;
+
+    /**
+     * Whether the budget ran out before the search completed.
+     */
+    private final boolean partial;
+
+    /**
+     * The constructor.
+     *
+     * @param corrections The rank-ordered corrections found
+     * @param partial     Whether the budget ran out before the search completed
+     */
+    public BoundedCorrections(List<String> corrections, boolean partial) {
+        checkNotNull(corrections);
+        this.corrections = List.copyOf(corrections);
+        this.partial = partial;
+    }
+
+    /**
+     * Return the rank-ordered corrections found. Distance-1 corrections are
+     * always complete; partial results can only hold (some) distance-2 words.
+     *
+     * @return The (possibly empty) corrections
+     */
+    public List<String> getCorrections() {
+        return corrections;
+    }
+
+    /**
+     * Tell whether the budget ran out before the search completed, so that
+     * better corrections may have been missed.
+     *
+     * @return Whether the corrections are partial
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BoundedCorrections)) {
+            return false;
+        }
+        var that = (BoundedCorrections) obj;
+        return this.corrections.equals(that.corrections) && this.partial == that.partial;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * corrections.hashCode() + Boolean.hashCode(partial);
+    }
+
+    @Override
+    public String toString() {
+        return corrections + (partial ? " (partial)" : "");
+    }
+}
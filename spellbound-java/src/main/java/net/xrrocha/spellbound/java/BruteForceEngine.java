@@ -0,0 +1,253 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
+import static net.xrrocha.spellbound.java.SpellingCorrector.edits1;
+import static net.xrrocha.spellbound.java.SpellingCorrector.edits2;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Norvig's original correction engine: brute-force generation of every string
+ * one (and, failing that, two) edits away from the typo, keeping only those
+ * present in the dictionary. This is the reference engine all others must
+ * agree with.
+ * <p>
+ * By default the distance-2 candidates of each call are generated in
+ * parallel on the common fork/join pool, which helps a lone caller but not a
+ * server: concurrent callers then compete for the same pool. Servers (and
+ * {@link SpellingCorrector#correctAll(java.util.Collection, java.util.concurrent.Executor)}
+ * batches run on a thread pool) should use the strictly sequential mode.
+ * </p>
+ * <p>
+ * Over a {@link ConcurrentDictionary}, the prefilter follows the words added
+ * as corrections run (its false positive rate growing with additions beyond
+ * the initial word count); ranks and removals are read from the dictionary
+ * itself.
+ * </p>
+ */
+public class BruteForceEngine implements CorrectionEngine {
+
+    /**
+     * The word-to-rank dictionary to draw valid words from.
+     */
+    private final Dictionary dictionary;
+
+    /**
+     * Prefilter rejecting most non-word candidates before they reach the
+     * dictionary (or <code>null</code> if disabled).
+     */
+    private final BloomFilter filter;
+
+    /**
+     * Whether each call generates its candidates in parallel.
+     */
+    private final boolean parallel;
+
+    /**
+     * The listener adding a {@link ConcurrentDictionary}'s new words to the
+     * prefilter (or <code>null</code> if the prefilter never changes).
+     */
+    private final ConcurrentDictionary.Listener listener;
+
+    /**
+     * Constructor using the default prefilter false positive rate.
+     *
+     * @param dictionary The word-to-rank dictionary to draw valid words from.
+     */
+    public BruteForceEngine(Dictionary dictionary) {
+        this(dictionary, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Constructor. Builds the prefilter from the dictionary.
+     *
+     * @param dictionary        The word-to-rank dictionary to draw valid words from.
+     * @param falsePositiveRate The prefilter's false positive rate, in (0, 1];
+     *                          <code>1</code> disables prefiltering
+     */
+    public BruteForceEngine(Dictionary dictionary, double falsePositiveRate) {
+        this(dictionary, falsePositiveRate, true);
+    }
+
+    /**
+     * Constructor. Builds the prefilter from the dictionary.
+     *
+     * @param dictionary        The word-to-rank dictionary to draw valid words from.
+     * @param falsePositiveRate The prefilter's false positive rate, in (0, 1];
+     *                          <code>1</code> disables prefiltering
+     * @param parallel          Whether each call generates its candidates in
+     *                          parallel (<code>false</code> runs every call
+     *                          strictly on the calling thread)
+     */
+    public BruteForceEngine(Dictionary dictionary, double falsePositiveRate, boolean parallel) {
+        checkNotNull(dictionary);
+        checkArgument(falsePositiveRate > 0 && falsePositiveRate <= 1);
+        this.dictionary = dictionary;
+        this.filter = falsePositiveRate < 1 ?
+            BloomFilter.of(EditDistance.lowercaseWords(dictionary), falsePositiveRate) :
+            null;
+        this.parallel = parallel;
+
+        // Words added later must pass the prefilter too. Removed words keep
+        // their bits: they only cost the odd extra dictionary probe
+        if (filter != null && dictionary instanceof ConcurrentDictionary) {
+            listener = (word, rank) -> {
+                if (rank != Dictionary.ABSENT && EditDistance.isLowercase(word)) {
+                    filter.addConcurrently(word.hashCode());
+                }
+            };
+            ((ConcurrentDictionary) dictionary).addListener(listener);
+        } else {
+            listener = null;
+        }
+    }
+
+    /**
+     * Stop following a {@link ConcurrentDictionary}'s changes, once this
+     * engine is no longer used, so that the dictionary doesn't keep it (and
+     * its prefilter) reachable.
+     */
+    void detach() {
+        if (listener != null) {
+            ((ConcurrentDictionary) dictionary).removeListener(listener);
+        }
+    }
+
+    @Override
+    public void collect(String typo, int distance, SuggestionSink sink) {
+        checkArgument(distance > 0 && distance <= maxDistance());
+
+        // Corrections for one-edit typos come from edits1; edits2 also
+        // regenerates those, so keep only words exactly at the requested distance
+        var editResults = distance == 1 ? edits1(typo) : candidates2(typo);
+        var trace = CorrectionTrace.current();
+        var words = trace == null ? known(editResults) : known(editResults, trace);
+        words.stream()
+            .filter(word -> EditDistance.distance(typo, word, distance) == distance)
+            .forEach(word -> sink.accept(word, dictionary.rank(word)));
+    }
+
+    /**
+     * Search a tier within a budget (distance 1 is searched completely, as
+     * with any engine). Before expanding each distance-1 edit
+     * into its own edits, the candidates it will yield are spent against the
+     * budget; once it runs out, the remaining expansions are skipped (also by
+     * the parallel workers) and the words found so far are passed on.
+     *
+     * @param typo     A normalized (lowercase, alphabetic) word
+     * @param distance The edit distance, between 1 and {@link #maxDistance()}
+     * @param sink     The consumer of the words found
+     * @param budget   The budget bounding the search
+     * @return Whether the tier was searched completely
+     */
+    @Override
+    public boolean collect(String typo, int distance, SuggestionSink sink, CorrectionBudget budget) {
+        checkArgument(distance > 0 && distance <= maxDistance());
+        checkNotNull(budget);
+        if (distance == 1) {
+            collect(typo, distance, sink);
+            return true;
+        }
+
+        var skipped = new AtomicBoolean();
+        var edits = edits1(typo);
+        var editResults = (parallel ? edits.collect(toList()).parallelStream() : edits)
+            .filter(edit -> {
+                if (budget.spend(CorrectionBudget.edits1Count(edit.length()))) {
+                    return true;
+                }
+                skipped.set(true);
+                return false;
+            })
+            .flatMap(SpellingCorrector::edits1);
+        known(editResults).stream()
+            .filter(word -> EditDistance.distance(typo, word, distance) == distance)
+            .forEach(word -> sink.accept(word, dictionary.rank(word)));
+        return !skipped.get();
+    }
+
+    /**
+     * Generate the candidates two edits away from a typo, in parallel unless
+     * running in sequential mode.
+     *
+     * @param typo The typo
+     * @return The (duplicate-laden) candidate stream
+     */
+    private Stream<String> candidates2(String typo) {
+        if (!parallel) {
+            return edits2(typo);
+        }
+        // Fan out over the few hundred distance-1 edits: splitting the 4 edit
+        // kinds (all a nested parallel stream can do inside flatMap) would
+        // leave most of the work on a single thread
+        return edits1(typo).collect(toList()).parallelStream().flatMap(SpellingCorrector::edits1);
+    }
+
+    /**
+     * Pack results of dictionary word reconstitution by:
+     * <ul>
+     * <li>Coalescing duplicates</li>
+     * <li>Filtering out non-dictionary words (most of them in the prefilter,
+     * which reuses the candidate's hash for the dictionary probe)</li>
+     * <li>Collecting as <code>List&lt;String&gt;</code></li>
+     * </ul>
+     * Ordering by rank is left to the suggestion sink, which can do so with
+     * primitive ranks (and, for top-k requests, without a full sort).
+     *
+     * @param editResults The (possibly empty) list of dictionary words reconstituted
+     *                    from typo
+     * @return The <code>List&lt;String&gt;</code> resulting from stream processing
+     */
+    List<String> known(Stream<String> editResults) {
+        return editResults
+            // Remove duplicates
+            .distinct()
+            // Select only words present in dictionary
+            .filter(word -> mightBeWord(word) && dictionary.contains(word))
+            .collect(toList());
+    }
+
+    /**
+     * Tell whether a candidate gets past the prefilter, reading it safely if
+     * words are being added to it.
+     *
+     * @param candidate The candidate
+     * @return <code>false</code> if the candidate is definitely not a word
+     */
+    private boolean mightBeWord(String candidate) {
+        if (filter == null) {
+            return true;
+        }
+        return listener == null ?
+            filter.mightContain(candidate.hashCode()) :
+            filter.mightContainConcurrently(candidate.hashCode());
+    }
+
+    /**
+     * Pack results of dictionary word reconstitution like
+     * {@link #known(Stream)}, counting candidates, dictionary probes and hits
+     * as well as the time spent into a correction trace.
+     *
+     * @param editResults The (possibly empty) list of dictionary words reconstituted
+     *                    from typo
+     * @param trace       The trace of the correction in progress
+     * @return The <code>List&lt;String&gt;</code> resulting from stream processing
+     */
+    private List<String> known(Stream<String> editResults, CorrectionTrace trace) {
+        var startTime = System.nanoTime();
+        var words = editResults
+            .peek(word -> trace.candidates.increment())
+            .distinct()
+            .filter(this::mightBeWord)
+            .peek(word -> trace.probes.increment())
+            .filter(dictionary::contains)
+            .collect(toList());
+        trace.hits.add(words.size());
+        trace.knownNanos.add(System.nanoTime() - startTime);
+        return words;
+    }
+}
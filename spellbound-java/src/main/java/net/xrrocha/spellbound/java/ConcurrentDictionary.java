@@ -0,0 +1,243 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Mutable word-to-rank {@link Dictionary} whose words can be added, removed
+ * and re-ranked while spelling corrections are running, so that a new
+ * product name or a re-ranked word doesn't call for building a whole new
+ * {@link SpellingCorrector}.
+ * <p>
+ * Words live in a {@link ConcurrentHashMap}: lookups are lock-free and never
+ * block on writers, writers to different words rarely contend, and a
+ * correction running concurrently with an update sees each word either
+ * before or after it. Unlike {@link RankTable}, looking up a
+ * <code>char[]</code> slice creates a string.
+ * </p>
+ * <p>
+ * Structures derived from the dictionary are kept up to date by
+ * {@link Listener}s, called after each change: {@link BruteForceEngine} adds
+ * new words to its prefilter and caching spelling correctors discard their
+ * cached corrections. A change is thus fully visible to corrections started
+ * after the method making it returns. Engines building their own index of
+ * the words ({@link ScratchBufferEngine}, {@link SymmetricDeleteEngine},
+ * {@link BkTreeEngine} and {@link AutomatonEngine}) would search a snapshot
+ * taken when they were built, so they refuse a concurrent dictionary:
+ * spelling correctors over one must use a {@link BruteForceEngine}.
+ * </p>
+ */
+public final class ConcurrentDictionary implements Dictionary {
+
+    /**
+     * Receiver of dictionary changes, for structures derived from the
+     * dictionary to be maintained incrementally.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Handle a change, called on the writer's thread once the change is
+         * visible to readers.
+         *
+         * @param word The word added, removed or re-ranked
+         * @param rank The word's new rank or {@link Dictionary#ABSENT} if removed
+         */
+        void wordChanged(String word, int rank);
+    }
+
+    /**
+     * The word-to-rank map.
+     */
+    private final ConcurrentHashMap<String, Integer> ranks;
+
+    /**
+     * The change listeners.
+     */
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize The expected number of words
+     */
+    public ConcurrentDictionary(int expectedSize) {
+        checkArgument(expectedSize >= 0);
+        ranks = new ConcurrentHashMap<>(expectedSize);
+    }
+
+    /**
+     * Build a concurrent dictionary holding a word-to-rank map's words.
+     *
+     * @param dictionary The word-to-rank map
+     * @return The concurrent dictionary
+     */
+    public static ConcurrentDictionary of(Map<String, Integer> dictionary) {
+        checkNotNull(dictionary);
+        return of(dictionary.size(), addWord -> dictionary.forEach(addWord::accept));
+    }
+
+    /**
+     * Build a concurrent dictionary holding another dictionary's words (e.g.
+     * a compiled or memory-mapped one, to be updated from then on).
+     *
+     * @param dictionary The dictionary to copy
+     * @return The concurrent dictionary
+     */
+    public static ConcurrentDictionary copyOf(Dictionary dictionary) {
+        checkNotNull(dictionary);
+        return of(dictionary.size(), dictionary::forEach);
+    }
+
+    /**
+     * Build a concurrent dictionary holding the words passed by a source.
+     *
+     * @param expectedSize The number of words expected
+     * @param words        The source, passing each word and its rank to the
+     *                     consumer it's given
+     * @return The concurrent dictionary
+     */
+    private static ConcurrentDictionary of(int expectedSize, Consumer<ObjIntConsumer<String>> words) {
+        var concurrentDictionary = new ConcurrentDictionary(expectedSize);
+        words.accept(concurrentDictionary::addWord);
+        return concurrentDictionary;
+    }
+
+    /**
+     * Add a word absent from the dictionary.
+     *
+     * @param word The (ascii) word
+     * @param rank The word's rank
+     * @return Whether the word was added (<code>false</code> if already present)
+     */
+    public boolean addWord(String word, int rank) {
+        checkWord(word);
+        checkArgument(rank >= 0, "Negative rank for %s: %s", word, rank);
+        if (ranks.putIfAbsent(word, rank) != null) {
+            return false;
+        }
+        notifyListeners(word, rank);
+        return true;
+    }
+
+    /**
+     * Remove a word from the dictionary.
+     *
+     * @param word The word
+     * @return Whether the word was removed (<code>false</code> if absent)
+     */
+    public boolean removeWord(String word) {
+        checkNotNull(word);
+        if (ranks.remove(word) == null) {
+            return false;
+        }
+        notifyListeners(word, ABSENT);
+        return true;
+    }
+
+    /**
+     * Change the rank of a word in the dictionary.
+     *
+     * @param word The word
+     * @param rank The word's new rank
+     * @return Whether the word was re-ranked (<code>false</code> if absent)
+     */
+    public boolean updateRank(String word, int rank) {
+        checkNotNull(word);
+        checkArgument(rank >= 0, "Negative rank for %s: %s", word, rank);
+        if (ranks.replace(word, rank) == null) {
+            return false;
+        }
+        notifyListeners(word, rank);
+        return true;
+    }
+
+    /**
+     * Register a listener to be called after each change.
+     *
+     * @param listener The listener
+     */
+    public void addListener(Listener listener) {
+        checkNotNull(listener);
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister a listener.
+     *
+     * @param listener The listener
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Return the number of registered listeners.
+     *
+     * @return The listener count
+     */
+    int listenerCount() {
+        return listeners.size();
+    }
+
+    @Override
+    public int rank(CharSequence word) {
+        var rank = ranks.get(word.toString());
+        return rank == null ? ABSENT : rank;
+    }
+
+    @Override
+    public int rank(char[] chars, int offset, int length) {
+        var rank = ranks.get(new String(chars, offset, length));
+        return rank == null ? ABSENT : rank;
+    }
+
+    @Override
+    public int size() {
+        return ranks.size();
+    }
+
+    /**
+     * Pass every word, along with its rank, to an action. Iteration reflects
+     * the words present at some point at or since its start, and never
+     * throws on concurrent changes.
+     *
+     * @param action The word/rank consumer
+     */
+    @Override
+    public void forEach(ObjIntConsumer<String> action) {
+        checkNotNull(action);
+        ranks.forEach((word, rank) -> action.accept(word, rank));
+    }
+
+    /**
+     * Call every listener about a change.
+     *
+     * @param word The word changed
+     * @param rank The word's new rank or {@link Dictionary#ABSENT} if removed
+     */
+    private void notifyListeners(String word, int rank) {
+        for (var listener : listeners) {
+            listener.wordChanged(word, rank);
+        }
+    }
+
+    /**
+     * Validate a word to be added, with the same criteria as
+     * {@link RankTable}.
+     *
+     * @param word The word
+     */
+    private static void checkWord(String word) {
+        checkNotNull(word);
+        checkArgument(!word.isEmpty(), "Empty word");
+        checkArgument(word.chars().allMatch(c -> c < 128), "Not an ascii word: %s", word);
+    }
+}
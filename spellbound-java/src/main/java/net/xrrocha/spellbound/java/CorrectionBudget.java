@@ -0,0 +1,155 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on the work a single correction may do: a deadline, a maximum number
+ * of candidates generated, or both. Pathological typos (say, a 25-letter
+ * token) make Norvig's <code>edits2</code> generate millions of candidates;
+ * a budget bounds the correction's latency instead.
+ * <p>
+ * A budget is consumed by the one correction it's passed to, possibly from
+ * several threads. Its clock starts when it's created, so a server creating
+ * it on request arrival also accounts for time spent queued. Once exhausted,
+ * it stays exhausted.
+ * </p>
+ */
+public final class CorrectionBudget {
+
+    /**
+     * The budget's creation time, as per {@link System#nanoTime()}.
+     */
+    private final long startNanos;
+
+    /**
+     * The time allowed (or <code>Long.MAX_VALUE</code> if unlimited).
+     */
+    private final long timeoutNanos;
+
+    /**
+     * The number of candidates allowed (or <code>Long.MAX_VALUE</code> if
+     * unlimited).
+     */
+    private final long maxCandidates;
+
+    /**
+     * The number of candidates spent so far.
+     */
+    private final AtomicLong candidates = new AtomicLong();
+
+    /**
+     * Whether the budget has run out.
+     */
+    private volatile boolean exhausted;
+
+    /**
+     * Constructor.
+     *
+     * @param timeoutNanos  The time allowed, in nanoseconds
+     * @param maxCandidates The number of candidates allowed
+     */
+    private CorrectionBudget(long timeoutNanos, long maxCandidates) {
+        checkArgument(timeoutNanos >= 0);
+        checkArgument(maxCandidates >= 0);
+        this.startNanos = System.nanoTime();
+        this.timeoutNanos = timeoutNanos;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Return a budget expiring after a given time, starting now.
+     *
+     * @param timeout The time allowed
+     * @return The budget
+     */
+    public static CorrectionBudget within(Duration timeout) {
+        checkNotNull(timeout);
+        return new CorrectionBudget(timeout.toNanos(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Return a budget allowing a given number of candidates to be generated.
+     *
+     * @param maxCandidates The number of candidates allowed
+     * @return The budget
+     */
+    public static CorrectionBudget ofCandidates(long maxCandidates) {
+        return new CorrectionBudget(Long.MAX_VALUE, maxCandidates);
+    }
+
+    /**
+     * Return a budget running out after a given time, starting now, or a
+     * given number of candidates, whichever comes first.
+     *
+     * @param timeout       The time allowed
+     * @param maxCandidates The number of candidates allowed
+     * @return The budget
+     */
+    public static CorrectionBudget of(Duration timeout, long maxCandidates) {
+        checkNotNull(timeout);
+        return new CorrectionBudget(timeout.toNanos(), maxCandidates);
+    }
+
+    /**
+     * Spend candidates about to be generated, unless the budget has run out.
+     *
+     * @param candidateCount The number of candidates
+     * @return Whether the candidates may be generated
+     */
+    boolean spend(long candidateCount) {
+        if (exhausted) {
+            return false;
+        }
+        if (candidates.addAndGet(candidateCount) > maxCandidates || isExpired()) {
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tell whether the budget has run out, checking the deadline.
+     *
+     * @return Whether the budget is exhausted
+     */
+    public boolean isExhausted() {
+        if (!exhausted && isExpired()) {
+            exhausted = true;
+        }
+        return exhausted;
+    }
+
+    /**
+     * Return the number of candidates spent so far, including any spending
+     * refused for exceeding the budget.
+     *
+     * @return The candidate count
+     */
+    public long getCandidateCount() {
+        return candidates.get();
+    }
+
+    /**
+     * Tell whether the deadline has passed.
+     *
+     * @return Whether the time allowed has elapsed
+     */
+    private boolean isExpired() {
+        return timeoutNanos != Long.MAX_VALUE && System.nanoTime() - startNanos > timeoutNanos;
+    }
+
+    /**
+     * Return the number of candidates {@link SpellingCorrector#edits1(String)}
+     * generates for a word: its deletes, transposes, replaces and inserts.
+     *
+     * @param length The word's length
+     * @return The candidate count
+     */
+    static long edits1Count(int length) {
+        return length + Math.max(length - 1, 0) + EditDistance.ALPHABET_SIZE * (2L * length + 1);
+    }
+}
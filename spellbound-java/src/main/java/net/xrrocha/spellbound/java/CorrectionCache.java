@@ -0,0 +1,384 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache of typo corrections with
+ * <a href="https://arxiv.org/abs/1512.00727">W-TinyLFU</a> admission and
+ * eviction.
+ * <p>
+ * New entries enter a small LRU <em>window</em> (1% of capacity). Entries
+ * leaving the window compete for a place in the <em>main</em> area, a
+ * segmented LRU split into <em>probation</em> and <em>protected</em> (80%)
+ * segments: the candidate is admitted only if a {@link FrequencySketch}
+ * estimates it has been requested more often than probation's least recently
+ * used entry, which is evicted in its place. Entries hit while on probation
+ * are promoted to the protected segment. One-off typos thus pass through the
+ * window without displacing the frequent ones.
+ * </p>
+ * <p>
+ * Empty (gibberish) correction lists are cached like any other. Concurrent
+ * lookups of a typo being computed wait for the ongoing computation rather
+ * than repeating it. Once {@link #clear()} returns, lookups neither join a
+ * computation started before nor see its result cached. The cache is
+ * guarded by a single lock held only for bookkeeping, never while
+ * corrections are computed.
+ * </p>
+ */
+public final class CorrectionCache {
+
+    /**
+     * Segment holding a node.
+     */
+    private enum Segment {WINDOW, PROBATION, PROTECTED}
+
+    /**
+     * Maximum number of cached typos.
+     */
+    private final int maximumSize;
+
+    /**
+     * Maximum number of typos in the admission window.
+     */
+    private final int maximumWindowSize;
+
+    /**
+     * Maximum number of typos in the protected segment.
+     */
+    private final int maximumProtectedSize;
+
+    /**
+     * Cached typos.
+     */
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    /**
+     * Recent typo request frequencies.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Admission window, least recently used first.
+     */
+    private final Node window = Node.sentinel();
+
+    /**
+     * Main area entries not (yet) hit again, least recently used first.
+     */
+    private final Node probation = Node.sentinel();
+
+    /**
+     * Main area entries hit while on probation, least recently used first.
+     */
+    private final Node protectedSegment = Node.sentinel();
+
+    /**
+     * Typos being computed.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<List<String>>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Number of times the cache was cleared: corrections computed across a
+     * clear may be stale, so they aren't cached.
+     */
+    private long epoch;
+
+    /**
+     * Number of typos in the window and protected segments.
+     */
+    private int windowSize;
+    private int protectedSize;
+
+    /**
+     * Statistics (guarded, like all bookkeeping, by this cache's lock).
+     */
+    private long hitCount;
+    private long missCount;
+    private long coalescedCount;
+    private long evictionCount;
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize The maximum number of typos to cache
+     */
+    public CorrectionCache(int maximumSize) {
+        checkArgument(maximumSize > 0);
+        this.maximumSize = maximumSize;
+        maximumWindowSize = Math.max(1, maximumSize / 100);
+        maximumProtectedSize = (maximumSize - maximumWindowSize) * 4 / 5;
+        sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Return the cached corrections for a typo, computing and caching them if
+     * absent. Concurrent callers asking for a typo being computed wait for
+     * (and share) its result.
+     *
+     * @param typo   The normalized typo
+     * @param loader The function computing the corrections of a typo
+     * @return The (immutable, possibly empty) corrections
+     */
+    public List<String> get(String typo, Function<String, List<String>> loader) {
+        checkNotNull(typo);
+        checkNotNull(loader);
+
+        synchronized (this) {
+            sketch.increment(typo);
+            var node = nodes.get(typo);
+            if (node != null) {
+                hitCount++;
+                onHit(node);
+                return node.value;
+            }
+            missCount++;
+        }
+
+        // Join an ongoing computation if any, otherwise start one
+        var future = new CompletableFuture<List<String>>();
+        var ongoing = loading.putIfAbsent(typo, future);
+        if (ongoing != null) {
+            synchronized (this) {
+                coalescedCount++;
+            }
+            return Futures.join(ongoing);
+        }
+        try {
+            // A computation may have completed since the miss
+            long startEpoch;
+            synchronized (this) {
+                var node = nodes.get(typo);
+                if (node != null) {
+                    future.complete(node.value);
+                    return node.value;
+                }
+                startEpoch = epoch;
+            }
+            var corrections = List.copyOf(loader.apply(typo));
+            synchronized (this) {
+                // Corrections computed across a clear may predate the change
+                if (epoch == startEpoch) {
+                    put(typo, corrections);
+                }
+            }
+            future.complete(corrections);
+            return corrections;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(typo, future);
+        }
+    }
+
+    /**
+     * Discard all cached corrections (e.g. when the dictionary changes),
+     * along with the computations under way: their callers still get their
+     * results, but later lookups compute afresh. Request frequencies are kept.
+     */
+    public synchronized void clear() {
+        epoch++;
+        loading.clear();
+        nodes.clear();
+        for (var segment : List.of(window, probation, protectedSegment)) {
+            segment.previous = segment;
+            segment.next = segment;
+        }
+        windowSize = 0;
+        protectedSize = 0;
+    }
+
+    /**
+     * Return the number of typos currently cached.
+     *
+     * @return The cache size
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Return the maximum number of typos cached.
+     *
+     * @return The cache capacity
+     */
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Return the number of lookups answered from the cache.
+     *
+     * @return The hit count
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Return the number of lookups not found in the cache, including those
+     * that joined an ongoing computation.
+     *
+     * @return The miss count
+     */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Return the number of misses that joined an ongoing computation instead
+     * of starting their own.
+     *
+     * @return The coalesced miss count
+     */
+    public synchronized long coalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Return the number of typos evicted (or refused admission) to keep the
+     * cache within bounds.
+     *
+     * @return The eviction count
+     */
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        var requestCount = hitCount + missCount;
+        return String.format(
+            "CorrectionCache(size=%d/%d, hits=%d, misses=%d, coalesced=%d, evictions=%d, hitRate=%.3f)",
+            nodes.size(), maximumSize, hitCount, missCount, coalescedCount, evictionCount,
+            requestCount == 0 ? 0.0 : (double) hitCount / requestCount);
+    }
+
+    /**
+     * Update recency (and, on probation, promote) on a hit.
+     *
+     * @param node The node hit
+     */
+    private void onHit(Node node) {
+        switch (node.segment) {
+            case WINDOW:
+                moveToTail(node, window);
+                break;
+            case PROBATION:
+                // Proven popular: promote, demoting protected's LRU if overfull
+                node.segment = Segment.PROTECTED;
+                moveToTail(node, protectedSegment);
+                if (++protectedSize > maximumProtectedSize) {
+                    var demoted = protectedSegment.next;
+                    demoted.segment = Segment.PROBATION;
+                    moveToTail(demoted, probation);
+                    protectedSize--;
+                }
+                break;
+            case PROTECTED:
+                moveToTail(node, protectedSegment);
+                break;
+        }
+    }
+
+    /**
+     * Add a computed typo to the window, then move the window's overflow to
+     * probation and evict as needed.
+     *
+     * @param typo        The typo
+     * @param corrections The typo's corrections
+     */
+    private void put(String typo, List<String> corrections) {
+        var existing = nodes.get(typo);
+        if (existing != null) {
+            // Computed again after an earlier computation completed
+            existing.value = corrections;
+            return;
+        }
+
+        var node = new Node(typo, corrections);
+        nodes.put(typo, node);
+        moveToTail(node, window);
+        windowSize++;
+        if (windowSize <= maximumWindowSize) {
+            return;
+        }
+
+        var candidate = window.next;
+        candidate.segment = Segment.PROBATION;
+        moveToTail(candidate, probation);
+        windowSize--;
+        if (nodes.size() <= maximumSize) {
+            return;
+        }
+
+        // Admit the candidate only if more popular than probation's LRU
+        var victim = probation.next;
+        if (victim != candidate &&
+                sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            evict(victim);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void evict(Node node) {
+        unlink(node);
+        nodes.remove(node.key);
+        evictionCount++;
+    }
+
+    private static void moveToTail(Node node, Node segment) {
+        if (node.next != null) {
+            unlink(node);
+        }
+        node.previous = segment.previous;
+        node.next = segment;
+        segment.previous.next = node;
+        segment.previous = node;
+    }
+
+    private static void unlink(Node node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        node.previous = null;
+        node.next = null;
+    }
+
+    /**
+     * Cached typo, linked into its segment's LRU list.
+     */
+    private static final class Node {
+
+        final String key;
+        List<String> value;
+        Segment segment = Segment.WINDOW;
+        Node previous;
+        Node next;
+
+        Node(String key, List<String> value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * Create an empty, circular list head.
+         *
+         * @return The list head
+         */
+        static Node sentinel() {
+            var sentinel = new Node(null, null);
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Resident spelling corrector speaking a pipelined line protocol, for shell
+ * and editor integrations that can't afford a JVM start and dictionary load
+ * per invocation.
+ * <p>
+ * Each request is a line of text: a single word or any chunk of text, which
+ * is split and filtered like the lines of a content file (see
+ * {@link Main#processInputLines}). Its response consists of the
+ * <code>typo&lt;TAB&gt;suggestion,suggestion,...</code> lines
+ * {@link Main#main(String[])} would output for that text, followed by an
+ * empty line. A request without typos thus gets just the empty line.
+ * </p>
+ * <p>
+ * Clients need not wait for a response before sending further requests:
+ * up to a configurable number of requests per connection are corrected
+ * concurrently on a shared executor, and responses are written back in
+ * request order. Once that many are in flight, the connection isn't read
+ * from until the oldest response has been written. Should a response fail
+ * to be computed or written, the connection is closed rather than left
+ * with a request that would never be answered.
+ * </p>
+ * <p>
+ * Connections are either the process' standard input and output or TCP
+ * connections accepted on a {@link ServerSocket} (bound to the loopback
+ * address, as the protocol has no authentication).
+ * </p>
+ */
+public final class CorrectionDaemon {
+
+    /**
+     * End-of-input marker queued after a connection's last request.
+     */
+    private static final CompletableFuture<String> END = CompletableFuture.completedFuture(null);
+
+    /**
+     * The resident spelling corrector.
+     */
+    private final SpellingCorrector spellingCorrector;
+
+    /**
+     * The executor requests are corrected on.
+     */
+    private final Executor executor;
+
+    /**
+     * Maximum number of requests in flight per connection.
+     */
+    private final int maxInFlight;
+
+    /**
+     * Constructor.
+     *
+     * @param spellingCorrector The spelling corrector to keep resident
+     * @param executor          The executor requests are corrected on
+     * @param maxInFlight       The maximum number of requests in flight per
+     *                          connection
+     */
+    public CorrectionDaemon(SpellingCorrector spellingCorrector, Executor executor, int maxInFlight) {
+        checkNotNull(spellingCorrector);
+        checkNotNull(executor);
+        checkArgument(maxInFlight > 0);
+        this.spellingCorrector = spellingCorrector;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Accept connections, serving each on its own thread, until the server
+     * socket is closed.
+     *
+     * @param serverSocket The bound server socket
+     */
+    public void listen(ServerSocket serverSocket) {
+        checkNotNull(serverSocket);
+        var connectionCount = new AtomicInteger();
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw new RuntimeException(e.getMessage(), e);
+            }
+            var thread = new Thread(() -> {
+                try (socket) {
+                    serve(socket.getInputStream(), socket.getOutputStream());
+                } catch (IOException | RuntimeException e) {
+                    // A failed connection doesn't affect the others
+                }
+            }, "spellbound-daemon-" + connectionCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Serve one connection until its input ends, returning once every
+     * response has been written.
+     *
+     * @param input  The connection's request stream
+     * @param output The connection's response stream
+     */
+    public void serve(InputStream input, OutputStream output) {
+        checkNotNull(input);
+        checkNotNull(output);
+
+        // Responses, in request order, for the writer thread to send
+        var pending = new LinkedBlockingQueue<CompletableFuture<String>>();
+        // Requests read whose response hasn't been written yet
+        var inFlight = new Semaphore(maxInFlight);
+        var writer = new Thread(() -> write(pending, inFlight, input, output),
+                                Thread.currentThread().getName() + "-writer");
+        writer.start();
+
+        var reader = new BufferedReader(new InputStreamReader(input, UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                inFlight.acquire();
+                var request = line;
+                pending.put(CompletableFuture.supplyAsync(() -> respond(request), executor));
+            }
+        } catch (IOException e) {
+            // A broken connection ends its input
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                pending.put(END);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Compute the response to a request line.
+     *
+     * @param line The request line
+     * @return The response, including its terminating empty line
+     */
+    String respond(String line) {
+        return Main.processInputLines(Stream.of(line), spellingCorrector,
+                                      (word, suggestions) -> word + "\t" + String.join(",", suggestions) + "\n")
+            .collect(joining("", "", "\n"));
+    }
+
+    /**
+     * Write responses as they complete, in request order, flushing whenever
+     * the next response isn't ready, and let the reader read one more request
+     * per response written. After a failure, the connection's streams are
+     * closed, ending its input, and the remaining responses are discarded so
+     * the reader never waits on them.
+     *
+     * @param pending  The queue of pending responses
+     * @param inFlight The permits of requests in flight
+     * @param input    The request stream
+     * @param output   The response stream
+     */
+    private static void write(BlockingQueue<CompletableFuture<String>> pending, Semaphore inFlight,
+                              InputStream input, OutputStream output) {
+        var writer = new BufferedWriter(new OutputStreamWriter(output, UTF_8));
+        var failed = false;
+        try {
+            CompletableFuture<String> response;
+            while ((response = pending.take()) != END) {
+                try {
+                    if (!failed) {
+                        writer.write(Futures.join(response));
+                        var next = pending.peek();
+                        if (next == null || !next.isDone()) {
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Responses written so far are flushed on closing
+                    failed = true;
+                    close(writer);
+                    close(output);
+                    close(input);
+                } finally {
+                    inFlight.release();
+                }
+            }
+            if (!failed) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // Nothing left to report to
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Close a connection stream or writer, ignoring failures.
+     *
+     * @param stream The stream or writer
+     */
+    private static void close(Closeable stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // Already broken
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Strategy used by {@link SpellingCorrector} to locate dictionary words close
+ * to a typo. Engines need only implement {@link #collect(String, int,
+ * SuggestionSink)}, which finds the words lying exactly at a given edit
+ * distance. On top of it, all engines honor the same contract as Norvig's
+ * original <code>edits1</code>-then-<code>edits2</code> cascade: words one
+ * edit away from the typo are returned if any exist; otherwise words two edits
+ * away are returned. Results are always ordered by descending rank, ties
+ * broken alphabetically.
+ */
+public interface CorrectionEngine {
+
+    /**
+     * Maximum edit distance searched by default (Norvig's <code>edits2</code>).
+     */
+    int DEFAULT_MAX_DISTANCE = 2;
+
+    /**
+     * Pass every dictionary word lying exactly <code>distance</code> edits away
+     * from the typo to a sink, in no particular order.
+     *
+     * @param typo     A normalized (lowercase, alphabetic) word
+     * @param distance The edit distance, between 1 and {@link #maxDistance()}
+     * @param sink     The consumer of the words found
+     */
+    void collect(String typo, int distance, SuggestionSink sink);
+
+    /**
+     * Pass the dictionary words lying exactly <code>distance</code> edits away
+     * from the typo to a sink, stopping early if the budget runs out. The
+     * distance-1 tier, cheap and always wanted, is never cut short. Engines
+     * generating candidates should spend them against the budget and check
+     * it cooperatively as they go; this default implementation can't
+     * interrupt {@link #collect(String, int, SuggestionSink)} and searches
+     * the whole tier unless the budget is already exhausted.
+     *
+     * @param typo     A normalized (lowercase, alphabetic) word
+     * @param distance The edit distance, between 1 and {@link #maxDistance()}
+     * @param sink     The consumer of the words found
+     * @param budget   The budget bounding the search
+     * @return Whether the tier was searched completely
+     */
+    default boolean collect(String typo, int distance, SuggestionSink sink, CorrectionBudget budget) {
+        if (distance > 1 && budget.isExhausted()) {
+            return false;
+        }
+        collect(typo, distance, sink);
+        return true;
+    }
+
+    /**
+     * Return the maximum edit distance this engine searches.
+     *
+     * @return The maximum edit distance
+     */
+    default int maxDistance() {
+        return DEFAULT_MAX_DISTANCE;
+    }
+
+    /**
+     * Return the rank-ordered corrections for a typo: words in the nearest
+     * non-empty distance tier.
+     *
+     * @param typo A normalized (lowercase, alphabetic) word known to be absent
+     *             from the dictionary
+     * @return The (possibly empty) list of suggested corrections
+     */
+    default List<String> getCorrections(String typo) {
+        return getTopCorrections(typo, Integer.MAX_VALUE).stream()
+            .map(Suggestion::getWord)
+            .collect(toList());
+    }
+
+    /**
+     * Return the <code>k</code> best corrections for a typo, along with their
+     * ranks and edit distance. These are the first <code>k</code> elements of
+     * {@link #getCorrections(String)}, selected with a bounded heap rather than
+     * by sorting every word found.
+     *
+     * @param typo A normalized (lowercase, alphabetic) word known to be absent
+     *             from the dictionary
+     * @param k    The maximum number of suggestions to return
+     * @return The (possibly empty) list of best suggestions
+     */
+    default List<Suggestion> getTopCorrections(String typo, int k) {
+        checkArgument(k > 0);
+        for (int distance = 1; distance <= maxDistance(); distance++) {
+            var topSuggestions = new TopSuggestions(k);
+            collect(typo, distance, topSuggestions);
+            if (!topSuggestions.isEmpty()) {
+                return topSuggestions.drain(distance);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Return the rank-ordered corrections for a typo found within a budget.
+     * The distance-1 tier is always searched completely, whatever the
+     * budget; further tiers are searched only while the budget lasts. If it
+     * runs out, the best words found so far in the tier being searched are
+     * returned, flagged as partial.
+     *
+     * @param typo   A normalized (lowercase, alphabetic) word known to be
+     *               absent from the dictionary
+     * @param budget The budget bounding the search
+     * @return The (possibly empty, possibly partial) corrections
+     */
+    default BoundedCorrections getCorrections(String typo, CorrectionBudget budget) {
+        checkNotNull(budget);
+        for (int distance = 1; distance <= maxDistance(); distance++) {
+            var allSuggestions = new TopSuggestions(Integer.MAX_VALUE);
+            var complete = collect(typo, distance, allSuggestions, budget);
+            if (!allSuggestions.isEmpty() || !complete) {
+                var corrections = allSuggestions.drain(distance).stream()
+                    .map(Suggestion::getWord)
+                    .collect(toList());
+                return new BoundedCorrections(corrections, !complete);
+            }
+        }
+        return new BoundedCorrections(List.of(), false);
+    }
+
+    /**
+     * Return a lazy iterator over all suggestions for a typo, nearest tier
+     * first and rank-ordered within each tier. A tier is only searched once
+     * the previous one has been exhausted, so callers stopping after the
+     * distance-1 suggestions never pay for distance-2 work.
+     *
+     * @param typo A normalized (lowercase, alphabetic) word
+     * @return The lazy suggestion iterator
+     */
+    default Iterator<Suggestion> suggestions(String typo) {
+        return new Iterator<>() {
+            private int distance = 0;
+            private Iterator<Suggestion> tier = List.<Suggestion>of().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!tier.hasNext() && distance < maxDistance()) {
+                    distance++;
+                    var allSuggestions = new TopSuggestions(Integer.MAX_VALUE);
+                    collect(typo, distance, allSuggestions);
+                    tier = allSuggestions.drain(distance).iterator();
+                }
+                return tier.hasNext();
+            }
+
+            @Override
+            public Suggestion next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return tier.next();
+            }
+        };
+    }
+}
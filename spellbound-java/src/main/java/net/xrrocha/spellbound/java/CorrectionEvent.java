@@ -0,0 +1,80 @@
+package net.xrrocha.spellbound.java;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event emitted for each correction, carrying the same
+ * figures as {@link CorrectionMetrics}. Enable it in a recording with, e.g.,
+ * <code>-XX:StartFlightRecording:settings=profile</code> plus
+ * <code>net.xrrocha.spellbound.Correction#enabled=true</code> in a custom
+ * settings file, or programmatically with
+ * <code>recording.enable("net.xrrocha.spellbound.Correction")</code>.
+ * <p>
+ * While no recording enables the event, {@link #isEnabled()} is constant
+ * folded to <code>false</code> by the JIT and the (non-escaping) event
+ * instance is never allocated, so corrections pay nothing for it.
+ * </p>
+ */
+@Name("net.xrrocha.spellbound.Correction")
+@Label("Spelling Correction")
+@Category("Spellbound")
+@Description("A call to SpellingCorrector.getCorrections")
+@StackTrace(false)
+final class CorrectionEvent extends Event {
+
+    /**
+     * The normalized word.
+     */
+    @Label("Word")
+    String word;
+
+    /**
+     * Whether the word is in the dictionary.
+     */
+    @Label("Known")
+    boolean known;
+
+    /**
+     * The edit distance tier reached.
+     */
+    @Label("Tier")
+    @Description("Edit distance tier reached (2 means the edits2 fallback was taken)")
+    int tier;
+
+    /**
+     * The number of suggestions returned.
+     */
+    @Label("Suggestions")
+    int suggestionCount;
+
+    /**
+     * The number of candidates generated.
+     */
+    @Label("Candidates")
+    long candidateCount;
+
+    /**
+     * The number of candidates probed against the dictionary.
+     */
+    @Label("Dictionary Probes")
+    long probeCount;
+
+    /**
+     * The number of probes finding a dictionary word.
+     */
+    @Label("Dictionary Hits")
+    long hitCount;
+
+    /**
+     * The time spent filtering candidates against the dictionary.
+     */
+    @Label("Known Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long knownTime;
+}
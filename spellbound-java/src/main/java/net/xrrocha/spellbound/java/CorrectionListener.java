@@ -0,0 +1,22 @@
+package net.xrrocha.spellbound.java;
+
+/**
+ * Receiver of the {@link CorrectionMetrics} of every correction made by a
+ * {@link SpellingCorrector#withListener(CorrectionListener) listening}
+ * spelling corrector (e.g. to feed latency histograms or counters).
+ * <p>
+ * Listeners are called synchronously on the thread that requested the
+ * correction, right before the corrections are returned, so they should be
+ * quick and thread-safe.
+ * </p>
+ */
+@FunctionalInterface
+public interface CorrectionListener {
+
+    /**
+     * Receive the metrics of a correction.
+     *
+     * @param metrics The correction's metrics
+     */
+    void corrected(CorrectionMetrics metrics);
+}
@@ -0,0 +1,188 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable data class embodying what a single correction cost: its latency,
+ * the edit distance tier it reached and, for engines generating candidates
+ * (see {@link BruteForceEngine} and {@link ScratchBufferEngine}), how many
+ * candidates were generated, probed against the dictionary and found in it.
+ * <p>
+ * Counts are zero when nothing was searched: for dictionary words, for typos
+ * whose corrections came from a {@link CorrectionCache} and for engines that
+ * don't generate candidates.
+ * </p>
+ */
+public final class CorrectionMetrics {
+
+    /**
+     * The normalized word.
+     */
+    private final String word;
+
+    /**
+     * Whether the word is in the dictionary.
+     */
+    private final boolean known;
+
+    /**
+     * The edit distance tier reached.
+     */
+    private final int tier;
+
+    /**
+     * The number of suggestions returned.
+     */
+    private final int suggestionCount;
+
+    /**
+     * The number of candidates generated.
+     */
+    private final long candidateCount;
+
+    /**
+     * The number of candidates probed against the dictionary.
+     */
+    private final long probeCount;
+
+    /**
+     * The number of probes finding a dictionary word.
+     */
+    private final long hitCount;
+
+    /**
+     * The time spent filtering candidates against the dictionary.
+     */
+    private final long knownNanos;
+
+    /**
+     * The correction's latency.
+     */
+    private final long latencyNanos;
+
+    /**
+     * The constructor.
+     *
+     * @param word            The normalized word
+     * @param known           Whether the word is in the dictionary
+     * @param tier            The edit distance tier reached
+     * @param suggestionCount The number of suggestions returned
+     * @param candidateCount  The number of candidates generated
+     * @param probeCount      The number of candidates probed against the dictionary
+     * @param hitCount        The number of probes finding a dictionary word
+     * @param knownNanos      The time spent filtering candidates against the
+     *                        dictionary, in nanoseconds
+     * @param latencyNanos    The correction's latency, in nanoseconds
+     */
+    public CorrectionMetrics(String word, boolean known, int tier, int suggestionCount,
+                             long candidateCount, long probeCount, long hitCount,
+                             long knownNanos, long latencyNanos) {
+        checkNotNull(word);
+        this.word = word;
+        this.known = known;
+        this.tier = tier;
+        this.suggestionCount = suggestionCount;
+        this.candidateCount = candidateCount;
+        this.probeCount = probeCount;
+        this.hitCount = hitCount;
+        this.knownNanos = knownNanos;
+        this.latencyNanos = latencyNanos;
+    }
+
+    /**
+     * Return the normalized (lowercase) word.
+     *
+     * @return The word
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * Tell whether the word is in the dictionary (and thus needed no
+     * correction).
+     *
+     * @return Whether the word is known
+     */
+    public boolean isKnown() {
+        return known;
+    }
+
+    /**
+     * Return the edit distance tier reached: that of the suggestions returned
+     * or, when there are none, the engine's maximum distance (every tier was
+     * searched in vain). Dictionary words reach tier <code>0</code>. A tier of
+     * <code>2</code> means Norvig's <code>edits2</code> fallback was taken.
+     *
+     * @return The tier reached
+     */
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * Return the number of suggestions returned.
+     *
+     * @return The suggestion count
+     */
+    public int getSuggestionCount() {
+        return suggestionCount;
+    }
+
+    /**
+     * Return the number of candidates generated, duplicates included.
+     *
+     * @return The candidate count
+     */
+    public long getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Return the number of candidates probed against the dictionary, i.e.
+     * those not turned away by the engine's prefilter.
+     *
+     * @return The probe count
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+    /**
+     * Return the number of probes finding a dictionary word, before keeping
+     * only words at the exact distance of each tier.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Return the time spent in {@link BruteForceEngine}'s <code>known</code>
+     * filter which, candidate streams being lazy, includes generating the
+     * candidates it consumes. Engines interleaving generation and probing
+     * report <code>0</code>.
+     *
+     * @return The time spent filtering candidates, in nanoseconds
+     */
+    public long getKnownNanos() {
+        return knownNanos;
+    }
+
+    /**
+     * Return the correction's latency, normalization excluded.
+     *
+     * @return The latency, in nanoseconds
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return word + "(known=" + known + ", tier=" + tier + ", suggestions=" + suggestionCount +
+            ", candidates=" + candidateCount + ", probes=" + probeCount + ", hits=" + hitCount +
+            ", knownNanos=" + knownNanos + ", latencyNanos=" + latencyNanos + ")";
+    }
+}
@@ -0,0 +1,369 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP correction service keeping a single
+ * {@link SpellingCorrector} resident, built on the JDK's
+ * <code>com.sun.net.httpserver</code>. Endpoints (all responding with JSON):
+ * <ul>
+ * <li><code>GET /correct?word=speling</code>: a single word's corrections,
+ * as <code>{"word":"speling","known":false,"corrections":["spelling",...]}</code>
+ * (a dictionary word is <code>known</code> and has no corrections)</li>
+ * <li><code>POST /batch</code>: the corrections of each word in a JSON array
+ * of strings (up to {@value #MAX_BATCH_SIZE} words), as
+ * <code>{"results":[...]}</code> holding one object like the above per
+ * distinct (normalized) word, in order of first appearance</li>
+ * <li><code>GET /health</code>: request, rejection and queue counts, and
+ * the dictionary version (see {@link DictionaryWatcher})</li>
+ * </ul>
+ * <p>
+ * Requests run on a fixed pool of worker threads fed by a bounded queue.
+ * When the queue is full, requests are answered right away with
+ * <code>503 Service Unavailable</code> (and a <code>Retry-After</code>
+ * header) instead of piling up. Invalid words and malformed bodies get
+ * <code>400</code>, oversized bodies <code>413</code>. Workers correct
+ * sequentially, so the engine should not fan out on its own (e.g. a
+ * brute-force engine built with <code>parallel</code> set to
+ * <code>false</code>).
+ * </p>
+ */
+public final class CorrectionServer {
+
+    /**
+     * Maximum request body size in bytes.
+     */
+    static final int MAX_BODY_SIZE = 1 << 20;
+
+    /**
+     * Maximum number of words in a batch request.
+     */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Set while a rejected exchange is being answered on the dispatcher thread.
+     */
+    private static final ThreadLocal<Boolean> OVERLOADED = new ThreadLocal<>();
+
+    /**
+     * The resident spelling corrector.
+     */
+    private final SpellingCorrector spellingCorrector;
+
+    /**
+     * The underlying HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The worker pool, fed by a bounded queue.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Number of requests handled (or rejected) so far.
+     */
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /**
+     * Number of requests rejected because the queue was full.
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Constructor. The server must then be {@link #start() started}.
+     *
+     * @param spellingCorrector The spelling corrector to keep resident
+     * @param address           The address to listen on (port <code>0</code>
+     *                          picks a free port)
+     * @param threads           The number of worker threads
+     * @param queueCapacity     The maximum number of requests waiting for a worker
+     */
+    public CorrectionServer(SpellingCorrector spellingCorrector, InetSocketAddress address,
+                            int threads, int queueCapacity) {
+        checkNotNull(spellingCorrector);
+        checkNotNull(address);
+        checkArgument(threads > 0);
+        checkArgument(queueCapacity > 0);
+        this.spellingCorrector = spellingCorrector;
+
+        var threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+            task -> {
+                var thread = new Thread(task, "spellbound-http-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            // Answer overflowing requests on the dispatcher thread (see handle)
+            (exchange, pool) -> {
+                OVERLOADED.set(true);
+                try {
+                    exchange.run();
+                } finally {
+                    OVERLOADED.remove();
+                }
+            });
+
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/correct", exchange -> handle(exchange, "GET", this::correct));
+        server.createContext("/batch", exchange -> handle(exchange, "POST", this::batch));
+        server.createContext("/health", exchange -> handle(exchange, "GET", this::health));
+    }
+
+    /**
+     * Start accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Return the address the server listens on.
+     *
+     * @return The bound address
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stop gracefully: stop accepting connections, then let the requests
+     * already accepted (running or queued) complete within a grace period.
+     *
+     * @param grace The maximum time to wait for pending requests
+     */
+    public void stop(Duration grace) {
+        checkNotNull(grace);
+        var deadline = System.nanoTime() + grace.toNanos();
+        server.stop((int) Math.max(0, grace.toSeconds()));
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serve <code>GET /correct?word=...</code>.
+     *
+     * @param exchange The HTTP exchange
+     * @return The JSON response
+     */
+    private String correct(HttpExchange exchange) {
+        var word = queryParameter(exchange, "word")
+            .orElseThrow(() -> new RequestException(400, "Missing word parameter"));
+        var corrections = spellingCorrector.getCorrections(word);
+        return result(new StringBuilder(), SpellingCorrector.normalize(word), corrections).toString();
+    }
+
+    /**
+     * Serve <code>POST /batch</code>.
+     *
+     * @param exchange The HTTP exchange
+     * @return The JSON response
+     */
+    private String batch(HttpExchange exchange) {
+        var words = Json.parseStringArray(readBody(exchange));
+        if (words.size() > MAX_BATCH_SIZE) {
+            throw new RequestException(413, "More than " + MAX_BATCH_SIZE + " words");
+        }
+
+        var json = new StringBuilder("{\"results\":[");
+        var first = true;
+        for (var entry : spellingCorrector.correctAll(words).entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            result(json, entry.getKey(), entry.getValue());
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Serve <code>GET /health</code>.
+     *
+     * @param exchange The HTTP exchange
+     * @return The JSON response
+     */
+    private String health(HttpExchange exchange) {
+        return String.format("{\"status\":\"ok\",\"requests\":%d,\"rejected\":%d,\"active\":%d,\"queued\":%d," +
+                                 "\"dictionaryVersion\":%d}",
+                             requestCount.get(), rejectedCount.get(), executor.getActiveCount(),
+                             executor.getQueue().size(), spellingCorrector.getVersion());
+    }
+
+    /**
+     * Run an endpoint, translating its outcome into an HTTP response.
+     *
+     * @param exchange The HTTP exchange
+     * @param method   The HTTP method the endpoint accepts
+     * @param endpoint The endpoint computing the JSON response
+     */
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            if (Boolean.TRUE.equals(OVERLOADED.get())) {
+                rejectedCount.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, error("Too many pending requests"));
+                return;
+            }
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                send(exchange, 405, error("Method not allowed"));
+                return;
+            }
+            String response;
+            try {
+                response = endpoint.respond(exchange);
+            } catch (RequestException e) {
+                send(exchange, e.status, error(e.getMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage() == null ? "Invalid word" : e.getMessage()));
+                return;
+            } catch (RuntimeException e) {
+                send(exchange, 500, error(e.toString()));
+                return;
+            }
+            send(exchange, 200, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Send a JSON response.
+     *
+     * @param exchange The HTTP exchange
+     * @param status   The HTTP status code
+     * @param json     The response body
+     */
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        var bytes = json.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Return an error response body.
+     *
+     * @param message The error message
+     * @return The JSON error object
+     */
+    private static String error(String message) {
+        return Json.quote(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+    /**
+     * Append a word's result object.
+     *
+     * @param json        The builder to append to
+     * @param word        The normalized word
+     * @param corrections The word's corrections (empty if known)
+     * @return The builder
+     */
+    private static StringBuilder result(StringBuilder json, String word, Optional<List<String>> corrections) {
+        Json.quote(json.append("{\"word\":"), word);
+        json.append(",\"known\":").append(corrections.isEmpty());
+        Json.array(json.append(",\"corrections\":"), corrections.orElse(List.of()));
+        return json.append('}');
+    }
+
+    /**
+     * Return a (decoded) query parameter's value.
+     *
+     * @param exchange The HTTP exchange
+     * @param name     The parameter name
+     * @return The parameter's first value, if present
+     */
+    private static Optional<String> queryParameter(HttpExchange exchange, String name) {
+        var query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return Optional.empty();
+        }
+        for (var parameter : query.split("&")) {
+            var fields = parameter.split("=", 2);
+            if (fields[0].equals(name)) {
+                return Optional.of(URLDecoder.decode(fields.length > 1 ? fields[1] : "", UTF_8));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Read a request body of up to {@value #MAX_BODY_SIZE} bytes.
+     *
+     * @param exchange The HTTP exchange
+     * @return The body text
+     */
+    private static String readBody(HttpExchange exchange) {
+        try (var body = exchange.getRequestBody()) {
+            var bytes = body.readNBytes(MAX_BODY_SIZE + 1);
+            if (bytes.length > MAX_BODY_SIZE) {
+                throw new RequestException(413, "Request body larger than " + MAX_BODY_SIZE + " bytes");
+            }
+            return new String(bytes, UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Endpoint computing a JSON response.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        /**
+         * Compute the response to a request.
+         *
+         * @param exchange The HTTP exchange
+         * @return The JSON response
+         */
+        String respond(HttpExchange exchange);
+    }
+
+    /**
+     * Client error with a specific HTTP status.
+     */
+    private static final class RequestException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The HTTP status code to respond with.
+         */
+        final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
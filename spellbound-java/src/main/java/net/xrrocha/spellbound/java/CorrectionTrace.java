@@ -0,0 +1,77 @@
+package net.xrrocha.spellbound.java;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters accumulated by engines while a traced correction is in progress.
+ * <p>
+ * {@link SpellingCorrector} only installs a trace on the calling thread when
+ * a {@link CorrectionListener} or the {@link CorrectionEvent} is enabled.
+ * Engines look it up once per tier with {@link #current()} and, finding none,
+ * skip all bookkeeping. Engines fanning out to other threads must capture the
+ * trace on the calling thread; counters tolerate concurrent updates.
+ * </p>
+ */
+final class CorrectionTrace {
+
+    /**
+     * The trace of the correction in progress on each thread, if traced.
+     */
+    private static final ThreadLocal<CorrectionTrace> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The number of candidates generated.
+     */
+    final LongAdder candidates = new LongAdder();
+
+    /**
+     * The number of candidates probed against the dictionary.
+     */
+    final LongAdder probes = new LongAdder();
+
+    /**
+     * The number of probes finding a dictionary word.
+     */
+    final LongAdder hits = new LongAdder();
+
+    /**
+     * The time spent filtering candidates against the dictionary.
+     */
+    final LongAdder knownNanos = new LongAdder();
+
+    /**
+     * Return the trace of the correction in progress on this thread.
+     *
+     * @return The trace or <code>null</code> if the correction isn't traced
+     */
+    static CorrectionTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Install this trace on the calling thread.
+     */
+    void begin() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Remove this trace from the calling thread.
+     */
+    void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Add counts gathered in bulk by an engine.
+     *
+     * @param candidateCount The number of candidates generated
+     * @param probeCount     The number of candidates probed against the dictionary
+     * @param hitCount       The number of probes finding a dictionary word
+     */
+    void add(long candidateCount, long probeCount, long hitCount) {
+        candidates.add(candidateCount);
+        probes.add(probeCount);
+        hits.add(hitCount);
+    }
+}
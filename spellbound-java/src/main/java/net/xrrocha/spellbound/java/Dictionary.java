@@ -0,0 +1,63 @@
+package net.xrrocha.spellbound.java;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The word-to-rank dictionary. The higher the rank the higher the word's
+ * occurrence (e.g. <em>the</em> has rank <code>106295</code> while
+ * <em>triose</em> has rank <code>1</code>). Ranks are never negative.
+ * <p>
+ * Besides strings, words can be looked up directly from a <code>char[]</code>
+ * slice so that candidate corrections need not be materialized as strings
+ * just to be probed.
+ * </p>
+ */
+public interface Dictionary {
+
+    /**
+     * Rank returned for words absent from the dictionary.
+     */
+    int ABSENT = -1;
+
+    /**
+     * Return the rank of a word.
+     *
+     * @param word The word to look up
+     * @return The word's rank or {@link #ABSENT} if not in dictionary
+     */
+    int rank(CharSequence word);
+
+    /**
+     * Return the rank of a word given as a character slice.
+     *
+     * @param chars  The buffer holding the word
+     * @param offset The word's offset in the buffer
+     * @param length The word's length
+     * @return The word's rank or {@link #ABSENT} if not in dictionary
+     */
+    int rank(char[] chars, int offset, int length);
+
+    /**
+     * Whether a word is present in the dictionary.
+     *
+     * @param word The word to look up
+     * @return Whether the word is present
+     */
+    default boolean contains(CharSequence word) {
+        return rank(word) != ABSENT;
+    }
+
+    /**
+     * Return the number of words in the dictionary.
+     *
+     * @return The dictionary size
+     */
+    int size();
+
+    /**
+     * Pass every word, along with its rank, to an action.
+     *
+     * @param action The word/rank consumer
+     */
+    void forEach(ObjIntConsumer<String> action);
+}
@@ -0,0 +1,289 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel loader of tab-delimited (word/rank) dictionary files into a
+ * {@link RankTable}.
+ * <p>
+ * The file is split into byte ranges ending on line boundaries, and each
+ * range is parsed on its own core: fields are located and ranks accumulated
+ * by hand straight from the bytes, and valid words are appended to a
+ * per-range {@link RankTable.Builder} without ever becoming strings. Ranges
+ * are then merged in file order.
+ * </p>
+ * <p>
+ * As in Norvig's original, only alphabetic words with a positive rank are
+ * kept; other words are silently skipped. Lines lacking a tab or a valid
+ * (integer) rank are reported along with their line number, as are repeated
+ * words (the first occurrence is kept), and loading carries on.
+ * </p>
+ */
+public final class DictionaryLoader {
+
+    /**
+     * Smallest byte range worth parsing on its own.
+     */
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Largest byte range parsed at once (ranges are read into a heap buffer).
+     */
+    static final int MAX_CHUNK_SIZE = 1 << 28;
+
+    private DictionaryLoader() {
+    }
+
+    /**
+     * Load a dictionary file.
+     *
+     * @param path            The tab-delimited dictionary file
+     * @param onMalformedLine The consumer of problem reports such as
+     *                        <code>line 42: invalid rank: 12x</code>
+     * @return The dictionary
+     */
+    public static RankTable load(Path path, Consumer<String> onMalformedLine) {
+        checkNotNull(path);
+        checkNotNull(onMalformedLine);
+        try (var channel = FileChannel.open(path, READ)) {
+            return load(channel, MIN_CHUNK_SIZE, onMalformedLine);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load a dictionary from a file channel split into chunks of (at least) a
+     * given size.
+     *
+     * @param channel         The channel to read from
+     * @param minChunkSize    The smallest byte range parsed on its own
+     * @param onMalformedLine The consumer of problem reports
+     * @return The dictionary
+     * @throws IOException if reading fails
+     */
+    static RankTable load(FileChannel channel, int minChunkSize, Consumer<String> onMalformedLine)
+        throws IOException {
+
+        // Cut the file into ranges ending right after a newline
+        var boundaries = chunkBoundaries(channel, minChunkSize);
+
+        // Parse all ranges in parallel, keeping them in file order
+        var chunks = IntStream.range(0, boundaries.length - 1)
+            .parallel()
+            .mapToObj(i -> parse(channel, boundaries[i], boundaries[i + 1]))
+            .collect(toList());
+
+        // Merge ranges, turning range-relative line numbers into absolute ones
+        var builder = RankTable.builder();
+        var lineNumbers = new int[chunks.stream().mapToInt(chunk -> chunk.builder.size()).sum()];
+        var firstLine = 1;
+        for (var chunk : chunks) {
+            for (int i = 0; i < chunk.builder.size(); i++) {
+                lineNumbers[builder.size() + i] = firstLine + chunk.lineNumbers[i];
+            }
+            builder.addAll(chunk.builder);
+            for (var problem : chunk.problems) {
+                onMalformedLine.accept("line " + (firstLine + problem.lineNumber) + ": " + problem.message);
+            }
+            firstLine += chunk.lineCount;
+        }
+
+        return builder.build(id -> onMalformedLine.accept("line " + lineNumbers[id] + ": duplicate word"));
+    }
+
+    /**
+     * Split a file into byte ranges that end right after a newline (or at the
+     * end of the file).
+     *
+     * @param channel      The file to split
+     * @param minChunkSize The smallest range size
+     * @return The range boundaries, from <code>0</code> to the file size
+     * @throws IOException if reading fails
+     */
+    private static long[] chunkBoundaries(FileChannel channel, int minChunkSize) throws IOException {
+        var size = channel.size();
+        var parallelism = Runtime.getRuntime().availableProcessors();
+        var chunkCount = (int) Math.max(Math.min(size / minChunkSize, 4L * parallelism), 1 + size / MAX_CHUNK_SIZE);
+
+        var boundaries = new long[chunkCount + 1];
+        var probe = ByteBuffer.allocate(256);
+        for (int i = 1; i < chunkCount; i++) {
+            // Advance from the nominal boundary to just past the next newline
+            var position = Math.max(size * i / chunkCount, boundaries[i - 1]);
+            search:
+            while (position < size) {
+                probe.clear();
+                var count = channel.read(probe, position);
+                for (int j = 0; j < count; j++) {
+                    if (probe.get(j) == '\n') {
+                        position += j + 1;
+                        break search;
+                    }
+                }
+                position += count;
+            }
+            boundaries[i] = Math.min(position, size);
+        }
+        boundaries[chunkCount] = size;
+        return boundaries;
+    }
+
+    /**
+     * Parse a byte range holding whole lines.
+     *
+     * @param channel The file to read from
+     * @param start   The range start
+     * @param end     The range end
+     * @return The parsed range
+     */
+    private static Chunk parse(FileChannel channel, long start, long end) {
+        var bytes = new byte[(int) (end - start)];
+        try {
+            var buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+
+        var chunk = new Chunk();
+        var lineStart = 0;
+        while (lineStart < bytes.length) {
+            var lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            parseLine(bytes, lineStart, lineEnd, chunk);
+            chunk.lineCount++;
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Parse a single <code>word&lt;TAB&gt;rank</code> line, adding the word
+     * to the chunk if alphabetic and positively ranked.
+     *
+     * @param bytes The buffer holding the line
+     * @param start The line start
+     * @param end   The line end (excluding the newline)
+     * @param chunk The chunk being parsed
+     */
+    private static void parseLine(byte[] bytes, int start, int end, Chunk chunk) {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        if (start == end) {
+            // Blank lines carry nothing
+            return;
+        }
+
+        // The word is everything up to the first tab
+        var tab = start;
+        var alphabetic = true;
+        while (tab < end && bytes[tab] != '\t') {
+            var b = bytes[tab] | 0x20;
+            alphabetic &= b >= 'a' && b <= 'z';
+            tab++;
+        }
+        if (tab == end) {
+            chunk.problem("missing rank: " + text(bytes, start, end));
+            return;
+        }
+
+        // The rank is everything after it: an optionally signed integer
+        var position = tab + 1;
+        var negative = position < end && bytes[position] == '-';
+        if (position < end && (bytes[position] == '-' || bytes[position] == '+')) {
+            position++;
+        }
+        var digitStart = position;
+        long rank = 0;
+        while (position < end && bytes[position] >= '0' && bytes[position] <= '9' && rank <= Integer.MAX_VALUE) {
+            rank = rank * 10 + (bytes[position] - '0');
+            position++;
+        }
+        if (position == digitStart || position < end || rank > (negative ? 1L + Integer.MAX_VALUE : Integer.MAX_VALUE)) {
+            chunk.problem("invalid rank: " + text(bytes, tab + 1, end));
+            return;
+        }
+
+        if (alphabetic && tab > start && !negative && rank > 0) {
+            chunk.add(bytes, start, tab - start, (int) rank);
+        }
+    }
+
+    private static String text(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The words parsed from one byte range, along with their range-relative
+     * line numbers and any problems found.
+     */
+    private static final class Chunk {
+
+        /**
+         * The words (and ranks) parsed.
+         */
+        final RankTable.Builder builder = RankTable.builder();
+
+        /**
+         * Zero-based line number of each word within the range.
+         */
+        int[] lineNumbers = new int[1024];
+
+        /**
+         * Malformed lines found.
+         */
+        final List<Problem> problems = new ArrayList<>();
+
+        /**
+         * Number of lines parsed so far.
+         */
+        int lineCount;
+
+        void add(byte[] bytes, int offset, int length, int rank) {
+            if (builder.size() == lineNumbers.length) {
+                lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+            }
+            lineNumbers[builder.size()] = lineCount;
+            builder.add(bytes, offset, length, rank);
+        }
+
+        void problem(String message) {
+            problems.add(new Problem(lineCount, message));
+        }
+    }
+
+    /**
+     * A malformed line.
+     */
+    private static final class Problem {
+
+        final int lineNumber;
+        final String message;
+
+        Problem(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+    }
+}
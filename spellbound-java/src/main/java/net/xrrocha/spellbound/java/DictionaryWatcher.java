@@ -0,0 +1,295 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Background reloader of a {@link SpellingCorrector}'s dictionary file, so
+ * that long-running processes (see {@link CorrectionServer} and
+ * {@link CorrectionDaemon}) pick up a regenerated dictionary without
+ * restarting.
+ * <p>
+ * A {@link WatchService} watches the file's directory. Once the file has been
+ * created or modified and then left alone for a quiet period (so that a file
+ * being written isn't loaded half-way), a single background thread loads it,
+ * builds its indexes and {@link SpellingCorrector#reload(Dictionary) swaps}
+ * them in. Corrections keep running against the previous version meanwhile,
+ * and those in flight during the swap finish against it. As reloads are
+ * serialized on the one thread, at most two dictionary versions (plus the one
+ * being drained) are ever alive, whatever the rate of change.
+ * </p>
+ * <p>
+ * A file failing to load is reported and the current version kept. Compiled
+ * images are memory-mapped, so they must be replaced (e.g. written elsewhere
+ * and renamed into place) rather than overwritten.
+ * </p>
+ */
+public final class DictionaryWatcher implements Closeable {
+
+    /**
+     * The default time the file must be left unchanged before reloading.
+     */
+    public static final Duration DEFAULT_QUIET_PERIOD = Duration.ofSeconds(1);
+
+    /**
+     * The spelling corrector whose dictionary is reloaded.
+     */
+    private final SpellingCorrector spellingCorrector;
+
+    /**
+     * The (absolute) dictionary file path.
+     */
+    private final Path path;
+
+    /**
+     * The function loading a dictionary file.
+     */
+    private final Function<Path, ? extends Dictionary> loader;
+
+    /**
+     * The time the file must be left unchanged before reloading.
+     */
+    private final Duration quietPeriod;
+
+    /**
+     * The receiver of reload messages.
+     */
+    private final Consumer<String> log;
+
+    /**
+     * The service watching the file's directory.
+     */
+    private final WatchService watchService;
+
+    /**
+     * The thread waiting for changes and reloading.
+     */
+    private final Thread thread;
+
+    /**
+     * The number of successful reloads.
+     */
+    private volatile long reloadCount;
+
+    /**
+     * The number of failed reloads.
+     */
+    private volatile long failureCount;
+
+    /**
+     * The duration of the last successful reload (or <code>null</code>).
+     */
+    private volatile Duration lastReloadDuration;
+
+    /**
+     * The modification time and size of the file last loaded, to skip
+     * events not changing it.
+     */
+    private FileTime loadedTime;
+    private long loadedSize;
+
+    /**
+     * Constructor using the {@link #DEFAULT_QUIET_PERIOD default quiet
+     * period}. The file is assumed to hold the corrector's current dictionary.
+     *
+     * @param spellingCorrector The spelling corrector whose dictionary is reloaded
+     * @param path              The dictionary file path
+     * @param loader            The function loading a dictionary file (e.g.
+     *                          <code>path -> DictionaryLoader.load(path, System.err::println)</code>)
+     * @param log               The receiver of reload messages
+     */
+    public DictionaryWatcher(SpellingCorrector spellingCorrector, Path path,
+                             Function<Path, ? extends Dictionary> loader, Consumer<String> log) {
+        this(spellingCorrector, path, loader, DEFAULT_QUIET_PERIOD, log);
+    }
+
+    /**
+     * Constructor. The file is assumed to hold the corrector's current
+     * dictionary. Watching starts with {@link #start()}.
+     *
+     * @param spellingCorrector The spelling corrector whose dictionary is reloaded
+     * @param path              The dictionary file path
+     * @param loader            The function loading a dictionary file
+     * @param quietPeriod       The time the file must be left unchanged before
+     *                          reloading
+     * @param log               The receiver of reload messages
+     */
+    public DictionaryWatcher(SpellingCorrector spellingCorrector, Path path,
+                             Function<Path, ? extends Dictionary> loader, Duration quietPeriod,
+                             Consumer<String> log) {
+        checkNotNull(spellingCorrector);
+        checkNotNull(path);
+        checkNotNull(loader);
+        checkNotNull(quietPeriod);
+        checkArgument(!quietPeriod.isNegative());
+        checkNotNull(log);
+        this.spellingCorrector = spellingCorrector;
+        this.path = path.toAbsolutePath();
+        this.loader = loader;
+        this.quietPeriod = quietPeriod;
+        this.log = log;
+
+        try {
+            watchService = this.path.getFileSystem().newWatchService();
+            this.path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            loadedTime = Files.getLastModifiedTime(this.path);
+            loadedSize = Files.size(this.path);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+
+        thread = new Thread(this::watch, "dictionary-watcher");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Start watching in the background.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stop watching, waiting for an ongoing reload (if any) to complete.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        if (thread.isAlive() && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Return the version number of the corrector's current dictionary.
+     *
+     * @return The current dictionary version
+     */
+    public long getVersion() {
+        return spellingCorrector.getVersion();
+    }
+
+    /**
+     * Return the number of successful reloads.
+     *
+     * @return The reload count
+     */
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * Return the number of reloads that failed, keeping the current version.
+     *
+     * @return The failure count
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Return how long the last successful reload took to load the file,
+     * build its indexes and swap them in.
+     *
+     * @return The last reload's duration, if any
+     */
+    public Optional<Duration> getLastReloadDuration() {
+        return Optional.ofNullable(lastReloadDuration);
+    }
+
+    /**
+     * Wait for changes to the file and reload it, until closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                // Wait for the file to change
+                while (!concernsFile(watchService.take())) {
+                }
+
+                // Then for it to be left alone for the quiet period
+                var deadline = System.nanoTime() + quietPeriod.toNanos();
+                while (true) {
+                    var key = watchService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (key == null) {
+                        break;
+                    }
+                    if (concernsFile(key)) {
+                        deadline = System.nanoTime() + quietPeriod.toNanos();
+                    }
+                }
+
+                reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed: stop watching
+        }
+    }
+
+    /**
+     * Drain a watch key's events, telling whether any of them may concern
+     * the dictionary file (lost events included).
+     *
+     * @param key The watch key
+     * @return Whether the file may have changed
+     */
+    private boolean concernsFile(WatchKey key) {
+        var fileName = path.getFileName();
+        var changed = false;
+        for (var event : key.pollEvents()) {
+            changed |= event.kind().type() != Path.class || fileName.equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Load the file and swap it in, unless it's unchanged or missing.
+     */
+    void reload() {
+        try {
+            var modifiedTime = Files.getLastModifiedTime(path);
+            var size = Files.size(path);
+            if (modifiedTime.equals(loadedTime) && size == loadedSize) {
+                return;
+            }
+
+            var startTime = System.nanoTime();
+            var version = spellingCorrector.reload(loader.apply(path));
+            lastReloadDuration = Duration.ofNanos(System.nanoTime() - startTime);
+            loadedTime = modifiedTime;
+            loadedSize = size;
+            reloadCount++;
+            log.accept(String.format("Reloaded %s as version %d in %d ms", path, version,
+                                     lastReloadDuration.toMillis()));
+        } catch (IOException | RuntimeException e) {
+            failureCount++;
+            log.accept(String.format("Error reloading %s, keeping version %d: %s", path,
+                                     spellingCorrector.getVersion(), e));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Damerau-Levenshtein distance between lowercase alphabetic words.
+ * <p>
+ * Norvig's <code>edits1</code> applies one delete, transpose, replace or insert
+ * and <code>edits2</code> applies two of them in succession, so the words they
+ * reach are exactly those within <em>unrestricted</em> Damerau-Levenshtein
+ * distance 1 or 2 (e.g. <em>ca</em> &rarr; <em>ac</em> &rarr; <em>abc</em> is
+ * a distance-2 pair the restricted, "optimal string alignment" variant would
+ * rate 3). This class implements the unrestricted (Lowrance-Wagner) distance,
+ * which is also a proper metric.
+ * </p>
+ */
+final class EditDistance {
+
+    /**
+     * Size of the lowercase alphabet words are drawn from.
+     */
+    static final int ALPHABET_SIZE = 26;
+
+    /**
+     * Per-thread scratch matrices; distances are computed very often (e.g. while
+     * searching a BK-tree) and matrices need not be reallocated every time.
+     */
+    private static final ThreadLocal<int[]> MATRICES = ThreadLocal.withInitial(() -> new int[1024]);
+
+    /**
+     * Per-thread scratch "last row per letter" tables.
+     */
+    private static final ThreadLocal<int[]> LAST_ROWS = ThreadLocal.withInitial(() -> new int[ALPHABET_SIZE]);
+
+    private EditDistance() {
+    }
+
+    /**
+     * Compute the Damerau-Levenshtein distance between two lowercase words,
+     * giving up once the distance is known to exceed <code>maxDistance</code>:
+     * row minima never decrease, so no row past one whose every cell exceeds
+     * it can lead back within reach.
+     *
+     * @param source      The first word
+     * @param target      The second word
+     * @param maxDistance The largest distance of interest
+     * @return The distance between both words or <code>maxDistance + 1</code> if
+     * it exceeds <code>maxDistance</code>
+     */
+    static int distance(String source, String target, int maxDistance) {
+        checkArgument(maxDistance >= 0);
+
+        var sourceLength = source.length();
+        var targetLength = target.length();
+
+        // Length difference alone already exceeds the limit
+        if (Math.abs(sourceLength - targetLength) > maxDistance) {
+            return maxDistance + 1;
+        }
+
+        // Rows/columns are shifted by one to accommodate the sentinel border.
+        // The matrix is laid out row-major on a reusable, per-thread array
+        var width = targetLength + 2;
+        var matrix = scratch(sourceLength + 2, width);
+        var infinity = sourceLength + targetLength;
+        matrix[0] = infinity;
+        for (int i = 0; i <= sourceLength; i++) {
+            matrix[(i + 1) * width] = infinity;
+            matrix[(i + 1) * width + 1] = i;
+        }
+        for (int j = 0; j <= targetLength; j++) {
+            matrix[j + 1] = infinity;
+            matrix[width + j + 1] = j;
+        }
+
+        // Last source row where each letter occurred
+        var lastRow = LAST_ROWS.get();
+        Arrays.fill(lastRow, 0);
+
+        for (int i = 1; i <= sourceLength; i++) {
+            var sourceChar = source.charAt(i - 1);
+            // Last target column in this row where characters matched
+            var lastMatchColumn = 0;
+            var rowMinimum = i;
+            for (int j = 1; j <= targetLength; j++) {
+                var targetChar = target.charAt(j - 1);
+                var transposeRow = lastRow[targetChar - 'a'];
+                var transposeColumn = lastMatchColumn;
+                int cost;
+                if (sourceChar == targetChar) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                } else {
+                    cost = 1;
+                }
+                var cell = min(
+                    matrix[i * width + j] + cost,
+                    matrix[(i + 1) * width + j] + 1,
+                    matrix[i * width + j + 1] + 1,
+                    matrix[transposeRow * width + transposeColumn] +
+                        (i - transposeRow - 1) + 1 + (j - transposeColumn - 1));
+                matrix[(i + 1) * width + j + 1] = cell;
+                rowMinimum = Math.min(rowMinimum, cell);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            lastRow[sourceChar - 'a'] = i;
+        }
+
+        return Math.min(matrix[(sourceLength + 1) * width + targetLength + 1], maxDistance + 1);
+    }
+
+    /**
+     * Return this thread's scratch matrix, grown as needed to hold the given
+     * number of cells.
+     *
+     * @param rows    The number of matrix rows
+     * @param columns The number of matrix columns
+     * @return The (dirty) scratch matrix
+     */
+    private static int[] scratch(int rows, int columns) {
+        var matrix = MATRICES.get();
+        if (matrix.length < rows * columns) {
+            matrix = new int[Math.max(rows * columns, matrix.length * 2)];
+            MATRICES.set(matrix);
+        }
+        return matrix;
+    }
+
+    /**
+     * Verify whether a word consists solely of lowercase ascii letters (the only
+     * words reachable by Norvig's edits from a normalized typo).
+     *
+     * @param word The word to be tested
+     * @return Whether the word is lowercase alphabetic
+     */
+    static boolean isLowercase(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            var c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return !word.isEmpty();
+    }
+
+    /**
+     * Return, sorted, the dictionary words reachable from a normalized typo
+     * (i.e. the lowercase alphabetic ones).
+     *
+     * @param dictionary The dictionary to draw words from
+     * @return The sorted lowercase words
+     */
+    static String[] lowercaseWords(Dictionary dictionary) {
+        var words = new ArrayList<String>(dictionary.size());
+        dictionary.forEach((word, rank) -> {
+            if (isLowercase(word)) {
+                words.add(word);
+            }
+        });
+        var array = words.toArray(new String[0]);
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static int min(int a, int b, int c, int d) {
+        return Math.min(Math.min(a, b), Math.min(c, d));
+    }
+}
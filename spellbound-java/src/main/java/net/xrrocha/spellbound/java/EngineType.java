@@ -0,0 +1,68 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.Function;
+
+/**
+ * The available correction engines, selectable by name (e.g. from the command
+ * line).
+ */
+public enum EngineType {
+
+    /**
+     * Norvig's brute-force <code>edits1</code>/<code>edits2</code> generation.
+     */
+    BRUTE_FORCE(BruteForceEngine::new),
+
+    /**
+     * Precomputed symmetric-delete index.
+     */
+    SYMMETRIC_DELETE(SymmetricDeleteEngine::new),
+
+    /**
+     * Metric (BK) tree over Damerau-Levenshtein distance.
+     */
+    BK_TREE(BkTreeEngine::new),
+
+    /**
+     * Damerau-Levenshtein automaton walked over a dictionary trie.
+     */
+    AUTOMATON(AutomatonEngine::new),
+
+    /**
+     * Brute-force generation on reusable scratch buffers.
+     */
+    SCRATCH_BUFFER(ScratchBufferEngine::new);
+
+    /**
+     * The function building an engine from a dictionary.
+     */
+    private final Function<Dictionary, CorrectionEngine> factory;
+
+    EngineType(Function<Dictionary, CorrectionEngine> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Return the function building this type's engine from a dictionary.
+     *
+     * @return The engine factory
+     */
+    public Function<Dictionary, CorrectionEngine> factory() {
+        return factory;
+    }
+
+    /**
+     * Resolve an engine type from its (case-insensitive, dash-separated) name
+     * such as <code>symmetric-delete</code>.
+     *
+     * @param name The engine name
+     * @return The corresponding engine type
+     * @throws IllegalArgumentException if no engine has the given name
+     */
+    public static EngineType forName(String name) {
+        checkNotNull(name);
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,121 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Count-min sketch estimating how often each key has recently been seen, in
+ * 8 bytes per cached entry (the TinyLFU frequency filter).
+ * <p>
+ * Counters are 4 bits wide, packed 16 to a <code>long</code>, and each key
+ * maps onto 4 of them; its estimate is the smallest. Once the number of
+ * recorded occurrences reaches ten times the cache size, every counter is
+ * halved so that estimates reflect recent popularity rather than all-time
+ * totals.
+ * </p>
+ */
+final class FrequencySketch {
+
+    /**
+     * Largest value a 4-bit counter can hold.
+     */
+    private static final int MAX_COUNT = 15;
+
+    /**
+     * Multipliers deriving each of the 4 counter indexes from a key hash.
+     */
+    private static final int[] SEEDS = {0x97CB3127, 0xB4B82E57, 0x2F1A3C4D, 0x7FEB352D};
+
+    /**
+     * Packed 4-bit counters.
+     */
+    private final long[] table;
+
+    /**
+     * Counter index mask (counter count is a power of two).
+     */
+    private final int counterMask;
+
+    /**
+     * Number of increments after which all counters are halved.
+     */
+    private final int sampleSize;
+
+    /**
+     * Number of increments since the last halving.
+     */
+    private int additions;
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize The maximum number of entries of the cache being fed
+     */
+    FrequencySketch(int maximumSize) {
+        checkArgument(maximumSize > 0);
+        // One long (16 counters) per cached entry keeps collisions rare
+        var tableSize = Integer.highestOneBit(Math.min(maximumSize, 1 << 26) * 2 - 1);
+        table = new long[tableSize];
+        var counterCount = tableSize * 16;
+        counterMask = counterCount - 1;
+        sampleSize = 10 * Math.min(maximumSize, Integer.MAX_VALUE / 10);
+    }
+
+    /**
+     * Record an occurrence of a key.
+     *
+     * @param key The key seen
+     */
+    void increment(Object key) {
+        var hash = RankTable.spread(key.hashCode());
+        var added = false;
+        for (var seed : SEEDS) {
+            added |= incrementAt(indexOf(hash, seed));
+        }
+        if (added && ++additions == sampleSize) {
+            halve();
+        }
+    }
+
+    /**
+     * Estimate how often a key has recently been seen.
+     *
+     * @param key The key to look up
+     * @return The estimated frequency (at most 15)
+     */
+    int frequency(Object key) {
+        var hash = RankTable.spread(key.hashCode());
+        var frequency = MAX_COUNT;
+        for (var seed : SEEDS) {
+            frequency = Math.min(frequency, countAt(indexOf(hash, seed)));
+        }
+        return frequency;
+    }
+
+    private int indexOf(int hash, int seed) {
+        var index = hash * seed;
+        return (index ^ (index >>> 17)) & counterMask;
+    }
+
+    private int countAt(int index) {
+        return (int) (table[index >>> 4] >>> ((index & 15) << 2)) & MAX_COUNT;
+    }
+
+    private boolean incrementAt(int index) {
+        var shift = (index & 15) << 2;
+        if (((table[index >>> 4] >>> shift) & MAX_COUNT) == MAX_COUNT) {
+            return false;
+        }
+        table[index >>> 4] += 1L << shift;
+        return true;
+    }
+
+    /**
+     * Age all counters by halving them.
+     */
+    private void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+        }
+        additions /= 2;
+    }
+}
@@ -0,0 +1,406 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable, compressed word-to-rank {@link Dictionary}, for running many
+ * dictionaries (e.g. one per language) in a single heap.
+ * <p>
+ * Sorted words share long prefixes, which front coding stores once: words are
+ * sorted and grouped into blocks of {@value #BLOCK_SIZE}, each block starting
+ * with its first word in full followed, for every other word, by the length
+ * of the prefix it shares with the previous word and the remaining suffix.
+ * A sparse index holds where each block starts, and ranks are bit-packed
+ * (by word id, i.e. sorted position) with just as many bits as the highest
+ * rank needs. The bundled dictionary then takes about a quarter of the
+ * memory of a {@link RankTable} and a fifteenth of that of a
+ * <code>HashMap&lt;String, Integer&gt;</code>.
+ * </p>
+ * <p>
+ * A lookup binary-searches the block index (comparing first words) and then
+ * scans one block, comparing each suffix against the looked-up word without
+ * decoding any word: lookups stay allocation free and take well under a
+ * microsecond, albeit several times slower than a {@link RankTable}'s
+ * single hash probe. Engines probing many candidates per correction (e.g.
+ * {@link BruteForceEngine}) thus trade speed for memory; those searching an
+ * index of their own (e.g. {@link SymmetricDeleteEngine}) only consult the
+ * dictionary for ranks.
+ * </p>
+ */
+public final class FrontCodedDictionary implements Dictionary {
+
+    /**
+     * The number of words per block. Larger blocks share more prefixes and
+     * shrink the index, but lengthen the scan each lookup ends with.
+     */
+    static final int BLOCK_SIZE = 16;
+
+    /**
+     * The front-coded (ascii) words, block after block.
+     */
+    private final byte[] stream;
+
+    /**
+     * Start of each block in the stream.
+     */
+    private final int[] blocks;
+
+    /**
+     * The ranks, bit-packed by word id.
+     */
+    private final long[] ranks;
+
+    /**
+     * The number of bits per packed rank.
+     */
+    private final int rankBits;
+
+    /**
+     * The number of words.
+     */
+    private final int size;
+
+    /**
+     * The length of the longest word.
+     */
+    private final int maxLength;
+
+    /**
+     * Constructor
+     *
+     * @param stream    The front-coded words
+     * @param blocks    The start of each block in the stream
+     * @param ranks     The bit-packed ranks
+     * @param rankBits  The number of bits per packed rank
+     * @param size      The number of words
+     * @param maxLength The length of the longest word
+     */
+    private FrontCodedDictionary(byte[] stream, int[] blocks, long[] ranks, int rankBits, int size, int maxLength) {
+        this.stream = stream;
+        this.blocks = blocks;
+        this.ranks = ranks;
+        this.rankBits = rankBits;
+        this.size = size;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Compress a dictionary (e.g. a freshly loaded {@link RankTable}).
+     *
+     * @param dictionary The dictionary
+     * @return The equivalent front-coded dictionary
+     */
+    public static FrontCodedDictionary of(Dictionary dictionary) {
+        checkNotNull(dictionary);
+        var entries = new ArrayList<Map.Entry<String, Integer>>(dictionary.size());
+        dictionary.forEach((word, rank) -> entries.add(Map.entry(word, rank)));
+        return build(entries);
+    }
+
+    /**
+     * Compress a word-to-rank map.
+     *
+     * @param dictionary The word-to-rank map
+     * @return The equivalent front-coded dictionary
+     */
+    public static FrontCodedDictionary of(Map<String, Integer> dictionary) {
+        checkNotNull(dictionary);
+        return build(new ArrayList<>(dictionary.entrySet()));
+    }
+
+    @Override
+    public int rank(CharSequence word) {
+        var id = id(word, null, 0, word.length());
+        return id == ABSENT ? ABSENT : rankAt(id);
+    }
+
+    @Override
+    public int rank(char[] chars, int offset, int length) {
+        var id = id(null, chars, offset, length);
+        return id == ABSENT ? ABSENT : rankAt(id);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(ObjIntConsumer<String> action) {
+        checkNotNull(action);
+        var word = new byte[maxLength];
+        var position = 0;
+        for (int id = 0; id < size; id++) {
+            // Block heads are stored in full, other words after their shared prefix
+            var prefixLength = 0;
+            if (id % BLOCK_SIZE != 0) {
+                prefixLength = readVarint(position);
+                position += varintSize(prefixLength);
+            }
+            var suffixLength = readVarint(position);
+            position += varintSize(suffixLength);
+            System.arraycopy(stream, position, word, prefixLength, suffixLength);
+            position += suffixLength;
+            action.accept(new String(word, 0, prefixLength + suffixLength, StandardCharsets.US_ASCII), rankAt(id));
+        }
+    }
+
+    /**
+     * Return the number of bytes taken by this dictionary's arrays (object
+     * headers included).
+     *
+     * @return The dictionary's heap footprint in bytes
+     */
+    public long footprintBytes() {
+        // 16 bytes per array header, plus the object itself
+        return 32 + 3 * 16 + stream.length + 4L * blocks.length + 8L * ranks.length;
+    }
+
+    /**
+     * Locate a word given either as a character sequence or as a character
+     * slice.
+     *
+     * @param word   The word to look up (or <code>null</code> for a slice)
+     * @param chars  The buffer holding the word (if <code>word</code> is
+     *               <code>null</code>)
+     * @param offset The word's offset in the buffer
+     * @param length The word's length
+     * @return The word's id or {@link #ABSENT} if not in dictionary
+     */
+    private int id(CharSequence word, char[] chars, int offset, int length) {
+
+        // Locate the last block whose first word isn't past the word
+        var low = 0;
+        var high = blocks.length - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            if (compareHead(middle, word, chars, offset, length) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (high < 0) {
+            return ABSENT;
+        }
+        var block = high;
+
+        // Match the block's first word
+        var position = blocks[block];
+        var headLength = readVarint(position);
+        position += varintSize(headLength);
+        var matched = 0;
+        while (matched < headLength && matched < length &&
+            (stream[position + matched] & 0xff) == charAt(word, chars, offset, matched)) {
+            matched++;
+        }
+        var id = block * BLOCK_SIZE;
+        if (matched == headLength && matched == length) {
+            return id;
+        }
+        position += headLength;
+
+        // Scan the block's other words, all sorting after the previous word,
+        // tracking the prefix the previous word shares with the looked-up one
+        var end = block + 1 < blocks.length ? blocks[block + 1] : stream.length;
+        while (position < end) {
+            id++;
+            var prefixLength = readVarint(position);
+            position += varintSize(prefixLength);
+            var suffixLength = readVarint(position);
+            position += varintSize(suffixLength);
+
+            // Sharing less than the previous word means sorting past the word;
+            // sharing more means sorting before it, like the previous word
+            if (prefixLength < matched) {
+                return ABSENT;
+            }
+            if (prefixLength == matched) {
+                var i = 0;
+                while (i < suffixLength && matched + i < length &&
+                    (stream[position + i] & 0xff) == charAt(word, chars, offset, matched + i)) {
+                    i++;
+                }
+                if (i == suffixLength && matched + i == length) {
+                    return id;
+                }
+                if (i < suffixLength &&
+                    (matched + i == length ||
+                        (stream[position + i] & 0xff) > charAt(word, chars, offset, matched + i))) {
+                    return ABSENT;
+                }
+                matched += i;
+            }
+            position += suffixLength;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Compare a block's first word against a looked-up word.
+     *
+     * @param block  The block
+     * @param word   The word to look up (or <code>null</code> for a slice)
+     * @param chars  The buffer holding the word
+     * @param offset The word's offset in the buffer
+     * @param length The word's length
+     * @return A negative number, zero, or a positive number as the block's
+     * first word sorts before, equal to, or after the looked-up word
+     */
+    private int compareHead(int block, CharSequence word, char[] chars, int offset, int length) {
+        var position = blocks[block];
+        var headLength = readVarint(position);
+        position += varintSize(headLength);
+        var commonLength = Math.min(headLength, length);
+        for (int i = 0; i < commonLength; i++) {
+            var difference = (stream[position + i] & 0xff) - charAt(word, chars, offset, i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return headLength - length;
+    }
+
+    /**
+     * Return a character of a word given either as a character sequence or as
+     * a character slice.
+     *
+     * @param word   The word (or <code>null</code> for a slice)
+     * @param chars  The buffer holding the word
+     * @param offset The word's offset in the buffer
+     * @param index  The character's index in the word
+     * @return The character
+     */
+    private static char charAt(CharSequence word, char[] chars, int offset, int index) {
+        return word != null ? word.charAt(index) : chars[offset + index];
+    }
+
+    /**
+     * Return the rank of a word given its id.
+     *
+     * @param id The word id
+     * @return The word's rank
+     */
+    int rankAt(int id) {
+        var bit = (long) id * rankBits;
+        var index = (int) (bit >>> 6);
+        var shift = (int) (bit & 63);
+        var bits = ranks[index] >>> shift;
+        if (shift + rankBits > 64) {
+            bits |= ranks[index + 1] << (64 - shift);
+        }
+        return (int) (bits & ((1L << rankBits) - 1));
+    }
+
+    /**
+     * Read a variable-length (7 bits per byte, low bits first) integer.
+     *
+     * @param position The integer's position in the stream
+     * @return The integer
+     */
+    private int readVarint(int position) {
+        var value = 0;
+        for (int shift = 0; ; shift += 7) {
+            var b = stream[position++];
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Return the number of bytes a variable-length integer takes.
+     *
+     * @param value The (non-negative) integer
+     * @return The integer's encoded size
+     */
+    private static int varintSize(int value) {
+        var size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Write a variable-length integer.
+     *
+     * @param out   The output
+     * @param value The (non-negative) integer
+     */
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Sort, front-code and pack a list of words and ranks.
+     *
+     * @param entries The (distinct) word/rank entries
+     * @return The front-coded dictionary
+     */
+    private static FrontCodedDictionary build(ArrayList<Map.Entry<String, Integer>> entries) {
+        // Ascii words sort the same as strings and as bytes
+        entries.sort(Map.Entry.comparingByKey());
+
+        var size = entries.size();
+        var maxRank = 0;
+        for (var entry : entries) {
+            checkArgument(entry.getValue() >= 0, "Negative rank for %s: %s", entry.getKey(), entry.getValue());
+            maxRank = Math.max(maxRank, entry.getValue());
+        }
+        var rankBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxRank));
+        // One spare long so that reads straddling two longs never go past the end
+        var ranks = new long[(int) (((long) size * rankBits + 63) >>> 6) + 1];
+        var blocks = new int[(size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        var out = new ByteArrayOutputStream();
+        var maxLength = 0;
+
+        String previous = null;
+        for (int id = 0; id < size; id++) {
+            var word = entries.get(id).getKey();
+            checkArgument(word.chars().allMatch(c -> c < 128), "Not an ascii word: %s", word);
+            checkArgument(previous == null || !previous.equals(word), "Duplicate word: %s", word);
+            maxLength = Math.max(maxLength, word.length());
+
+            // Block heads are stored in full, other words after their shared prefix
+            var prefixLength = 0;
+            if (id % BLOCK_SIZE == 0) {
+                blocks[id / BLOCK_SIZE] = out.size();
+            } else {
+                var limit = Math.min(previous.length(), word.length());
+                while (prefixLength < limit && previous.charAt(prefixLength) == word.charAt(prefixLength)) {
+                    prefixLength++;
+                }
+                writeVarint(out, prefixLength);
+            }
+            writeVarint(out, word.length() - prefixLength);
+            out.write(word.substring(prefixLength).getBytes(StandardCharsets.US_ASCII), 0,
+                      word.length() - prefixLength);
+
+            // Pack the rank, possibly across two longs
+            var bit = (long) id * rankBits;
+            var index = (int) (bit >>> 6);
+            var shift = (int) (bit & 63);
+            long rank = entries.get(id).getValue();
+            ranks[index] |= rank << shift;
+            if (shift + rankBits > 64) {
+                ranks[index + 1] |= rank >>> (64 - shift);
+            }
+            previous = word;
+        }
+
+        return new FrontCodedDictionary(out.toByteArray(), blocks, ranks, rankBits, size, maxLength);
+    }
+}
@@ -0,0 +1,35 @@
+package net.xrrocha.spellbound.java;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Helpers for waiting on {@link CompletableFuture}s.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Wait for an ongoing computation, rethrowing its failure as is rather
+     * than wrapped in a {@link CompletionException}.
+     *
+     * @param future The ongoing computation
+     * @param <T>    The type of the computed value
+     * @return The computed value
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Just enough JSON for the correction service: string quoting, string arrays
+ * and parsing of string-array request bodies.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Append a string as a JSON string literal.
+     *
+     * @param builder The builder to append to
+     * @param string  The string to quote
+     * @return The builder
+     */
+    static StringBuilder quote(StringBuilder builder, String string) {
+        builder.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            var c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"');
+    }
+
+    /**
+     * Append strings as a JSON array.
+     *
+     * @param builder The builder to append to
+     * @param strings The strings
+     * @return The builder
+     */
+    static StringBuilder array(StringBuilder builder, Collection<String> strings) {
+        builder.append('[');
+        var first = true;
+        for (var string : strings) {
+            if (!first) {
+                builder.append(',');
+            }
+            quote(builder, string);
+            first = false;
+        }
+        return builder.append(']');
+    }
+
+    /**
+     * Parse a JSON array of strings.
+     *
+     * @param json The JSON text
+     * @return The strings
+     * @throws IllegalArgumentException If the text isn't an array of strings
+     */
+    static List<String> parseStringArray(String json) {
+        var parser = new Parser(json);
+        var strings = new ArrayList<String>();
+        parser.expect('[');
+        if (!parser.consume(']')) {
+            do {
+                strings.add(parser.string());
+            } while (parser.consume(','));
+            parser.expect(']');
+        }
+        parser.skipWhitespace();
+        checkArgument(parser.position == json.length(), "Trailing characters after JSON array");
+        return strings;
+    }
+
+    /**
+     * Cursor over JSON text.
+     */
+    private static final class Parser {
+
+        private final String json;
+        private int position;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        void skipWhitespace() {
+            while (position < json.length() && " \t\r\n".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            checkArgument(consume(c), "Expected '%s' at position %s", c, position);
+        }
+
+        String string() {
+            expect('"');
+            var builder = new StringBuilder();
+            while (true) {
+                checkArgument(position < json.length(), "Unterminated JSON string");
+                var c = json.charAt(position++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                checkArgument(position < json.length(), "Unterminated JSON string");
+                var escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'u':
+                        checkArgument(position + 4 <= json.length(), "Truncated JSON escape");
+                        builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        // Quote, backslash and slash stand for themselves
+                        builder.append(escaped);
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package net.xrrocha.spellbound.java;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
@@ -7,15 +8,31 @@ import static java.util.stream.Collectors.toMap;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -32,15 +49,85 @@ public class Main {
      * has rank <code>1</code> while <em>triose</em> has rank <code>106295</code>.
      * </p>
      * <p>
+     * The dictionary filename may be preceded by <code>--name=value</code>
+     * options. Option <code>--engine</code> selects the {@link EngineType}
+     * used to locate corrections (e.g. <code>--engine=symmetric-delete</code>);
+     * it defaults to Norvig's <code>brute-force</code> engine. Option
+     * <code>--max-distance</code> sets the maximum edit distance searched by the
+     * <code>bk-tree</code> engine. Option <code>--false-positive-rate</code>
+     * sets the rate of the candidate prefilter used by the
+     * <code>brute-force</code> and <code>scratch-buffer</code> engines
+     * (<code>1</code> disables it). Option <code>--front-coded</code>
+     * compresses the dictionary into a {@link FrontCodedDictionary}, taking a
+     * fraction of the memory at the cost of slower lookups. Option
+     * <code>--cache-size</code> caches the
+     * corrections of up to that many typos (see {@link CorrectionCache}) and
+     * reports cache statistics on standard error. Option <code>--corpus</code>
+     * counts typo occurrences instead, within a memory budget set by
+     * <code>--memory-budget</code> (in megabytes, <code>64</code> by default),
+     * so that arbitrarily large corpora can be processed (see
+     * {@link #processCorpus(Stream, SpellingCorrector, long, Consumer)}).
+     * Option <code>--threads</code> reads, tokenizes and corrects the content
+     * files concurrently on that many worker threads, reporting per-file
+     * timings on standard error; results keep input file order unless
+     * <code>--unordered</code> is given, in which case each file's results are
+     * reported as soon as it completes, prefixed by the file name (see
+     * {@link #processFiles(List, SpellingCorrector, int, boolean, Consumer, Consumer)}).
+     * </p>
+     * <p>
      * Command-line arguments following the dictionary filename must point to
      * textual files whose words are to be validated. These files are concatenated
      * and processed as a whole. If no content filenames are provided, the operating
      * system's standard input will be used.
      * </p>
      * <p>
+     * The dictionary file may also be a binary image produced by the
+     * <code>compile</code> command:
+     * </p>
+     * <blockquote>
+     *
+     * <pre>
+     * <code>compile dictionary.tsv dictionary.img</code>
+     * </pre>
+     *
+     * </blockquote>
+     * <p>
+     * Such images are memory-mapped (see {@link MappedDictionary}) rather than
+     * parsed, so startup time doesn't grow with dictionary size.
+     * </p>
+     * <p>
+     * Command <code>serve</code> runs an HTTP correction service instead (see
+     * {@link #serve(Map, String)}):
+     * </p>
+     * <blockquote>
+     *
+     * <pre>
+     * <code>serve --port=8080 --threads=8 dictionary.img</code>
+     * </pre>
+     *
+     * </blockquote>
+     * <p>
+     * Command <code>daemon</code> keeps the corrector loaded and answers a
+     * pipelined line protocol on standard input and output or, given
+     * <code>--port</code>, over loopback TCP connections (see
+     * {@link #daemon(Map, String)}):
+     * </p>
+     * <blockquote>
+     *
+     * <pre>
+     * <code>daemon --port=7777 dictionary.img</code>
+     * </pre>
+     *
+     * </blockquote>
+     * <p>
+     * Content files are memory-mapped and scanned in place by a
+     * {@link Tokenizer}; standard input is read line by line.
+     * </p>
+     * <p>
      * Results are always produced onto the operating system's standard output. Each
      * tab-delimited output line contains a typo and a comma-separated list of
-     * correction suggestions. For example:
+     * correction suggestions (in corpus mode, a typo, its count and the
+     * suggestions). For example:
      * </p>
      * <blockquote>
      *
@@ -55,40 +142,236 @@ public class Main {
      */
     public static void main(String[] args) {
 
-        if (args.length < 1) {
-            onError("Usage: " + Main.class.getName() + " <dictionaryFilename> [ file1 file2 ... ]");
+        // "compile <dictionaryFilename> <imageFilename>" builds an image
+        if (args.length > 0 && args[0].equals("compile")) {
+            if (args.length != 3) {
+                onError("Usage: " + Main.class.getName() + " compile <dictionaryFilename> <imageFilename>");
+            }
+            try {
+                compile(args[1], args[2]);
+            } catch (Exception e) {
+                onError("Unexpected error: " + e.toString());
+            }
+            return;
+        }
+
+        // "serve [--name=value...] <dictionaryFilename>" runs the HTTP service
+        if (args.length > 0 && args[0].equals("serve")) {
+            var serveOptionCount = (int) Arrays.stream(args, 1, args.length)
+                .takeWhile(arg -> arg.startsWith("--")).count();
+            if (args.length != serveOptionCount + 2) {
+                onError("Usage: " + Main.class.getName() +
+                            " serve [--host=<address>] [--port=<n>] [--threads=<n>] [--queue-size=<n>]" +
+                            " [--grace-period=<seconds>] [--engine=<name>] [--cache-size=<n>] [--watch]" +
+                            " <dictionaryFilename>");
+            }
+            try {
+                serve(parseOptions(Arrays.stream(args, 1, serveOptionCount + 1)), args[serveOptionCount + 1]);
+            } catch (Exception e) {
+                onError("Unexpected error: " + e.toString());
+            }
+            return;
+        }
+
+        // "daemon [--name=value...] <dictionaryFilename>" runs the line-protocol daemon
+        if (args.length > 0 && args[0].equals("daemon")) {
+            var daemonOptionCount = (int) Arrays.stream(args, 1, args.length)
+                .takeWhile(arg -> arg.startsWith("--")).count();
+            if (args.length != daemonOptionCount + 2) {
+                onError("Usage: " + Main.class.getName() +
+                            " daemon [--port=<n> [--host=<address>]] [--threads=<n>] [--in-flight=<n>]" +
+                            " [--engine=<name>] [--cache-size=<n>] [--watch] <dictionaryFilename>");
+            }
+            try {
+                daemon(parseOptions(Arrays.stream(args, 1, daemonOptionCount + 1)), args[daemonOptionCount + 1]);
+            } catch (Exception e) {
+                onError("Unexpected error: " + e.toString());
+            }
+            return;
+        }
+
+        // Leading "--name=value" arguments are options
+        var optionCount = (int) Arrays.stream(args).takeWhile(arg -> arg.startsWith("--")).count();
+        var options = parseOptions(Arrays.stream(args, 0, optionCount));
+
+        if (args.length - optionCount < 1) {
+            onError("Usage: " + Main.class.getName() +
+                        " [--engine=<name>] [--max-distance=<n>] [--false-positive-rate=<p>] [--front-coded]" +
+                        " [--cache-size=<n>]" +
+                        " [--corpus [--memory-budget=<megabytes>]] [--threads=<n> [--unordered]]" +
+                        " <dictionaryFilename> [ file1 file2 ... ]");
             throw new IllegalStateException("Return from System.exit(), df?");
         }
 
-        // The first argument points to the file containing a tab-delimited
-        // (word/rank) dictionary
-        var dictionaryFilename = args[0];
+        // The first non-option argument points to the file containing a
+        // tab-delimited (word/rank) dictionary
+        var dictionaryFilename = args[optionCount];
 
         // Create a (possibly empty) stream of filenames to process
-        var filenames = Arrays.stream(args, 1, args.length);
+        var filenames = Arrays.stream(args, optionCount + 1, args.length);
         // Create a lazily-collected stream of lines from the input files (or the
         // operating system's standard input)
         Stream<String> inputLines = loadInputLines(filenames);
 
         try {
 
-            // Load the dictionary from the given file
-            var dictionary = loadDictionary(getLinesFrom(dictionaryFilename));
-            // Create a spelling corrector instance from the dictionary
-            var spellingCorrector = new SpellingCorrector(dictionary);
+            // Create a spelling corrector instance from the dictionary file
+            var spellingCorrector = newSpellingCorrector(dictionaryFilename, options);
 
-            // Extract & validate to suggest words onto tab-delimited standard output
-            processInputLines(
-                inputLines,
-                spellingCorrector,
-                (word, suggestions) -> word + "\t" + suggestions.stream().collect(joining(",")))
-                .forEach(System.out::println);
+            var filenameList = Arrays.asList(args).subList(optionCount + 1, args.length);
+            if (options.containsKey("threads") && !options.containsKey("corpus") && !filenameList.isEmpty()) {
+                // Read, tokenize and correct files concurrently
+                processFiles(
+                    filenameList,
+                    spellingCorrector,
+                    Integer.parseInt(options.get("threads")),
+                    !options.containsKey("unordered"),
+                    System.out::println,
+                    System.err::println);
+            } else if (options.containsKey("corpus")) {
+                // Count typos within the memory budget, then correct each once
+                var memoryBudget = Long.parseLong(options.getOrDefault("memory-budget", "64")) << 20;
+                processCorpus(inputLines, spellingCorrector, memoryBudget, System.out::println);
+            } else if (!filenameList.isEmpty()) {
+                // Scan (mapped) files for typos to suggest words onto tab-delimited standard output
+                processWords(
+                    tokenizeFiles(filenameList, spellingCorrector),
+                    spellingCorrector,
+                    (word, suggestions) -> word + "\t" + suggestions.stream().collect(joining(",")))
+                    .forEach(System.out::println);
+            } else {
+                // Extract & validate to suggest words onto tab-delimited standard output
+                processInputLines(
+                    inputLines,
+                    spellingCorrector,
+                    (word, suggestions) -> word + "\t" + suggestions.stream().collect(joining(",")))
+                    .forEach(System.out::println);
+            }
+
+            spellingCorrector.getCache().ifPresent(System.err::println);
 
         } catch (Exception e) {
             onError("Unexpected error: " + e.toString());
         }
     }
 
+    /**
+     * Load (or map) a dictionary and create a spelling corrector as selected
+     * by the command-line options.
+     *
+     * @param dictionaryFilename The name of the dictionary file
+     * @param options            The option name-to-value map
+     * @return The spelling corrector
+     */
+    static SpellingCorrector newSpellingCorrector(String dictionaryFilename, Map<String, String> options) {
+        var dictionary = openDictionary(dictionaryFilename, options);
+        var spellingCorrector = new SpellingCorrector(dictionary, engineFactory(options));
+        if (options.containsKey("cache-size")) {
+            spellingCorrector = spellingCorrector.withCache(Integer.parseInt(options.get("cache-size")));
+        }
+        return spellingCorrector;
+    }
+
+    /**
+     * Run the HTTP correction service (see {@link CorrectionServer}) until the
+     * process is terminated, at which point it stops gracefully. Options
+     * <code>--host</code> and <code>--port</code> set the listening address
+     * (<code>127.0.0.1:8080</code> by default), <code>--threads</code> the
+     * number of workers (one per processor by default),
+     * <code>--queue-size</code> the number of requests that may wait for a
+     * worker (<code>64</code> per worker by default) and
+     * <code>--grace-period</code> how many seconds pending requests are given
+     * to complete on shutdown (<code>10</code> by default). Option
+     * <code>--watch</code> reloads the dictionary whenever its file changes
+     * (see {@link #watchDictionary(SpellingCorrector, String, Map)}). Engine
+     * and cache options are as for {@link #main(String[])}.
+     *
+     * @param options            The option name-to-value map
+     * @param dictionaryFilename The name of the dictionary file
+     */
+    static void serve(Map<String, String> options, String dictionaryFilename) {
+        var threads = Integer.parseInt(
+            options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        var queueSize = Integer.parseInt(options.getOrDefault("queue-size", String.valueOf(64 * threads)));
+        var gracePeriod = Duration.ofSeconds(Long.parseLong(options.getOrDefault("grace-period", "10")));
+        var address = new InetSocketAddress(options.getOrDefault("host", "127.0.0.1"),
+                                            Integer.parseInt(options.getOrDefault("port", "8080")));
+
+        // Workers provide the parallelism, so engines run sequentially
+        var engineOptions = new HashMap<>(options);
+        engineOptions.put("threads", String.valueOf(threads));
+        var spellingCorrector = newSpellingCorrector(dictionaryFilename, engineOptions);
+        var server = new CorrectionServer(spellingCorrector, address, threads, queueSize);
+        watchDictionary(spellingCorrector, dictionaryFilename, options);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(gracePeriod)));
+        System.err.println("Listening on " + server.getAddress());
+    }
+
+    /**
+     * Given option <code>--watch</code>, reload a long-running corrector's
+     * dictionary in the background whenever its file changes (see
+     * {@link DictionaryWatcher}), reporting reloads on standard error.
+     *
+     * @param spellingCorrector  The spelling corrector
+     * @param dictionaryFilename The name of the dictionary file
+     * @param options            The option name-to-value map
+     */
+    static void watchDictionary(SpellingCorrector spellingCorrector, String dictionaryFilename,
+                                Map<String, String> options) {
+        if (options.containsKey("watch")) {
+            var watcher = new DictionaryWatcher(spellingCorrector, FileSystems.getDefault().getPath(dictionaryFilename),
+                                                path -> openDictionary(path.toString(), options),
+                                                System.err::println);
+            watcher.start();
+        }
+    }
+
+    /**
+     * Run the line-protocol daemon (see {@link CorrectionDaemon}). Without
+     * <code>--port</code>, the daemon serves a single connection on standard
+     * input and output, returning when input ends; with it, the daemon
+     * accepts TCP connections on that port of <code>--host</code>
+     * (<code>127.0.0.1</code> by default) until the process is terminated.
+     * Option <code>--threads</code> sets the number of worker threads (one per
+     * processor by default) and <code>--in-flight</code> the number of
+     * pipelined requests per connection corrected concurrently
+     * (<code>64</code> by default). Option <code>--watch</code> reloads the
+     * dictionary whenever its file changes. Engine and cache options are as
+     * for {@link #main(String[])}.
+     *
+     * @param options            The option name-to-value map
+     * @param dictionaryFilename The name of the dictionary file
+     */
+    static void daemon(Map<String, String> options, String dictionaryFilename) throws IOException {
+        var threads = Integer.parseInt(
+            options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        var maxInFlight = Integer.parseInt(options.getOrDefault("in-flight", "64"));
+
+        // Workers provide the parallelism, so engines run sequentially
+        var engineOptions = new HashMap<>(options);
+        engineOptions.put("threads", String.valueOf(threads));
+        var spellingCorrector = newSpellingCorrector(dictionaryFilename, engineOptions);
+        watchDictionary(spellingCorrector, dictionaryFilename, options);
+        var executor = Executors.newFixedThreadPool(threads, task -> {
+            var thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        });
+        var daemon = new CorrectionDaemon(spellingCorrector, executor, maxInFlight);
+
+        if (!options.containsKey("port")) {
+            daemon.serve(System.in, System.out);
+            return;
+        }
+        try (var serverSocket = new ServerSocket()) {
+            serverSocket.bind(new InetSocketAddress(options.getOrDefault("host", "127.0.0.1"),
+                                                    Integer.parseInt(options.get("port"))));
+            System.err.println("Listening on " + serverSocket.getLocalSocketAddress());
+            daemon.listen(serverSocket);
+        }
+    }
+
     /**
      * Consume a stream of textual lines extracting typos (i.e., words not present
      * in the passed <code>spellingCorrector</code>'s dictionary) and generating a
@@ -102,11 +385,59 @@ public class Main {
     static <T> Stream<T> processInputLines(Stream<String> inputLines, SpellingCorrector spellingCorrector,
                                            BiFunction<String, List<String>, T> process) {
 
-        return inputLines
-            // Split lines into space-delimited words
-            .flatMap(line -> Arrays.stream(line.split("\\s+")))
-            // Filter only strictly ascii-alphabetic words
-            .filter(SpellingCorrector::isAlphabetic)
+        return processWords(
+            inputLines
+                // Split lines into space-delimited words
+                .flatMap(line -> Arrays.stream(line.split("\\s+")))
+                // Filter only strictly ascii-alphabetic words
+                .filter(SpellingCorrector::isAlphabetic),
+            spellingCorrector,
+            process);
+    }
+
+    /**
+     * Extract the (possible) typos in a list of files as a stream of words,
+     * with the same effect as the line splitting and alphabetic filtering in
+     * {@link #processInputLines(Stream, SpellingCorrector, BiFunction)} but
+     * without decoding any lines: files are memory-mapped and scanned by the
+     * {@link Tokenizer}, and tokens are looked up in the dictionary in place.
+     * Only tokens missing from the dictionary become strings. Files are
+     * scanned one at a time, when the stream reaches them, and each file's
+     * typos are reported once, in order of first appearance.
+     *
+     * @param filenames         The names of the files to scan
+     * @param spellingCorrector The spelling corrector whose dictionary tokens
+     *                          are looked up in
+     * @return The stream of alphabetic words missing from the dictionary
+     */
+    static Stream<String> tokenizeFiles(List<String> filenames, SpellingCorrector spellingCorrector) {
+        return filenames.stream().flatMap(filename -> {
+            var typos = new LinkedHashSet<String>();
+            var lowercase = new char[64];
+            Tokenizer.tokenize(FileSystems.getDefault().getPath(filename), (text, offset, length, line, column) -> {
+                var chars = length <= lowercase.length ? lowercase : new char[length];
+                Tokenizer.toLowerCase(text, offset, length, chars);
+                if (!spellingCorrector.contains(chars, 0, length)) {
+                    typos.add(Tokenizer.toString(text, offset, length));
+                }
+            });
+            return typos.stream();
+        });
+    }
+
+    /**
+     * Generate a list of correction suggestions per distinct typo in a stream
+     * of alphabetic words, passing each typo/suggestion list to a
+     * user-provided function. Dictionary words are dropped.
+     *
+     * @param words             The stream of alphabetic words
+     * @param spellingCorrector The spelling corrector used to yield suggestions
+     * @param process           The user-supplied lambda to process typos
+     */
+    static <T> Stream<T> processWords(Stream<String> words, SpellingCorrector spellingCorrector,
+                                      BiFunction<String, List<String>, T> process) {
+
+        return words
             // Remove duplicates
             .distinct()
             // Generate suggestions for each word
@@ -122,47 +453,331 @@ public class Main {
             .map(entry -> process.apply(entry.getKey(), entry.getValue()));
     }
 
+    /**
+     * Read, tokenize and correct files concurrently on a pool of
+     * <code>threads</code> workers, with at most <code>4 * threads</code>
+     * files in flight at once.
+     * <p>
+     * Words are deduplicated globally, as in
+     * {@link #processInputLines(Stream, SpellingCorrector, BiFunction)}: each
+     * distinct word is corrected once, by the first worker to come across it,
+     * and reported once. In ordered mode results are merged back in input file
+     * order, so the output is the same as that of a sequential run. Otherwise,
+     * results are reported as soon as each file completes, with each line
+     * prefixed by its file name and a tab. A timing line per file (name,
+     * line, word and distinct word counts, and elapsed time) is passed to
+     * <code>timings</code>.
+     * </p>
+     *
+     * @param filenames         The names of the files to process
+     * @param spellingCorrector The spelling corrector used to yield suggestions
+     * @param threads           The number of worker threads
+     * @param ordered           Whether to report results in input file order
+     * @param output            The consumer of output lines
+     * @param timings           The consumer of per-file timing lines
+     */
+    static void processFiles(List<String> filenames, SpellingCorrector spellingCorrector, int threads,
+                             boolean ordered, Consumer<String> output, Consumer<String> timings) {
+        checkArgument(threads > 0);
+
+        // Each distinct word's corrections, computed by whoever claims it first
+        var corrections = new ConcurrentHashMap<String, CompletableFuture<List<String>>>();
+        // Words already reported (touched by the reporting thread only)
+        var reported = new HashSet<String>();
+
+        var executor = Executors.newFixedThreadPool(threads);
+        var completion = new ExecutorCompletionService<FileResult>(executor);
+        try {
+            var pending = new ArrayDeque<Future<FileResult>>();
+            var next = 0;
+            while (next < filenames.size() || !pending.isEmpty()) {
+                // Keep a bounded number of files in flight
+                while (next < filenames.size() && pending.size() < 4 * threads) {
+                    var filename = filenames.get(next++);
+                    Callable<FileResult> task = () -> processFile(filename, spellingCorrector, corrections);
+                    pending.add(ordered ? executor.submit(task) : completion.submit(task));
+                }
+
+                // Take the oldest file or, if unordered, whichever completes first
+                FileResult result;
+                if (ordered) {
+                    result = getResult(pending.remove());
+                } else {
+                    var future = takeCompleted(completion);
+                    pending.remove(future);
+                    result = getResult(future);
+                }
+
+                // Report the file's words not reported for an earlier file
+                for (var word : result.words) {
+                    if (reported.add(word)) {
+                        var wordCorrections = Futures.join(corrections.get(word));
+                        if (!wordCorrections.isEmpty()) {
+                            output.accept((ordered ? "" : result.filename + "\t") +
+                                              word + "\t" + String.join(",", wordCorrections));
+                        }
+                    }
+                }
+                timings.accept(String.format("%s\t%d lines\t%d words\t%d distinct\t%.1f ms",
+                                             result.filename, result.lineCount, result.wordCount,
+                                             result.words.size(), result.nanos / 1e6));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Read and tokenize a file, correcting its distinct words unless another
+     * worker already claimed them.
+     *
+     * @param filename          The name of the file to process
+     * @param spellingCorrector The spelling corrector used to yield suggestions
+     * @param corrections       The corrections of all words claimed so far
+     * @return The file's distinct words (in order of appearance) and counts
+     */
+    private static FileResult processFile(String filename, SpellingCorrector spellingCorrector,
+                                          ConcurrentHashMap<String, CompletableFuture<List<String>>> corrections) {
+        var startTime = System.nanoTime();
+
+        // Collect the file's distinct alphabetic words
+        var words = new LinkedHashSet<String>();
+        var lineCount = 0L;
+        var wordCount = 0L;
+        try (var lines = getLinesFrom(filename)) {
+            for (var iterator = lines.iterator(); iterator.hasNext(); lineCount++) {
+                for (var word : iterator.next().split("\\s+")) {
+                    if (SpellingCorrector.isAlphabetic(word)) {
+                        wordCount++;
+                        words.add(word);
+                    }
+                }
+            }
+        }
+
+        // Correct the words no other file has claimed
+        for (var word : words) {
+            var future = new CompletableFuture<List<String>>();
+            if (corrections.putIfAbsent(word, future) == null) {
+                try {
+                    future.complete(spellingCorrector.getCorrections(word).orElse(List.of()));
+                } catch (RuntimeException | Error e) {
+                    future.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+
+        return new FileResult(filename, List.copyOf(words), lineCount, wordCount, System.nanoTime() - startTime);
+    }
+
+    private static Future<FileResult> takeCompleted(ExecutorCompletionService<FileResult> completion) {
+        try {
+            return completion.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Wait for a file's result, rethrowing its failure as is.
+     *
+     * @param future The file's pending result
+     * @return The file's result
+     */
+    private static FileResult getResult(Future<FileResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Count the typos in a (possibly huge) stream of lines, then correct each
+     * distinct typo exactly once. Lines are tokenized in parallel and only
+     * alphabetic, non-dictionary tokens are counted (lowercased), in a
+     * {@link TokenCounter} that spills sorted runs to a temporary directory
+     * whenever the memory budget is exceeded. Typos having corrections are
+     * passed to the output, in alphabetical order, as tab-delimited
+     * <code>typo</code>, <code>count</code> and comma-separated suggestions.
+     *
+     * @param inputLines        The stream of lines to be parsed and validated
+     * @param spellingCorrector The spelling corrector used to yield suggestions
+     * @param memoryBudget      The estimated number of bytes typo counts may
+     *                          take before being spilled to disk
+     * @param output            The consumer of output lines
+     */
+    static void processCorpus(Stream<String> inputLines, SpellingCorrector spellingCorrector, long memoryBudget,
+                              Consumer<String> output) {
+        Path spillDirectory;
+        try {
+            spillDirectory = Files.createTempDirectory("spellbound-");
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+
+        try (var counter = new TokenCounter(memoryBudget, spillDirectory)) {
+            inputLines
+                .parallel()
+                // Split lines into space-delimited words
+                .flatMap(line -> Arrays.stream(line.split("\\s+")))
+                // Filter only strictly ascii-alphabetic words
+                .filter(SpellingCorrector::isAlphabetic)
+                // Count typos only: dictionary words needn't take any memory
+                .map(String::toLowerCase)
+                .filter(word -> !spellingCorrector.contains(word))
+                .forEach(counter::add);
+
+            // Merge counts and correct each distinct typo once
+            counter.forEachSorted((typo, count) -> {
+                var corrections = spellingCorrector.getCorrections(typo).orElse(List.of());
+                if (!corrections.isEmpty()) {
+                    output.accept(typo + "\t" + count + "\t" + String.join(",", corrections));
+                }
+            });
+        } finally {
+            try {
+                Files.deleteIfExists(spillDirectory);
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+    }
+
     /**
      * Transform a stream of filenames into a stream of lines drawn for each file in
-     * turn. Files are read in stream order. If the filename stream is empty,
+     * turn. Files are read in stream order (and, in parallel streams, split
+     * across threads by file). If the filename stream is empty,
      * fallback to the operating system's standard input.
      *
      * @param filenames The (possibly empty) list of filenames
      * @return The concatenated stream of lines
      */
     static Stream<String> loadInputLines(Stream<String> filenames) {
-        return filenames
+        var filenameList = filenames.collect(toList());
+        // On empty stream fall back to operating system's standard input
+        if (filenameList.isEmpty()) {
+            return new BufferedReader(new InputStreamReader(System.in)).lines();
+        }
+        return filenameList.stream()
             // Pass each filename to the <code>getLinesFrom</code> method so as to
-            // convert it to a stream of lines
-            .map(Main::getLinesFrom)
-            // Coalesce all input streams into one
-            .reduce(Stream::concat)
-            // On empty stream fall back to operating system's standard input
-            .orElseGet(() -> new BufferedReader(new InputStreamReader(System.in)).lines());
-    }
-
-    /**
-     * Read, parse and build a dictionary from a stream of tab-delimited lines.
-     *
-     * @param lines A stream of lines containing a word/rank pair per line
-     * @return The resulting of word-to-rank mappings
-     */
-    static Map<String, Integer> loadDictionary(Stream<String> lines) {
-        return lines
-            .map(line -> {
-                // Split tab-delimited line into fields
-                var fields = line.split("\\t", 2);
-                // First field contains word
-                var word = fields[0];
-                // Second field contains rank
-                var rank = Integer.parseInt(fields[1]);
-                // Return word/rank pair as a <code>Map.Entry<String, Integer></code>
-                return new SimpleEntry<>(word, rank);
-            })
-            // Skip invalid words or ranks
-            .filter(entry -> SpellingCorrector.isAlphabetic(entry.getKey()) && entry.getValue() > 0)
-            // Convert stream of word/rank entries into a map
-            .collect(toMap(Entry::getKey, Entry::getValue));
+            // convert it to a stream of lines. Unlike a chain of
+            // <code>Stream.concat</code>, flat-mapping opens each file only when
+            // reached (and closes it when done) and doesn't nest one stream per file
+            .flatMap(Main::getLinesFrom);
+    }
+
+    /**
+     * Open a dictionary file: compiled images are memory-mapped while
+     * tab-delimited text files are parsed (in parallel) into a
+     * {@link RankTable}. Malformed lines are reported on standard error.
+     *
+     * @param filename The name of the dictionary file
+     * @return The dictionary
+     */
+    static Dictionary openDictionary(String filename) {
+        var path = FileSystems.getDefault().getPath(filename);
+        if (MappedDictionary.isImage(path)) {
+            return MappedDictionary.open(path);
+        }
+        return DictionaryLoader.load(path, System.err::println);
+    }
+
+    /**
+     * Open a dictionary file as selected by the command-line options: given
+     * option <code>--front-coded</code>, the dictionary is compressed into a
+     * {@link FrontCodedDictionary}.
+     *
+     * @param filename The name of the dictionary file
+     * @param options  The option name-to-value map
+     * @return The dictionary
+     */
+    static Dictionary openDictionary(String filename, Map<String, String> options) {
+        var dictionary = openDictionary(filename);
+        return options.containsKey("front-coded") ? FrontCodedDictionary.of(dictionary) : dictionary;
+    }
+
+    /**
+     * Compile a tab-delimited dictionary file into a binary image.
+     *
+     * @param dictionaryFilename The name of the tab-delimited dictionary file
+     * @param imageFilename      The name of the image file to write
+     */
+    static void compile(String dictionaryFilename, String imageFilename) {
+        var rankTable = DictionaryLoader.load(FileSystems.getDefault().getPath(dictionaryFilename),
+                                              System.err::println);
+        MappedDictionary.write(rankTable, FileSystems.getDefault().getPath(imageFilename));
+    }
+
+    /**
+     * Build the correction engine factory selected by the command-line options.
+     *
+     * @param options The option name-to-value map
+     * @return The function building the selected engine from a dictionary
+     */
+    static Function<Dictionary, CorrectionEngine> engineFactory(Map<String, String> options) {
+        var engineType = EngineType.forName(options.getOrDefault("engine", "brute-force"));
+        if (options.containsKey("max-distance")) {
+            checkArgument(engineType == EngineType.BK_TREE, "Only the bk-tree engine supports --max-distance");
+            var maxDistance = Integer.parseInt(options.get("max-distance"));
+            return dictionary -> new BkTreeEngine(dictionary, maxDistance);
+        }
+        var falsePositiveRate = Double.parseDouble(
+            options.getOrDefault("false-positive-rate", String.valueOf(BloomFilter.DEFAULT_FALSE_POSITIVE_RATE)));
+        // File workers provide the parallelism: brute-force calls mustn't fan out further
+        var parallel = !options.containsKey("threads");
+        switch (engineType) {
+            case BRUTE_FORCE:
+                return dictionary -> new BruteForceEngine(dictionary, falsePositiveRate, parallel);
+            case SCRATCH_BUFFER:
+                return dictionary -> new ScratchBufferEngine(dictionary, falsePositiveRate);
+            default:
+                checkArgument(!options.containsKey("false-positive-rate"),
+                              "Only brute-force engines support --false-positive-rate");
+        }
+        return engineType.factory();
+    }
+
+    /**
+     * Parse <code>--name=value</code> command-line options into a map. Options
+     * given as a bare <code>--name</code> map to <code>"true"</code>.
+     *
+     * @param options The stream of option arguments
+     * @return The option name-to-value map
+     */
+    static Map<String, String> parseOptions(Stream<String> options) {
+        return options
+            // Drop leading dashes and split name from value
+            .map(option -> option.substring(2).split("=", 2))
+            .collect(toMap(fields -> fields[0], fields -> fields.length > 1 ? fields[1] : "true"));
+    }
+
+    /**
+     * Outcome of processing one file concurrently.
+     */
+    private static final class FileResult {
+
+        final String filename;
+        final List<String> words;
+        final long lineCount;
+        final long wordCount;
+        final long nanos;
+
+        FileResult(String filename, List<String> words, long lineCount, long wordCount, long nanos) {
+            this.filename = filename;
+            this.words = words;
+            this.lineCount = lineCount;
+            this.wordCount = wordCount;
+            this.nanos = nanos;
+        }
     }
 
     /**
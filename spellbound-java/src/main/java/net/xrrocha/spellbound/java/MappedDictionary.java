@@ -0,0 +1,264 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Read-only {@link Dictionary} served straight from a memory-mapped, compiled
+ * dictionary image.
+ * <p>
+ * The image is a {@link RankTable} laid out on disk: a header followed by the
+ * word offsets, the ranks, the prebuilt hash slots and the word arena, all
+ * little-endian. Opening an image maps it and validates its header, nothing
+ * else: there is no parsing and no per-word heap, so opening time doesn't grow
+ * with dictionary size and pages are loaded (and shared between processes) by
+ * the operating system on demand.
+ * </p>
+ * <pre>
+ * int magic ("SPBD"), int version, int wordCount, int arenaLength, int slotCount
+ * int[wordCount + 1] offsets
+ * int[wordCount]     ranks
+ * int[slotCount]     slots (word id + 1, or 0 if empty)
+ * byte[arenaLength]  arena
+ * </pre>
+ */
+public final class MappedDictionary implements Dictionary {
+
+    /**
+     * Leading bytes of every image (<code>SPBD</code>).
+     */
+    static final int MAGIC = 0x53504244;
+
+    /**
+     * Current image format version.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Size of the image header in bytes.
+     */
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * Start of each word in the arena.
+     */
+    private final IntBuffer offsets;
+
+    /**
+     * Rank of each word.
+     */
+    private final IntBuffer ranks;
+
+    /**
+     * Hash slots holding <code>id + 1</code> (or <code>0</code> if empty).
+     */
+    private final IntBuffer slots;
+
+    /**
+     * All words, back to back.
+     */
+    private final ByteBuffer arena;
+
+    /**
+     * Number of words.
+     */
+    private final int size;
+
+    /**
+     * Slot mask (slot count is a power of two).
+     */
+    private final int mask;
+
+    /**
+     * Constructor. Carves the sections out of a mapped image.
+     *
+     * @param image The mapped image
+     */
+    private MappedDictionary(ByteBuffer image) {
+        image.order(ByteOrder.LITTLE_ENDIAN);
+        checkArgument(image.capacity() >= HEADER_SIZE && image.getInt(0) == MAGIC, "Not a dictionary image");
+        checkArgument(image.getInt(4) == FORMAT_VERSION, "Unsupported image version: %s", image.getInt(4));
+        size = image.getInt(8);
+        var arenaLength = image.getInt(12);
+        var slotCount = image.getInt(16);
+        checkArgument(size >= 0 && arenaLength >= 0 && Integer.bitCount(slotCount) == 1 && slotCount > size,
+                      "Corrupt image header");
+        var arenaStart = HEADER_SIZE + Integer.BYTES * (2L * size + 1 + slotCount);
+        checkArgument(arenaStart + arenaLength == image.capacity(), "Truncated or corrupt image");
+
+        offsets = section(image, HEADER_SIZE, size + 1).asIntBuffer();
+        ranks = section(image, HEADER_SIZE + Integer.BYTES * (size + 1), size).asIntBuffer();
+        slots = section(image, HEADER_SIZE + Integer.BYTES * (2 * size + 1), slotCount).asIntBuffer();
+        arena = image.duplicate().position((int) arenaStart).slice();
+        mask = slotCount - 1;
+    }
+
+    /**
+     * Map a compiled dictionary image.
+     *
+     * @param path The image file
+     * @return The dictionary served from the image
+     * @throws IllegalArgumentException if the file isn't a valid image
+     */
+    public static MappedDictionary open(Path path) {
+        checkNotNull(path);
+        try (var channel = FileChannel.open(path, READ)) {
+            checkArgument(channel.size() <= Integer.MAX_VALUE, "Image too large: %s", path);
+            // The mapping outlives the channel
+            return new MappedDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tell whether a file is a dictionary image (judging by its leading bytes).
+     *
+     * @param path The file to check
+     * @return Whether the file starts like an image
+     */
+    public static boolean isImage(Path path) {
+        checkNotNull(path);
+        try (var channel = FileChannel.open(path, READ)) {
+            var header = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            return channel.read(header) == Integer.BYTES && header.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compile a rank table into an image file. The image is written next to
+     * its destination and then moved into place, so readers never observe a
+     * partially written image.
+     *
+     * @param rankTable The rank table to compile
+     * @param path      The image file
+     */
+    public static void write(RankTable rankTable, Path path) {
+        checkNotNull(rankTable);
+        checkNotNull(path);
+        var offsets = rankTable.offsets();
+        var ranks = rankTable.ranks();
+        var slots = rankTable.slots();
+        var arena = rankTable.arena();
+
+        var image = ByteBuffer
+            .allocate(HEADER_SIZE + Integer.BYTES * (offsets.length + ranks.length + slots.length) + arena.length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        image.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(ranks.length).putInt(arena.length).putInt(slots.length);
+        image.asIntBuffer().put(offsets).put(ranks).put(slots);
+        image.position(image.position() + Integer.BYTES * (offsets.length + ranks.length + slots.length));
+        image.put(arena).flip();
+
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (var channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                while (image.hasRemaining()) {
+                    channel.write(image);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int rank(CharSequence word) {
+        var hash = word instanceof String ? word.hashCode() : RankTable.hash(word);
+        var length = word.length();
+        for (int slot = RankTable.spread(hash) & mask; slots.get(slot) != 0; slot = (slot + 1) & mask) {
+            var id = slots.get(slot) - 1;
+            var start = offsets.get(id);
+            if (offsets.get(id + 1) - start == length && matches(start, word)) {
+                return ranks.get(id);
+            }
+        }
+        return ABSENT;
+    }
+
+    @Override
+    public int rank(char[] chars, int offset, int length) {
+        var hash = RankTable.hash(chars, offset, length);
+        for (int slot = RankTable.spread(hash) & mask; slots.get(slot) != 0; slot = (slot + 1) & mask) {
+            var id = slots.get(slot) - 1;
+            var start = offsets.get(id);
+            if (offsets.get(id + 1) - start == length && matches(start, chars, offset, length)) {
+                return ranks.get(id);
+            }
+        }
+        return ABSENT;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(ObjIntConsumer<String> action) {
+        // Words are contiguous: read them sequentially off a private cursor
+        var cursor = arena.duplicate();
+        var bytes = new byte[64];
+        for (int id = 0; id < size; id++) {
+            var length = offsets.get(id + 1) - offsets.get(id);
+            if (bytes.length < length) {
+                bytes = new byte[length * 2];
+            }
+            cursor.get(bytes, 0, length);
+            action.accept(new String(bytes, 0, length, StandardCharsets.US_ASCII), ranks.get(id));
+        }
+    }
+
+    private boolean matches(int start, CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (arena.get(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(int start, char[] chars, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (arena.get(start + i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Slice a little-endian int section out of the image.
+     *
+     * @param image  The mapped image
+     * @param start  The section's byte offset
+     * @param length The section's length in ints
+     * @return The section
+     */
+    private static ByteBuffer section(ByteBuffer image, int start, int length) {
+        return image.duplicate()
+            .position(start)
+            .limit(start + Integer.BYTES * length)
+            .slice()
+            .order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
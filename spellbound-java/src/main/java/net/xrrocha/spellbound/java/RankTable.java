@@ -0,0 +1,500 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable, purpose-built word-to-rank {@link Dictionary}.
+ * <p>
+ * Instead of a <code>String</code>, its <code>byte[]</code>, a boxed
+ * <code>Integer</code> and a map node per entry, all (ascii) words are packed
+ * back to back into a single byte arena delimited by an offset array, ranks
+ * live in an <code>int[]</code> parallel to the offsets, and lookups go through
+ * an open-addressing (linear probing) table of word ids. Probing compares
+ * the arena bytes against the probed characters directly, so words can be
+ * looked up from a <code>char[]</code> slice without creating a string.
+ * </p>
+ * <p>
+ * Words are hashed with the same polynomial as <code>String.hashCode()</code>
+ * (which ascii words share with their bytes), so string lookups reuse the
+ * string's cached hash.
+ * </p>
+ */
+public final class RankTable implements Dictionary {
+
+    /**
+     * All words, back to back.
+     */
+    private final byte[] arena;
+
+    /**
+     * Start of each word in the arena; word <code>i</code> ends where word
+     * <code>i + 1</code> starts.
+     */
+    private final int[] offsets;
+
+    /**
+     * Rank of each word.
+     */
+    private final int[] ranks;
+
+    /**
+     * Hash slots holding <code>id + 1</code> (or <code>0</code> if empty).
+     */
+    private final int[] slots;
+
+    /**
+     * Slot mask (slot count is a power of two).
+     */
+    private final int mask;
+
+    /**
+     * Constructor
+     *
+     * @param arena   The word arena
+     * @param offsets The word offsets (one more than the number of words)
+     * @param ranks   The word ranks
+     * @param slots   The hash slots over the words
+     */
+    private RankTable(byte[] arena, int[] offsets, int[] ranks, int[] slots) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.ranks = ranks;
+        this.slots = slots;
+        this.mask = slots.length - 1;
+    }
+
+    /**
+     * Build a rank table from a word-to-rank map.
+     *
+     * @param dictionary The word-to-rank map
+     * @return The equivalent rank table
+     */
+    public static RankTable of(Map<String, Integer> dictionary) {
+        checkNotNull(dictionary);
+        var builder = builder();
+        dictionary.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Return a builder to add words to one at a time.
+     *
+     * @return The new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public int rank(CharSequence word) {
+        var id = id(word);
+        return id == ABSENT ? ABSENT : ranks[id];
+    }
+
+    @Override
+    public int rank(char[] chars, int offset, int length) {
+        var id = id(chars, offset, length);
+        return id == ABSENT ? ABSENT : ranks[id];
+    }
+
+    /**
+     * Locate a word.
+     *
+     * @param word The word to look up
+     * @return The word's id or {@link #ABSENT} if not in dictionary
+     */
+    int id(CharSequence word) {
+        // Strings cache their hash, which matches ours for ascii words
+        var hash = word instanceof String ? word.hashCode() : hash(word);
+        var length = word.length();
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            var id = slots[slot] - 1;
+            var start = offsets[id];
+            if (offsets[id + 1] - start == length && matches(start, word)) {
+                return id;
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Locate a word given as a character slice.
+     *
+     * @param chars  The buffer holding the word
+     * @param offset The word's offset in the buffer
+     * @param length The word's length
+     * @return The word's id or {@link #ABSENT} if not in dictionary
+     */
+    int id(char[] chars, int offset, int length) {
+        return id(chars, offset, length, hash(chars, offset, length));
+    }
+
+    /**
+     * Locate a word given as a character slice whose hash is already known.
+     *
+     * @param chars  The buffer holding the word
+     * @param offset The word's offset in the buffer
+     * @param length The word's length
+     * @param hash   The word's polynomial hash (see {@link #hash(char[], int, int)})
+     * @return The word's id or {@link #ABSENT} if not in dictionary
+     */
+    int id(char[] chars, int offset, int length, int hash) {
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            var id = slots[slot] - 1;
+            var start = offsets[id];
+            if (offsets[id + 1] - start == length && matches(start, chars, offset, length)) {
+                return id;
+            }
+        }
+        return ABSENT;
+    }
+
+    @Override
+    public int size() {
+        return ranks.length;
+    }
+
+    @Override
+    public void forEach(ObjIntConsumer<String> action) {
+        for (int id = 0; id < ranks.length; id++) {
+            action.accept(word(id), ranks[id]);
+        }
+    }
+
+    /**
+     * Return the number of bytes taken by this table's arrays (object headers
+     * included).
+     *
+     * @return The table's heap footprint in bytes
+     */
+    public long footprintBytes() {
+        // 16 bytes per array header, plus the object itself
+        return 16 + 4 * 16 + arena.length + 4L * (offsets.length + ranks.length + slots.length);
+    }
+
+    /**
+     * Expose the word arena (for compilation into an image).
+     *
+     * @return The word arena
+     */
+    byte[] arena() {
+        return arena;
+    }
+
+    /**
+     * Expose the word offsets (for compilation into an image).
+     *
+     * @return The word offsets
+     */
+    int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * Expose the word ranks (for compilation into an image).
+     *
+     * @return The word ranks
+     */
+    int[] ranks() {
+        return ranks;
+    }
+
+    /**
+     * Expose the hash slots (for compilation into an image).
+     *
+     * @return The hash slots
+     */
+    int[] slots() {
+        return slots;
+    }
+
+    /**
+     * Return the rank of a word given its id.
+     *
+     * @param id The word id
+     * @return The word's rank
+     */
+    int rankAt(int id) {
+        return ranks[id];
+    }
+
+    /**
+     * Materialize a word given its id.
+     *
+     * @param id The word id
+     * @return The word
+     */
+    String word(int id) {
+        return new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.US_ASCII);
+    }
+
+    private boolean matches(int start, CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (arena[start + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(int start, char[] chars, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (arena[start + i] != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Build the hash slots over a set of words, leaving out (and reporting)
+     * any word already present.
+     *
+     * @param arena       The word arena
+     * @param offsets     The word offsets
+     * @param size        The number of words
+     * @param onDuplicate The consumer of the ids of repeated words
+     * @return The hash slots
+     */
+    private static int[] buildSlots(byte[] arena, int[] offsets, int size, IntConsumer onDuplicate) {
+        // Keep the load factor at or below 1/2
+        var slotCount = Integer.highestOneBit(Math.max(2, size) * 4 - 1);
+        var slots = new int[slotCount];
+        var mask = slotCount - 1;
+        for (int id = 0; id < size; id++) {
+            var start = offsets[id];
+            var length = offsets[id + 1] - start;
+            var slot = spread(hash(arena, start, length)) & mask;
+            while (slots[slot] != 0 && !matches(arena, offsets, slots[slot] - 1, start, length)) {
+                slot = (slot + 1) & mask;
+            }
+            if (slots[slot] == 0) {
+                slots[slot] = id + 1;
+            } else {
+                onDuplicate.accept(id);
+            }
+        }
+        return slots;
+    }
+
+    private static boolean matches(byte[] arena, int[] offsets, int id, int start, int length) {
+        var idStart = offsets[id];
+        return offsets[id + 1] - idStart == length &&
+            Arrays.equals(arena, idStart, idStart + length, arena, start, start + length);
+    }
+
+    /**
+     * Polynomial hash of a character sequence (same as
+     * <code>String.hashCode()</code>).
+     *
+     * @param word The word to hash
+     * @return The word's hash
+     */
+    static int hash(CharSequence word) {
+        var hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            hash = 31 * hash + word.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Polynomial hash of a character slice.
+     *
+     * @param chars  The buffer holding the word
+     * @param offset The word's offset in the buffer
+     * @param length The word's length
+     * @return The word's hash
+     */
+    static int hash(char[] chars, int offset, int length) {
+        var hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Polynomial hash of an ascii byte slice.
+     *
+     * @param bytes  The buffer holding the word
+     * @param offset The word's offset in the buffer
+     * @param length The word's length
+     * @return The word's hash
+     */
+    static int hash(byte[] bytes, int offset, int length) {
+        var hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Spread a polynomial hash, whose low bits are poorly mixed, over all bits
+     * (Murmur3 finalizer).
+     *
+     * @param hash The hash to spread
+     * @return The spread hash
+     */
+    static int spread(int hash) {
+        hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+        hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Accumulates words and ranks into growable arrays and builds the table.
+     */
+    public static final class Builder {
+
+        private byte[] arena = new byte[1024];
+        private int[] offsets = new int[128];
+        private int[] ranks = new int[128];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Add a word and its rank.
+         *
+         * @param word The (ascii) word to add
+         * @param rank The word's (non-negative) rank
+         * @return This builder
+         */
+        public Builder add(CharSequence word, int rank) {
+            checkNotNull(word);
+            var length = word.length();
+            for (int i = 0; i < length; i++) {
+                checkArgument(word.charAt(i) < 128, "Not an ascii word: %s", word);
+            }
+            var start = reserve(length, rank);
+            for (int i = 0; i < length; i++) {
+                arena[start + i] = (byte) word.charAt(i);
+            }
+            return this;
+        }
+
+        /**
+         * Add a word given as an ascii byte slice, and its rank.
+         *
+         * @param bytes  The buffer holding the word
+         * @param offset The word's offset in the buffer
+         * @param length The word's length
+         * @param rank   The word's (non-negative) rank
+         * @return This builder
+         */
+        public Builder add(byte[] bytes, int offset, int length, int rank) {
+            for (int i = 0; i < length; i++) {
+                checkArgument(bytes[offset + i] >= 0, "Not an ascii word");
+            }
+            var start = reserve(length, rank);
+            System.arraycopy(bytes, offset, arena, start, length);
+            return this;
+        }
+
+        /**
+         * Add all words, and their ranks, from another builder.
+         *
+         * @param other The builder whose words are to be added
+         * @return This builder
+         */
+        public Builder addAll(Builder other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.arena, other.offsets[i], other.offsets[i + 1] - other.offsets[i], other.ranks[i]);
+            }
+            return this;
+        }
+
+        /**
+         * Return the number of words added so far.
+         *
+         * @return The number of words
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Build the rank table.
+         *
+         * @return The new, immutable rank table
+         * @throws IllegalArgumentException if a word was added more than once
+         */
+        public RankTable build() {
+            return build(id -> {
+                throw new IllegalArgumentException("Duplicate word: " +
+                    new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.US_ASCII));
+            });
+        }
+
+        /**
+         * Build the rank table, keeping only the first occurrence of repeated
+         * words.
+         *
+         * @param onDuplicate The consumer of the ids (in order of addition) of
+         *                    the words left out
+         * @return The new, immutable rank table
+         */
+        public RankTable build(IntConsumer onDuplicate) {
+            checkNotNull(onDuplicate);
+            var duplicates = new BitSet();
+            var slots = buildSlots(arena, offsets, size, id -> {
+                duplicates.set(id);
+                onDuplicate.accept(id);
+            });
+            if (!duplicates.isEmpty()) {
+                // Rare: compact the survivors and rehash them
+                var keep = 0;
+                for (int id = 0; id < size; id++) {
+                    if (!duplicates.get(id)) {
+                        var start = offsets[id];
+                        var length = offsets[id + 1] - start;
+                        System.arraycopy(arena, start, arena, offsets[keep], length);
+                        ranks[keep] = ranks[id];
+                        offsets[keep + 1] = offsets[keep] + length;
+                        keep++;
+                    }
+                }
+                size = keep;
+                slots = buildSlots(arena, offsets, size, id -> {
+                });
+            }
+            return new RankTable(
+                Arrays.copyOf(arena, offsets[size]),
+                Arrays.copyOf(offsets, size + 1),
+                Arrays.copyOf(ranks, size),
+                slots);
+        }
+
+        /**
+         * Make room for a new word, recording its rank and end offset.
+         *
+         * @return The start offset of the new word in the arena
+         */
+        private int reserve(int length, int rank) {
+            checkArgument(length > 0, "Empty word");
+            checkArgument(rank >= 0, "Negative rank: %s", rank);
+            var start = offsets[size];
+            if (start + length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, start + length));
+            }
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                ranks = Arrays.copyOf(ranks, offsets.length);
+            }
+            ranks[size] = rank;
+            offsets[++size] = start + length;
+            return start;
+        }
+    }
+}
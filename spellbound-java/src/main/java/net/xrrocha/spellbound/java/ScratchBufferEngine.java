@@ -0,0 +1,498 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free rendition of Norvig's brute-force engine.
+ * <p>
+ * The same deletes, transposes, replaces and inserts generated by
+ * {@link SpellingCorrector#edits1(String)} are produced by mutating a reusable,
+ * per-thread <code>char[]</code> buffer in place (one buffer per edit level) and
+ * each candidate is probed against a {@link RankTable} of the lowercase
+ * dictionary words directly from the buffer. Each candidate's hash is derived
+ * in constant time from the prefix hashes of the word it's edited from, so a
+ * candidate costs the same whatever its length until it reaches the table,
+ * where it's verified against the stored word bytes. No <code>WordSplit</code>,
+ * substring or candidate <code>String</code> is ever created: confirmed hits
+ * are recorded as word ids and only materialized once deduplicated. A
+ * {@link BloomFilter} in front of the table turns away most non-word
+ * candidates after touching a single cache line.
+ * </p>
+ * <p>
+ * Unless disabled, final-level replaces and inserts only try the letters a
+ * {@link TrigramTable} of the dictionary allows at their position, skipping
+ * candidates holding a letter trigram no word has. Intermediate (first of
+ * two) edits are never pruned: their trigrams may be undone by the second
+ * edit.
+ * </p>
+ * <p>
+ * The stream-based methods in {@link SpellingCorrector} remain as the reference
+ * implementation this engine is tested against.
+ * </p>
+ */
+public class ScratchBufferEngine implements CorrectionEngine {
+
+    /**
+     * Rank table over the (lowercase) dictionary words.
+     */
+    private final RankTable index;
+
+    /**
+     * Prefilter rejecting most non-word candidates before they reach the
+     * index (or <code>null</code> if disabled).
+     */
+    private final BloomFilter filter;
+
+    /**
+     * Trigrams of the dictionary words pruning final-level candidates (or
+     * <code>null</code> if disabled).
+     */
+    private final TrigramTable trigrams;
+
+    /**
+     * Per-thread scratch buffers.
+     */
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Constructor using the default prefilter false positive rate.
+     *
+     * @param dictionary The word-to-rank dictionary to draw valid words from.
+     */
+    public ScratchBufferEngine(Dictionary dictionary) {
+        this(dictionary, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Constructor. Builds the probe index and its prefilter from the dictionary.
+     *
+     * @param dictionary        The word-to-rank dictionary to draw valid words from.
+     * @param falsePositiveRate The prefilter's false positive rate, in (0, 1];
+     *                          <code>1</code> disables prefiltering
+     */
+    public ScratchBufferEngine(Dictionary dictionary, double falsePositiveRate) {
+        this(dictionary, falsePositiveRate, true);
+    }
+
+    /**
+     * Constructor. Builds the probe index, its prefilter and (if pruning) the
+     * trigram table from the dictionary.
+     *
+     * @param dictionary        The word-to-rank dictionary to draw valid words from.
+     * @param falsePositiveRate The prefilter's false positive rate, in (0, 1];
+     *                          <code>1</code> disables prefiltering
+     * @param pruning           Whether final-level candidates creating a
+     *                          trigram absent from every word are skipped
+     */
+    public ScratchBufferEngine(Dictionary dictionary, double falsePositiveRate, boolean pruning) {
+        checkNotNull(dictionary);
+        checkArgument(!(dictionary instanceof ConcurrentDictionary),
+                      "%s indexes a snapshot of the words, which would go stale", getClass().getSimpleName());
+        checkArgument(falsePositiveRate > 0 && falsePositiveRate <= 1);
+
+        // Only lowercase words are reachable from a normalized typo
+        var builder = RankTable.builder();
+        dictionary.forEach((word, rank) -> {
+            if (EditDistance.isLowercase(word)) {
+                builder.add(word, rank);
+            }
+        });
+        index = builder.build();
+
+        if (falsePositiveRate < 1) {
+            filter = new BloomFilter(index.size(), falsePositiveRate);
+            index.forEach((word, rank) -> filter.add(word.hashCode()));
+        } else {
+            filter = null;
+        }
+
+        trigrams = pruning ? TrigramTable.of(index) : null;
+    }
+
+    @Override
+    public void collect(String typo, int distance, SuggestionSink sink) {
+        checkArgument(distance > 0 && distance <= maxDistance());
+
+        var scratch = this.scratch.get();
+        scratch.reset(typo);
+        generate(scratch.typo, typo.length(), distance, scratch, scratch.sink);
+        passHits(typo, distance, scratch, sink);
+    }
+
+    /**
+     * Search a tier within a budget (distance 1 is searched completely, as
+     * with any engine). Before each edit is expanded into the final-level
+     * candidates, these are spent against the budget; once it runs out, the
+     * remaining expansions are skipped and the words found so far are passed
+     * on.
+     *
+     * @param typo     A normalized (lowercase, alphabetic) word
+     * @param distance The edit distance, between 1 and {@link #maxDistance()}
+     * @param sink     The consumer of the words found
+     * @param budget   The budget bounding the search
+     * @return Whether the tier was searched completely
+     */
+    @Override
+    public boolean collect(String typo, int distance, SuggestionSink sink, CorrectionBudget budget) {
+        checkArgument(distance > 0 && distance <= maxDistance());
+        checkNotNull(budget);
+        if (distance == 1) {
+            collect(typo, distance, sink);
+            return true;
+        }
+
+        var scratch = this.scratch.get();
+        scratch.reset(typo);
+        scratch.budget = budget;
+        try {
+            generate(scratch.typo, typo.length(), distance, scratch, scratch.sink);
+        } finally {
+            scratch.budget = null;
+        }
+        passHits(typo, distance, scratch, sink);
+        return !scratch.skipped;
+    }
+
+    /**
+     * Pass the distinct words hit at the exact distance to a sink.
+     *
+     * @param typo     The typo
+     * @param distance The edit distance searched
+     * @param scratch  The per-thread scratch area holding the hits
+     * @param sink     The consumer of the words found
+     */
+    private void passHits(String typo, int distance, Scratch scratch, SuggestionSink sink) {
+        var trace = CorrectionTrace.current();
+        if (trace != null) {
+            trace.add(scratch.candidateCount, scratch.probeCount, scratch.hitCount);
+        }
+
+        // Only now are (distinct) hits materialized. Two edits also reach
+        // words one edit away: keep the exact distance only
+        var hitCount = scratch.distinctHits();
+        for (int i = 0; i < hitCount; i++) {
+            var id = scratch.hitIds[i];
+            var word = index.word(id);
+            if (EditDistance.distance(typo, word, distance) == distance) {
+                sink.accept(word, index.rankAt(id));
+            }
+        }
+    }
+
+    /**
+     * Generate, in place, all candidates one edit away from a source word
+     * fragment, recursing into the next level's buffer while
+     * <code>levels</code> remain. Candidates are generated in the same order as
+     * {@link SpellingCorrector#edits1(String)}: deletes, transposes, replaces
+     * and inserts (less those pruned by the trigram table, if any).
+     *
+     * @param source  The buffer holding the word to edit
+     * @param length  The length of the word to edit
+     * @param levels  The number of edits still to apply
+     * @param scratch The per-thread scratch area providing level buffers
+     * @param sink    The consumer of final-level candidates
+     */
+    static void generate(char[] source, int length, int levels, Scratch scratch, CandidateSink sink) {
+        var target = scratch.buffer(levels, length + 1);
+
+        // Candidate hashes are the source's hash adjusted for the edit: with
+        // prefix hashes p and powers w of 31, deleting position i leaves
+        // p[i] * w[n - 1 - i] + (hash - p[i + 1] * w[n - 1 - i]), and so on
+        var prefixes = scratch.prefixHashes(levels, source, length);
+        var powers = scratch.powers;
+        var hash = prefixes[length];
+
+        // Deletes: start by deleting the first character, then slide the gap
+        if (length > 0) {
+            System.arraycopy(source, 1, target, 0, length - 1);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    target[i - 1] = source[i - 1];
+                }
+                var weight = powers[length - 1 - i];
+                emit(target, length - 1, (prefixes[i] - prefixes[i + 1]) * weight + hash, levels, scratch, sink);
+            }
+        }
+
+        // Transposes: swap each adjacent pair, then swap back
+        System.arraycopy(source, 0, target, 0, length);
+        for (int i = 0; i < length - 1; i++) {
+            swap(target, i, i + 1);
+            var weight = powers[length - 1 - i] - powers[length - 2 - i];
+            emit(target, length, hash + (source[i + 1] - source[i]) * weight, levels, scratch, sink);
+            swap(target, i, i + 1);
+        }
+
+        // Replaces: try every (allowed) letter at each position, then restore it
+        for (int i = 0; i < length; i++) {
+            var weight = powers[length - 1 - i];
+            var base = hash - source[i] * weight;
+            for (var letters = scratch.letters(target, length, i, levels); letters != 0; letters &= letters - 1) {
+                var letter = (char) ('a' + Integer.numberOfTrailingZeros(letters));
+                target[i] = letter;
+                emit(target, length, base + letter * weight, levels, scratch, sink);
+            }
+            target[i] = source[i];
+        }
+
+        // Inserts: start by inserting before the first character, then slide
+        // the inserted slot rightwards
+        System.arraycopy(source, 0, target, 1, length);
+        for (int i = 0; i <= length; i++) {
+            if (i > 0) {
+                target[i - 1] = source[i - 1];
+            }
+            var weight = powers[length - i];
+            var base = prefixes[i] * (powers[length - i + 1] - weight) + hash;
+            for (var letters = scratch.letters(target, length + 1, i, levels); letters != 0;
+                 letters &= letters - 1) {
+                var letter = (char) ('a' + Integer.numberOfTrailingZeros(letters));
+                target[i] = letter;
+                emit(target, length + 1, base + letter * weight, levels, scratch, sink);
+            }
+        }
+    }
+
+    /**
+     * Pass a candidate to the sink if on the final level or else apply the
+     * remaining edits to it.
+     *
+     * @param candidate The buffer holding the candidate
+     * @param length    The candidate's length
+     * @param hash      The candidate's polynomial hash (see {@link RankTable#hash(char[], int, int)})
+     * @param levels    The number of edits still to apply, including this one
+     * @param scratch   The per-thread scratch area providing level buffers
+     * @param sink      The consumer of final-level candidates
+     */
+    private static void emit(char[] candidate, int length, int hash, int levels, Scratch scratch,
+                             CandidateSink sink) {
+        if (levels == 1) {
+            sink.accept(candidate, length, hash);
+        } else if (levels == 2 && scratch.budget != null &&
+                       !scratch.budget.spend(CorrectionBudget.edits1Count(length))) {
+            // Out of budget: skip the expansion into final-level candidates
+            scratch.skipped = true;
+        } else {
+            generate(candidate, length, levels - 1, scratch, sink);
+        }
+    }
+
+    /**
+     * Return the first powers of 31.
+     *
+     * @param count The number of powers
+     * @return The powers, from <code>31<sup>0</sup></code>
+     */
+    private static int[] powers(int count) {
+        var powers = new int[count];
+        powers[0] = 1;
+        for (int i = 1; i < count; i++) {
+            powers[i] = 31 * powers[i - 1];
+        }
+        return powers;
+    }
+
+    private static void swap(char[] chars, int i, int j) {
+        var c = chars[i];
+        chars[i] = chars[j];
+        chars[j] = c;
+    }
+
+    /**
+     * Consumer of candidates living in a (transient) scratch buffer.
+     */
+    @FunctionalInterface
+    interface CandidateSink {
+
+        /**
+         * Accept a candidate. The buffer is reused as soon as this method returns.
+         *
+         * @param chars  The buffer holding the candidate
+         * @param length The candidate's length
+         * @param hash   The candidate's polynomial hash (see
+         *               {@link RankTable#hash(char[], int, int)})
+         */
+        void accept(char[] chars, int length, int hash);
+    }
+
+    /**
+     * Per-thread scratch area: the typo, one buffer per edit level and the ids of
+     * the dictionary words hit so far.
+     */
+    final class Scratch {
+
+        /**
+         * The typo being corrected.
+         */
+        char[] typo = new char[32];
+
+        /**
+         * Sink probing candidates against the dictionary (kept so as not to
+         * allocate a method reference per call).
+         */
+        final CandidateSink sink = this::probe;
+
+        /**
+         * Candidate buffers indexed by remaining edit levels.
+         */
+        private char[][] buffers = new char[3][32];
+
+        /**
+         * Prefix hashes of each level's source word, indexed by remaining edit
+         * levels: element <code>i</code> hashes the first <code>i</code>
+         * characters.
+         */
+        private int[][] prefixes = new int[3][33];
+
+        /**
+         * Powers of 31 (the hash multiplier), as far as the longest candidate
+         * needs.
+         */
+        private int[] powers = powers(34);
+
+        /**
+         * Ids of the dictionary words hit (possibly repeated).
+         */
+        int[] hitIds = new int[32];
+
+        /**
+         * Number of hits recorded.
+         */
+        private int hitCount;
+
+        /**
+         * The budget bounding the current search (or <code>null</code> if
+         * unbounded).
+         */
+        private CorrectionBudget budget;
+
+        /**
+         * Whether expansions were skipped for lack of budget.
+         */
+        private boolean skipped;
+
+        /**
+         * Number of final-level candidates generated (plain counters are
+         * cheaper than checking whether anybody traces them).
+         */
+        private long candidateCount;
+
+        /**
+         * Number of candidates probed against the index.
+         */
+        private long probeCount;
+
+        /**
+         * Prepare for a new typo.
+         *
+         * @param word The typo to be corrected
+         */
+        void reset(String word) {
+            if (typo.length < word.length()) {
+                typo = new char[word.length() * 2];
+            }
+            word.getChars(0, word.length(), typo, 0);
+            hitCount = 0;
+            candidateCount = 0;
+            probeCount = 0;
+            skipped = false;
+        }
+
+        /**
+         * Return the buffer for a given level, large enough for a candidate of
+         * the given length.
+         *
+         * @param level  The number of edits remaining at the level
+         * @param length The length of the largest candidate to be held
+         * @return The level's buffer
+         */
+        char[] buffer(int level, int length) {
+            if (buffers[level].length < length) {
+                buffers[level] = new char[length * 2];
+            }
+            return buffers[level];
+        }
+
+        /**
+         * Compute the prefix hashes of a level's source word, growing the
+         * powers of 31 as needed.
+         *
+         * @param level  The number of edits remaining at the level
+         * @param source The buffer holding the source word
+         * @param length The source word's length
+         * @return The level's prefix hashes, <code>length + 1</code> of them
+         */
+        int[] prefixHashes(int level, char[] source, int length) {
+            if (prefixes[level].length <= length) {
+                prefixes[level] = new int[length * 2 + 1];
+            }
+            if (powers.length <= length + 1) {
+                powers = powers(length * 2 + 2);
+            }
+            var prefix = prefixes[level];
+            for (int i = 0; i < length; i++) {
+                prefix[i + 1] = 31 * prefix[i] + source[i];
+            }
+            return prefix;
+        }
+
+        /**
+         * Return the letters to try at a position of a candidate: those the
+         * trigram table allows on the final level, or all of them.
+         *
+         * @param chars    The buffer holding the candidate
+         * @param length   The candidate's length
+         * @param position The position letters are placed at
+         * @param levels   The number of edits still to apply, including this one
+         * @return The mask of letters to try (bit <code>0</code> for <em>a</em>)
+         */
+        int letters(char[] chars, int length, int position, int levels) {
+            return levels == 1 && trigrams != null ?
+                trigrams.allowedLetters(chars, length, position) :
+                TrigramTable.ALL_LETTERS;
+        }
+
+        /**
+         * Probe a candidate against the dictionary, recording it on a hit.
+         *
+         * @param chars  The buffer holding the candidate
+         * @param length The candidate's length
+         * @param hash   The candidate's polynomial hash
+         */
+        void probe(char[] chars, int length, int hash) {
+            // Most candidates aren't words: reject them without a table probe
+            candidateCount++;
+            if (filter != null && !filter.mightContain(hash)) {
+                return;
+            }
+            probeCount++;
+            var id = index.id(chars, 0, length, hash);
+            if (id != Dictionary.ABSENT) {
+                if (hitCount == hitIds.length) {
+                    hitIds = Arrays.copyOf(hitIds, hitCount * 2);
+                }
+                hitIds[hitCount++] = id;
+            }
+        }
+
+        /**
+         * Sort and deduplicate the ids hit, in place.
+         *
+         * @return The number of distinct ids, now at the front of
+         * <code>hitIds</code>
+         */
+        int distinctHits() {
+            Arrays.sort(hitIds, 0, hitCount);
+            var distinct = 0;
+            for (int i = 0; i < hitCount; i++) {
+                if (i == 0 || hitIds[i] != hitIds[i - 1]) {
+                    hitIds[distinct++] = hitIds[i];
+                }
+            }
+            return distinct;
+        }
+    }
+}
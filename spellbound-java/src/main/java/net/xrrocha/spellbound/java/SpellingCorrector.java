@@ -4,11 +4,21 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.stream.Collectors.toList;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -17,16 +27,28 @@ import java.util.stream.StreamSupport;
 /**
  * Java implementation of PeterNorvig's
  * <a href="http://norvig.com/spell-correct.html">Spelling Corrector</a>.
- * This implementation is based on Java's functional constructs.
+ * This implementation is based on Java's functional constructs. Locating
+ * dictionary words close to a typo is delegated to a pluggable
+ * {@link CorrectionEngine}.
  */
 public class SpellingCorrector {
 
     /**
-     * The word-to-rank dictionary. The higher the rank the higher the word's
-     * occurrence (e.g. <em>the</em> has rank <code>106295</code> while
-     * <em>triose</em> has rank <code>1</code>).
+     * The current dictionary generation, shared with (and swapped under) the
+     * correctors derived from this one.
      */
-    private final Map<String, Integer> dictionary;
+    private final Generations generations;
+
+    /**
+     * The cache of typo corrections (or <code>null</code> if uncached).
+     */
+    private final CorrectionCache cache;
+
+    /**
+     * The receiver of every correction's metrics (or <code>null</code> if
+     * none).
+     */
+    private final CorrectionListener listener;
 
     /**
      * Alphabetics only.
@@ -51,16 +73,179 @@ public class SpellingCorrector {
         );
 
     /**
-     * Constructor
+     * Constructor using Norvig's brute-force {@link BruteForceEngine}.
      *
      * @param dictionary The word-to-rank dictionary to draw valid words from.
      */
     public SpellingCorrector(Map<String, Integer> dictionary) {
+        this(dictionary, BruteForceEngine::new);
+    }
+
+    /**
+     * Constructor using Norvig's brute-force {@link BruteForceEngine}.
+     *
+     * @param dictionary The dictionary to draw valid words from.
+     */
+    public SpellingCorrector(Dictionary dictionary) {
+        this(dictionary, BruteForceEngine::new);
+    }
+
+    /**
+     * Constructor. The map is packed into a {@link RankTable}, silently
+     * skipping (as {@link DictionaryLoader} does) the entries it can't hold:
+     * empty or non-ascii words and negative ranks.
+     *
+     * @param dictionary    The word-to-rank dictionary to draw valid words from.
+     * @param engineFactory The function building the correction engine from the
+     *                      dictionary (e.g. <code>SymmetricDeleteEngine::new</code>)
+     */
+    public SpellingCorrector(Map<String, Integer> dictionary,
+                             Function<Dictionary, ? extends CorrectionEngine> engineFactory) {
+        this(rankTable(dictionary), engineFactory);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param dictionary    The dictionary to draw valid words from.
+     * @param engineFactory The function building the correction engine from the
+     *                      dictionary (e.g. <code>SymmetricDeleteEngine::new</code>)
+     */
+    public SpellingCorrector(Dictionary dictionary,
+                             Function<Dictionary, ? extends CorrectionEngine> engineFactory) {
         checkNotNull(dictionary);
-        checkArgument(!dictionary.isEmpty());
-        this.dictionary = dictionary;
+        checkArgument(dictionary.size() > 0);
+        checkNotNull(engineFactory);
+        this.generations = new Generations(engineFactory);
+        generations.install(dictionary);
+        this.cache = null;
+        this.listener = null;
+    }
+
+    /**
+     * Constructor sharing an existing corrector's dictionary generations.
+     *
+     * @param generations The dictionary generations
+     * @param cache       The cache of typo corrections (or <code>null</code>)
+     * @param listener    The receiver of every correction's metrics (or
+     *                    <code>null</code>)
+     */
+    private SpellingCorrector(Generations generations, CorrectionCache cache, CorrectionListener listener) {
+        this.generations = generations;
+        this.cache = cache;
+        this.listener = listener;
+    }
+
+    /**
+     * Return a spelling corrector sharing this one's dictionary and engine
+     * whose {@link #getCorrections(String)} results are kept in a
+     * {@link CorrectionCache}. Real traffic is heavily skewed towards a few
+     * thousand typos, which are thus corrected only once.
+     *
+     * <p>
+     * Cached corrections are discarded whenever the dictionary is
+     * {@link #reload(Dictionary) reloaded} or, over a
+     * {@link ConcurrentDictionary}, whenever it changes.
+     * </p>
+     *
+     * @param maximumSize The maximum number of typos to cache
+     * @return The caching spelling corrector
+     */
+    public SpellingCorrector withCache(int maximumSize) {
+        var cache = new CorrectionCache(maximumSize);
+        generations.caches.add(cache);
+        return new SpellingCorrector(generations, cache, listener);
+    }
+
+    /**
+     * Return a spelling corrector sharing this one's dictionary, engine and
+     * cache that reports the {@link CorrectionMetrics} of every
+     * {@link #getCorrections(String)} and {@link #getCorrections(String, int)}
+     * call to a listener.
+     * <p>
+     * Corrections are also reported as {@link CorrectionEvent JFR events}
+     * whenever a flight recording enables them, with or without a listener.
+     * With neither, corrections skip all bookkeeping.
+     * </p>
+     *
+     * @param listener The receiver of every correction's metrics
+     * @return The listening spelling corrector
+     */
+    public SpellingCorrector withListener(CorrectionListener listener) {
+        checkNotNull(listener);
+        return new SpellingCorrector(generations, cache, listener);
+    }
+
+    /**
+     * Replace the dictionary with a new version (e.g. a regenerated
+     * dictionary file), building its engine with this corrector's engine
+     * factory. The engine is built on the calling thread while corrections
+     * keep running against the current version; the new version is then
+     * swapped in atomically for this corrector and every corrector sharing
+     * its dictionary (see {@link #withCache(int)} and
+     * {@link #withListener(CorrectionListener)}), and cached corrections are
+     * discarded.
+     * <p>
+     * Each correction reads the current version once, so corrections already
+     * running when the swap happens finish against the old version, which is
+     * garbage once they're done. Concurrent reloads are serialized: at most
+     * the current and the incoming versions (plus the old one, while in-flight
+     * corrections drain) are alive at once.
+     * </p>
+     *
+     * @param dictionary The new dictionary
+     * @return The new version number
+     */
+    public long reload(Dictionary dictionary) {
+        checkNotNull(dictionary);
+        checkArgument(dictionary.size() > 0);
+        return generations.install(dictionary);
+    }
+
+    /**
+     * Return the version number of the current dictionary: <code>1</code>
+     * for the dictionary the corrector was created with, incremented by each
+     * {@link #reload(Dictionary) reload}.
+     *
+     * @return The current dictionary version
+     */
+    public long getVersion() {
+        return generations.current.version;
+    }
+
+    /**
+     * Return the correction cache, if any, giving access to its statistics.
+     *
+     * @return The optional correction cache
+     */
+    public Optional<CorrectionCache> getCache() {
+        return Optional.ofNullable(cache);
     }
 
+    /**
+     * Tell whether a word is in the dictionary. Unlike
+     * {@link #getCorrections(String)}, the word isn't normalized: this is
+     * meant for callers that already lowercase and validate tokens in bulk.
+     *
+     * @param normalizedWord The lowercase, alphabetic word
+     * @return Whether the word is in the dictionary
+     */
+    public boolean contains(String normalizedWord) {
+        return generations.current.dictionary.contains(normalizedWord);
+    }
+
+    /**
+     * Tell whether a lowercase word held in a character buffer is in the
+     * dictionary, without creating a string for it.
+     *
+     * @param chars  The buffer holding the lowercase, alphabetic word
+     * @param offset The word's offset within the buffer
+     * @param length The word's length
+     * @return Whether the word is in the dictionary
+     */
+    public boolean contains(char[] chars, int offset, int length) {
+        return generations.current.dictionary.rank(chars, offset, length) != Dictionary.ABSENT;
+    }
 
     /**
      * Return one or more suggested corrections for a given word.
@@ -81,26 +266,251 @@ public class SpellingCorrector {
         // Ensure word format matches that of the dictionary: lowercase alphabetics
         var normalizedWord = normalize(word);
 
-        // If word occurs in dictionary then return no suggestions
-        if (dictionary.containsKey(normalizedWord)) {
-            return Optional.empty();
+        // Skip all bookkeeping unless somebody is listening
+        var event = new CorrectionEvent();
+        if (listener == null && !event.isEnabled()) {
+            return correct(normalizedWord);
         }
+        var maxDistance = generations.current.engine.maxDistance();
+        return trace(normalizedWord, event, () -> correct(normalizedWord),
+                     corrections -> EditDistance.distance(normalizedWord, corrections.get(0), maxDistance));
+    }
 
-        // Corrections for one-edit typos; most typos contain just one error.
-        // Method known removes duplicates, ensures presence in dictionary
-        // and orders by rank
-        var corrections = known(edits1(normalizedWord));
+    /**
+     * Return the suggested corrections for a normalized word, as described in
+     * {@link #getCorrections(String)}.
+     *
+     * @param normalizedWord The normalized word
+     * @return <code>Optional.empty()</code> if the word is present in the
+     * dictionary or an optional (possibly empty) list of corrections
+     */
+    private Optional<List<String>> correct(String normalizedWord) {
 
-        // If edit1 yields no in-dictionary word, try with edits2.
-        // Some typos stem from 2 errors; few come from more than 2
-        if (corrections.isEmpty()) {
-            corrections = known(edits2(normalizedWord));
+        // Stick to the current dictionary version throughout
+        var generation = generations.current;
+
+        // If word occurs in dictionary then return no suggestions
+        if (generation.dictionary.contains(normalizedWord)) {
+            return Optional.empty();
         }
 
+        // Delegate to the engine (unless cached): words one edit away if any,
+        // otherwise words two edits away, ordered by rank
+        var corrections = cache == null ?
+            generation.engine.getCorrections(normalizedWord) :
+            cache.get(normalizedWord, generation.engine::getCorrections);
+
         // Return (possibly empty) list of suggested corrections
         return Optional.of(corrections);
     }
 
+    /**
+     * Return suggested corrections for a given word found within a time
+     * limit. Equivalent to {@link #getCorrections(String, CorrectionBudget)}
+     * with a budget created now.
+     *
+     * @param word    The word to be validated against dictionary
+     * @param timeout The time allowed for the correction
+     * @return <code>Optional.empty()</code> if the word is present in the
+     * dictionary or optional (possibly partial) corrections
+     */
+    public Optional<BoundedCorrections> getCorrections(String word, Duration timeout) {
+        return getCorrections(word, CorrectionBudget.within(timeout));
+    }
+
+    /**
+     * Return suggested corrections for a given word found within a budget,
+     * for callers with latency objectives. Words one edit away are always
+     * searched for completely; the (potentially huge) search for words two
+     * edits away then stops cooperatively once the budget runs out, and the
+     * best words found so far are returned flagged as partial.
+     * <p>
+     * Budgeted corrections bypass the cache, if any: partial corrections must
+     * not be served to other callers, and waiting for another caller's
+     * ongoing correction would defeat the budget.
+     * </p>
+     *
+     * @param word   The word to be validated against dictionary
+     * @param budget The budget bounding the correction
+     * @return <code>Optional.empty()</code> if the word is present in the
+     * dictionary or optional (possibly partial) corrections
+     */
+    public Optional<BoundedCorrections> getCorrections(String word, CorrectionBudget budget) {
+        checkNotNull(budget);
+
+        var normalizedWord = normalize(word);
+        var generation = generations.current;
+        if (generation.dictionary.contains(normalizedWord)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(generation.engine.getCorrections(normalizedWord, budget));
+    }
+
+    /**
+     * Correct a batch of words on the calling thread. Equivalent to
+     * {@link #correctAll(Collection, Executor)} with a direct executor.
+     *
+     * @param words The words to be validated against dictionary
+     * @return The normalized-word-to-corrections map
+     */
+    public Map<String, Optional<List<String>>> correctAll(Collection<String> words) {
+        return correctAll(words, Runnable::run);
+    }
+
+    /**
+     * Correct a batch of words. Words are normalized and deduplicated, so
+     * each distinct word is corrected (or looked up in the cache) once, and
+     * each distinct word becomes one task submitted to the given executor.
+     * Corrections thus scale with the executor's threads rather than with
+     * per-call parallelism; pair a thread pool with a sequential engine
+     * (e.g. <code>new BruteForceEngine(dictionary, rate, false)</code>) so
+     * that tasks don't fan out further.
+     *
+     * @param words    The words to be validated against dictionary
+     * @param executor The executor running the corrections
+     * @return The normalized-word-to-corrections map, in first occurrence
+     * order, with the same values {@link #getCorrections(String)} returns
+     */
+    public Map<String, Optional<List<String>>> correctAll(Collection<String> words, Executor executor) {
+        checkNotNull(words);
+        checkNotNull(executor);
+
+        // Normalize (rejecting invalid words) before submitting anything
+        var distinctWords = new LinkedHashSet<String>();
+        for (var word : words) {
+            distinctWords.add(normalize(word));
+        }
+
+        // Submit one task per distinct word
+        var futures = new LinkedHashMap<String, CompletableFuture<Optional<List<String>>>>();
+        for (var word : distinctWords) {
+            futures.put(word, CompletableFuture.supplyAsync(() -> getCorrections(word), executor));
+        }
+
+        // Gather results in submission order
+        var corrections = new LinkedHashMap<String, Optional<List<String>>>();
+        futures.forEach((word, future) -> corrections.put(word, Futures.join(future)));
+        return corrections;
+    }
+
+    /**
+     * Return at most <code>k</code> suggested corrections for a given word,
+     * along with their rank and edit distance. These are the first
+     * <code>k</code> words {@link #getCorrections(String)} would return, but
+     * they're selected with a bounded heap and engines may stop searching as
+     * soon as no remaining word can make it into the top <code>k</code>.
+     *
+     * @param word The word to be validated against dictionary
+     * @param k    The maximum number of suggestions to return
+     * @return <code>Optional.empty()</code> if the word is present in the
+     * dictionary or an optional (possibly empty) list of the best suggestions
+     */
+    public Optional<List<Suggestion>> getCorrections(String word, int k) {
+        checkArgument(k > 0);
+
+        var normalizedWord = normalize(word);
+        var event = new CorrectionEvent();
+        if (listener == null && !event.isEnabled()) {
+            return correctTop(normalizedWord, k);
+        }
+        return trace(normalizedWord, event, () -> correctTop(normalizedWord, k),
+                     suggestions -> suggestions.get(0).getDistance());
+    }
+
+    /**
+     * Return the best suggestions for a normalized word, as described in
+     * {@link #getCorrections(String, int)}.
+     *
+     * @param normalizedWord The normalized word
+     * @param k              The maximum number of suggestions to return
+     * @return <code>Optional.empty()</code> if the word is present in the
+     * dictionary or an optional (possibly empty) list of the best suggestions
+     */
+    private Optional<List<Suggestion>> correctTop(String normalizedWord, int k) {
+        var generation = generations.current;
+        if (generation.dictionary.contains(normalizedWord)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(generation.engine.getTopCorrections(normalizedWord, k));
+    }
+
+    /**
+     * Run a correction with a {@link CorrectionTrace} installed, then report
+     * its metrics to the listener (if any) and as a JFR event (if enabled).
+     *
+     * @param normalizedWord The normalized word
+     * @param event          The (not yet begun) JFR event
+     * @param correction     The correction to run
+     * @param tierOf         The function returning the tier of a non-empty
+     *                       correction list
+     * @param <T>            The type of the corrections returned
+     * @return The correction's result
+     */
+    private <T> Optional<List<T>> trace(String normalizedWord, CorrectionEvent event,
+                                        Supplier<Optional<List<T>>> correction,
+                                        ToIntFunction<List<T>> tierOf) {
+        var trace = new CorrectionTrace();
+        event.begin();
+        var startTime = System.nanoTime();
+        Optional<List<T>> result;
+        trace.begin();
+        try {
+            result = correction.get();
+        } finally {
+            trace.end();
+        }
+        var latencyNanos = System.nanoTime() - startTime;
+        event.end();
+
+        // Corrections lie at the tier of the first one; when there are none,
+        // every tier was searched
+        var known = result.isEmpty();
+        var suggestionCount = result.map(List::size).orElse(0);
+        var tier = known ? 0 : suggestionCount == 0 ?
+            generations.current.engine.maxDistance() :
+            tierOf.applyAsInt(result.get());
+
+        if (event.shouldCommit()) {
+            event.word = normalizedWord;
+            event.known = known;
+            event.tier = tier;
+            event.suggestionCount = suggestionCount;
+            event.candidateCount = trace.candidates.sum();
+            event.probeCount = trace.probes.sum();
+            event.hitCount = trace.hits.sum();
+            event.knownTime = trace.knownNanos.sum();
+            event.commit();
+        }
+        if (listener != null) {
+            listener.corrected(new CorrectionMetrics(normalizedWord, known, tier, suggestionCount,
+                                                     trace.candidates.sum(), trace.probes.sum(),
+                                                     trace.hits.sum(), trace.knownNanos.sum(), latencyNanos));
+        }
+        return result;
+    }
+
+    /**
+     * Return a lazy iterator over the suggested corrections for a given word:
+     * all words one edit away (rank-ordered) followed by all words two edits
+     * away. Distance-2 words are only searched for if the caller iterates past
+     * the distance-1 ones, so interactive callers can stop early.
+     *
+     * @param word The word to be validated against dictionary
+     * @return <code>Optional.empty()</code> if the word is present in the
+     * dictionary or an optional lazy suggestion iterator
+     */
+    public Optional<Iterator<Suggestion>> getSuggestions(String word) {
+        var normalizedWord = normalize(word);
+        var generation = generations.current;
+        if (generation.dictionary.contains(normalizedWord)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(generation.engine.suggestions(normalizedWord));
+    }
+
     /**
      * Locate one or more dictionary words reconstituted by (brute-force) applying
      * reversing edits to word (only once).
@@ -113,8 +523,11 @@ public class SpellingCorrector {
         // Generate all wordSplits for typo
         var wordSplits = wordSplits(typo);
 
-        // Generate and apply all 4 edits (in parallel) to each split
-        return edits.parallelStream().flatMap(edit -> edit.apply(wordSplits));
+        // Generate and apply all 4 edits to each split. This is sequential:
+        // callers wanting parallelism decide where to fan out (see
+        // BruteForceEngine and correctAll) rather than nesting parallel
+        // streams on the shared common pool
+        return edits.stream().flatMap(edit -> edit.apply(wordSplits));
     }
 
     /**
@@ -126,34 +539,10 @@ public class SpellingCorrector {
      */
     static Stream<String> edits2(String typo) {
 
-        // Apply all 4 edits twice, and in parallel, to each split
+        // Apply all 4 edits twice to each split
         return edits1(typo).flatMap(SpellingCorrector::edits1);
     }
 
-    /**
-     * Pack results of dictionary word reconstitution by:
-     * <ul>
-     * <li>Coalescing duplicates</li>
-     * <li>Filtering out non-dictionary words</li>
-     * <li>Ordering (descending) by rank</li>
-     * <li>Collecting as <code>List&lt;String&gt;</code></li>
-     * </ul>
-     *
-     * @param editResults The (possibly empty) list of dictionary words reconstituted
-     *                    from typo
-     * @return The <code>List&lt;String&gt;</code> resulting from stream processing
-     */
-    List<String> known(Stream<String> editResults) {
-        return editResults
-            // Remove duplicates
-            .distinct()
-            // Select only words present in dictionary
-            .filter(dictionary::containsKey)
-            // Sort descending by word rank so more frequent words show first
-            .sorted((word1, word2) -> dictionary.get(word2).compareTo(dictionary.get(word1)))
-            .collect(toList());
-    }
-
     /**
      * Generate all possible wordSplits from a word. The first split has the
      * empty string on the left and the complete word on the right. The
@@ -255,6 +644,24 @@ public class SpellingCorrector {
         return normalizedWord;
     }
 
+    /**
+     * Pack a word-to-rank map into a rank table, skipping the entries it
+     * can't hold.
+     *
+     * @param dictionary The word-to-rank map
+     * @return The rank table of the valid entries
+     */
+    private static RankTable rankTable(Map<String, Integer> dictionary) {
+        checkNotNull(dictionary);
+        var builder = RankTable.builder();
+        dictionary.forEach((word, rank) -> {
+            if (!word.isEmpty() && rank >= 0 && word.chars().allMatch(c -> c < 128)) {
+                builder.add(word, rank);
+            }
+        });
+        return builder.build();
+    }
+
     /**
      * Verify whether a string is alphabetic.
      *
@@ -318,4 +725,113 @@ public class SpellingCorrector {
             return this.left.equals(that.left) && this.right.equals(that.right);
         }
     }
+
+    /**
+     * A version of the dictionary along with the engine built from it.
+     */
+    private static final class Generation {
+        /**
+         * The word-to-rank dictionary. The higher the rank the higher the
+         * word's occurrence (e.g. <em>the</em> has rank <code>106295</code>
+         * while <em>triose</em> has rank <code>1</code>).
+         */
+        final Dictionary dictionary;
+        /**
+         * The engine locating dictionary words close to a typo.
+         */
+        final CorrectionEngine engine;
+        /**
+         * The version number, starting at <code>1</code>.
+         */
+        final long version;
+        /**
+         * The listener discarding cached corrections when a
+         * {@link ConcurrentDictionary} changes, or <code>null</code>.
+         */
+        final ConcurrentDictionary.Listener listener;
+
+        /**
+         * The constructor.
+         *
+         * @param dictionary The dictionary
+         * @param engine     The engine built from the dictionary
+         * @param version    The version number
+         * @param listener   The dictionary's cache-clearing listener, or
+         *                   <code>null</code>
+         */
+        Generation(Dictionary dictionary, CorrectionEngine engine, long version,
+                   ConcurrentDictionary.Listener listener) {
+            this.dictionary = dictionary;
+            this.engine = engine;
+            this.version = version;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * The swappable dictionary generation shared by a corrector and the
+     * correctors derived from it, along with what's needed to replace it.
+     */
+    private static final class Generations {
+        /**
+         * The function building the correction engine from a dictionary.
+         */
+        final Function<Dictionary, ? extends CorrectionEngine> engineFactory;
+        /**
+         * The caches of the correctors sharing the generations, to be cleared
+         * on change.
+         */
+        final List<CorrectionCache> caches = new CopyOnWriteArrayList<>();
+        /**
+         * The current generation, read once per correction.
+         */
+        volatile Generation current;
+
+        /**
+         * The constructor.
+         *
+         * @param engineFactory The function building the correction engine
+         */
+        Generations(Function<Dictionary, ? extends CorrectionEngine> engineFactory) {
+            this.engineFactory = engineFactory;
+        }
+
+        /**
+         * Build a dictionary's engine, then make it the current generation
+         * and discard cached corrections. The replaced generation's
+         * dictionary, if concurrent, stops clearing the caches and updating
+         * the replaced engine.
+         *
+         * @param dictionary The new dictionary
+         * @return The new version number
+         */
+        synchronized long install(Dictionary dictionary) {
+            var engine = checkNotNull(engineFactory.apply(dictionary));
+            var version = current == null ? 1 : current.version + 1;
+            ConcurrentDictionary.Listener listener = null;
+            if (dictionary instanceof ConcurrentDictionary) {
+                listener = (word, rank) -> clearCaches();
+                ((ConcurrentDictionary) dictionary).addListener(listener);
+            }
+            var previous = current;
+            current = new Generation(dictionary, engine, version, listener);
+            if (previous != null && previous.listener != null) {
+                ((ConcurrentDictionary) previous.dictionary).removeListener(previous.listener);
+            }
+            if (previous != null && previous.engine instanceof BruteForceEngine) {
+                ((BruteForceEngine) previous.engine).detach();
+            }
+            clearCaches();
+            return version;
+        }
+
+        /**
+         * Discard every cached correction.
+         */
+        void clearCaches() {
+            for (var cache : caches) {
+                cache.clear();
+            }
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Objects;
+
+/**
+ * Immutable data class embodying a correction suggestion: a dictionary word
+ * together with its rank and its edit distance to the typo.
+ */
+public final class Suggestion {
+
+    /**
+     * The suggested dictionary word.
+     */
+    private final String word;
+
+    /**
+     * The word's dictionary rank.
+     */
+    private final int rank;
+
+    /**
+     * The word's edit distance to the typo.
+     */
+    private final int distance;
+
+    /**
+     * The constructor.
+     *
+     * @param word     The suggested dictionary word
+     * @param rank     The word's dictionary rank
+     * @param distance The word's edit distance to the typo
+     */
+    public Suggestion(String word, int rank, int distance) {
+        checkNotNull(word);
+        this.word = word;
+        this.rank = rank;
+        this.distance = distance;
+    }
+
+    /**
+     * Return the suggested dictionary word.
+     *
+     * @return The suggested word
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * Return the word's dictionary rank.
+     *
+     * @return The word's rank
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Return the word's edit distance to the typo.
+     *
+     * @return The edit distance
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Suggestion)) {
+            return false;
+        }
+        var that = (Suggestion) obj;
+        return this.word.equals(that.word) && this.rank == that.rank && this.distance == that.distance;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(word, rank, distance);
+    }
+
+    @Override
+    public String toString() {
+        return word + "(rank=" + rank + ", distance=" + distance + ")";
+    }
+}
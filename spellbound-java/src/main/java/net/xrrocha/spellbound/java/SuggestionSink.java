@@ -0,0 +1,17 @@
+package net.xrrocha.spellbound.java;
+
+/**
+ * Consumer of the dictionary words found by a {@link CorrectionEngine}.
+ */
+@FunctionalInterface
+public interface SuggestionSink {
+
+    /**
+     * Accept a dictionary word found near a typo. Each word is passed at most
+     * once per search.
+     *
+     * @param word The dictionary word found
+     * @param rank The word's dictionary rank
+     */
+    void accept(String word, int rank);
+}
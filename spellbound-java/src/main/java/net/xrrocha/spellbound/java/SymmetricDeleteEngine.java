@@ -0,0 +1,193 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+/**
+ * Symmetric-delete (<a href="https://github.com/wolfgarbe/SymSpell">SymSpell</a>
+ * style) correction engine.
+ * <p>
+ * Two words lie within edit distance <code>d</code> only if deleting at most
+ * <code>d</code> characters from each of them yields a common string. Deletes
+ * (unlike inserts and replaces) don't depend on the alphabet so, at construction
+ * time, every dictionary word is indexed under all of its 0, 1 and 2-character
+ * deletes. At query time only the typo's own deletes (a few dozen for a typical
+ * word) are looked up and each indexed word found is verified against the
+ * typo with a true Damerau-Levenshtein distance.
+ * </p>
+ * <p>
+ * To keep the index compact, deletes are never materialized as strings: only
+ * their hashes are kept, bucketed in a compressed-sparse-row layout pointing to
+ * word ids. Hash collisions merely add candidates that fail verification.
+ * </p>
+ */
+public class SymmetricDeleteEngine implements CorrectionEngine {
+
+    /**
+     * Maximum edit distance covered by the index (Norvig's <code>edits2</code>).
+     */
+    static final int MAX_DISTANCE = DEFAULT_MAX_DISTANCE;
+
+    /**
+     * The word-to-rank dictionary used to order suggestions.
+     */
+    private final Dictionary dictionary;
+
+    /**
+     * Indexed (lowercase) dictionary words; word ids are positions in this array.
+     */
+    private final String[] words;
+
+    /**
+     * Start offset into <code>wordIds</code> for each bucket (plus a final end
+     * offset).
+     */
+    private final int[] bucketStarts;
+
+    /**
+     * Ids of the words having a delete hashed to each bucket.
+     */
+    private final int[] wordIds;
+
+    /**
+     * Right shift selecting the high bits of a spread hash as its bucket
+     * (bucket count is a power of two).
+     */
+    private final int bucketShift;
+
+    /**
+     * Constructor. Builds the deletes index from the dictionary.
+     *
+     * @param dictionary The word-to-rank dictionary to draw valid words from.
+     */
+    public SymmetricDeleteEngine(Dictionary dictionary) {
+        checkNotNull(dictionary);
+        checkArgument(!(dictionary instanceof ConcurrentDictionary),
+                      "%s indexes a snapshot of the words, which would go stale", getClass().getSimpleName());
+        this.dictionary = dictionary;
+
+        // Only lowercase words are reachable from a normalized typo
+        words = EditDistance.lowercaseWords(dictionary);
+
+        // Size the table from an upper bound on the number of deletes
+        long deleteCount = 0;
+        for (var word : words) {
+            long length = word.length();
+            deleteCount += 1 + length + length * (length - 1) / 2;
+        }
+        var bucketCount = Integer.highestOneBit((int) Math.max(2, Math.min(deleteCount / 2, 1 << 30)));
+        bucketShift = Integer.numberOfLeadingZeros(bucketCount) + 1;
+
+        // First pass: count entries per bucket
+        bucketStarts = new int[bucketCount + 1];
+        for (var word : words) {
+            for (var hash : deleteHashes(word)) {
+                bucketStarts[bucketOf(hash) + 1]++;
+            }
+        }
+        for (int i = 0; i < bucketCount; i++) {
+            bucketStarts[i + 1] += bucketStarts[i];
+        }
+
+        // Second pass: populate word ids per bucket
+        wordIds = new int[bucketStarts[bucketCount]];
+        var fill = Arrays.copyOf(bucketStarts, bucketCount);
+        for (int id = 0; id < words.length; id++) {
+            for (var hash : deleteHashes(words[id])) {
+                wordIds[fill[bucketOf(hash)]++] = id;
+            }
+        }
+    }
+
+    @Override
+    public void collect(String typo, int distance, SuggestionSink sink) {
+        checkArgument(distance > 0 && distance <= MAX_DISTANCE);
+
+        // Collect all words sharing a delete with the typo
+        var candidateIds = new int[16];
+        var candidateCount = 0;
+        for (var hash : deleteHashes(typo)) {
+            var bucket = bucketOf(hash);
+            for (int i = bucketStarts[bucket]; i < bucketStarts[bucket + 1]; i++) {
+                if (candidateCount == candidateIds.length) {
+                    candidateIds = Arrays.copyOf(candidateIds, candidateCount * 2);
+                }
+                candidateIds[candidateCount++] = wordIds[i];
+            }
+        }
+        Arrays.sort(candidateIds, 0, candidateCount);
+
+        // Verify each (distinct) candidate lies at the requested distance
+        for (int i = 0; i < candidateCount; i++) {
+            if (i > 0 && candidateIds[i] == candidateIds[i - 1]) {
+                continue;
+            }
+            var word = words[candidateIds[i]];
+            if (EditDistance.distance(typo, word, distance) == distance) {
+                sink.accept(word, dictionary.rank(word));
+            }
+        }
+    }
+
+    /**
+     * Map a delete hash onto its bucket.
+     *
+     * @param hash The delete hash
+     * @return The bucket index
+     */
+    private int bucketOf(int hash) {
+        // Fibonacci hashing spreads the (poorly mixed) polynomial hash
+        return (hash * 0x9E3779B9) >>> bucketShift;
+    }
+
+    /**
+     * Compute the distinct hashes of all strings obtained by deleting zero, one
+     * or two characters from a word.
+     *
+     * @param word The word to derive deletes from
+     * @return The distinct delete hashes
+     */
+    static int[] deleteHashes(String word) {
+        var length = word.length();
+        var hashes = new int[1 + length + length * (length - 1) / 2];
+        var count = 0;
+
+        hashes[count++] = hashSkipping(word, -1, -1);
+        for (int i = 0; i < length; i++) {
+            hashes[count++] = hashSkipping(word, i, -1);
+            for (int j = i + 1; j < length; j++) {
+                hashes[count++] = hashSkipping(word, i, j);
+            }
+        }
+
+        // Repeated letters yield repeated deletes: keep each hash once
+        Arrays.sort(hashes);
+        var distinct = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+
+    /**
+     * Polynomial hash of a word with up to two positions left out.
+     *
+     * @param word  The word to hash
+     * @param skip1 The first position to leave out (or <code>-1</code>)
+     * @param skip2 The second position to leave out (or <code>-1</code>)
+     * @return The hash of the resulting delete
+     */
+    private static int hashSkipping(String word, int skip1, int skip2) {
+        var hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (i != skip1 && i != skip2) {
+                hash = 31 * hash + word.charAt(i);
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,484 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Bounded-memory token frequency counter for corpora whose distinct tokens
+ * don't fit in memory.
+ * <p>
+ * Counts live in {@value #STRIPE_COUNT} independently locked stripes, each an
+ * open-addressing table of tokens and primitive <code>long</code> counts, so
+ * that concurrent producers rarely contend. When a stripe's estimated
+ * footprint exceeds its share of the memory budget, its entries are sorted
+ * and spilled to a <em>run</em> file in the spill directory, and the stripe
+ * starts over. {@link #forEachSorted(ObjLongConsumer)} then k-way merges all
+ * runs with what remains in memory, summing the counts of each token, so that
+ * every distinct token is reported exactly once, in sorted order.
+ * </p>
+ */
+public final class TokenCounter implements Closeable {
+
+    /**
+     * Number of independently locked stripes (a power of two).
+     */
+    static final int STRIPE_COUNT = 16;
+
+    /**
+     * Maximum number of runs merged at once; more runs are first merged into
+     * fewer, larger ones.
+     */
+    static final int MAX_FAN_IN = 128;
+
+    /**
+     * Estimated bytes taken by a counted token besides its characters (the
+     * string and its array headers, plus table slots at half occupancy).
+     */
+    private static final int ENTRY_OVERHEAD = 72;
+
+    /**
+     * The counting stripes, selected by the top hash bits.
+     */
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    /**
+     * Estimated bytes a stripe may take before being spilled.
+     */
+    private final long stripeBudget;
+
+    /**
+     * The directory run files are written to.
+     */
+    private final Path spillDirectory;
+
+    /**
+     * The run files spilled so far, registered before being written so that
+     * partially written ones are deleted too (guarded by this counter's
+     * lock).
+     */
+    private final List<Path> runs = new ArrayList<>();
+
+    /**
+     * Sequence number of the next run file (guarded by this counter's lock).
+     */
+    private int runSequence;
+
+    /**
+     * Constructor
+     *
+     * @param memoryBudget   The estimated number of bytes counts may take
+     *                       before being spilled to disk
+     * @param spillDirectory The (existing) directory to write run files to
+     */
+    public TokenCounter(long memoryBudget, Path spillDirectory) {
+        checkArgument(memoryBudget > 0);
+        checkNotNull(spillDirectory);
+        checkArgument(Files.isDirectory(spillDirectory), "Not a directory: %s", spillDirectory);
+        this.stripeBudget = Math.max(1, memoryBudget / STRIPE_COUNT);
+        this.spillDirectory = spillDirectory;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Count an occurrence of a token. Safe for concurrent use.
+     *
+     * @param token The token
+     */
+    public void add(String token) {
+        add(token, 1);
+    }
+
+    /**
+     * Count a number of occurrences of a token. Safe for concurrent use.
+     *
+     * @param token The token
+     * @param count The number of occurrences
+     */
+    public void add(String token, long count) {
+        checkNotNull(token);
+        checkArgument(count > 0);
+
+        var hash = RankTable.spread(token.hashCode());
+        var stripe = stripes[hash >>> (32 - Integer.numberOfTrailingZeros(STRIPE_COUNT))];
+        synchronized (stripe) {
+            if (stripe.add(token, hash, count) && stripe.bytes > stripeBudget) {
+                spill(stripe);
+            }
+        }
+    }
+
+    /**
+     * Return the number of runs spilled to disk so far.
+     *
+     * @return The run count
+     */
+    public synchronized int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * Pass every distinct token, in sorted order, along with its total count
+     * to a consumer. Must not run concurrently with {@link #add(String)}.
+     *
+     * @param consumer The token/count consumer
+     */
+    public void forEachSorted(ObjLongConsumer<String> consumer) {
+        checkNotNull(consumer);
+
+        synchronized (this) {
+            // Keep the number of simultaneously open runs bounded
+            while (runs.size() + STRIPE_COUNT > MAX_FAN_IN) {
+                var merged = List.copyOf(runs.subList(0, MAX_FAN_IN - STRIPE_COUNT));
+                var path = nextRunPath();
+                try (var writer = new RunWriter(path)) {
+                    merge(openRuns(merged), writer::write);
+                }
+                merged.forEach(TokenCounter::delete);
+                runs.removeAll(merged);
+            }
+        }
+
+        // Merge runs with the (sorted) stripe remainders
+        var cursors = openRuns(runs());
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                cursors.add(new StripeCursor(stripe));
+            }
+        }
+        merge(cursors, consumer);
+    }
+
+    /**
+     * Delete all run files.
+     */
+    @Override
+    public synchronized void close() {
+        runs.forEach(TokenCounter::delete);
+        runs.clear();
+    }
+
+    /**
+     * Write a stripe's entries, sorted, to a new run and empty the stripe.
+     * Called with the stripe's lock held.
+     *
+     * @param stripe The stripe to spill
+     */
+    private void spill(Stripe stripe) {
+        Path path;
+        synchronized (this) {
+            path = nextRunPath();
+        }
+        try (var writer = new RunWriter(path)) {
+            var words = stripe.sortedWords();
+            for (var word : words) {
+                writer.write(word, stripe.count(word));
+            }
+        }
+        stripe.clear();
+    }
+
+    private synchronized List<Path> runs() {
+        return List.copyOf(runs);
+    }
+
+    /**
+     * Name and register a new run file. Called with this counter's lock held.
+     *
+     * @return The run file's path
+     */
+    private Path nextRunPath() {
+        var path = spillDirectory.resolve(String.format("run-%06d.bin", runSequence++));
+        runs.add(path);
+        return path;
+    }
+
+    private static List<Cursor> openRuns(List<Path> paths) {
+        var cursors = new ArrayList<Cursor>();
+        for (var path : paths) {
+            cursors.add(new RunCursor(path));
+        }
+        return cursors;
+    }
+
+    /**
+     * K-way merge sorted cursors, summing the counts of equal tokens, and close
+     * them.
+     *
+     * @param cursors  The cursors to merge
+     * @param consumer The consumer of merged tokens and counts
+     */
+    private static void merge(List<Cursor> cursors, ObjLongConsumer<String> consumer) {
+        var queue = new PriorityQueue<Cursor>(Math.max(1, cursors.size()), Comparator.comparing(cursor -> cursor.word));
+        try {
+            for (var cursor : cursors) {
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+            while (!queue.isEmpty()) {
+                var cursor = queue.poll();
+                var word = cursor.word;
+                var count = 0L;
+                // Sum this token's counts across all cursors holding it
+                while (true) {
+                    count += cursor.count;
+                    if (cursor.advance()) {
+                        queue.add(cursor);
+                    } else {
+                        cursor.close();
+                    }
+                    if (queue.isEmpty() || !queue.peek().word.equals(word)) {
+                        break;
+                    }
+                    cursor = queue.poll();
+                }
+                consumer.accept(word, count);
+            }
+        } finally {
+            queue.forEach(Cursor::close);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open-addressing token-to-count table.
+     */
+    private static final class Stripe {
+
+        String[] keys = new String[16];
+        long[] counts = new long[16];
+        int size;
+
+        /**
+         * Estimated footprint in bytes.
+         */
+        long bytes;
+
+        /**
+         * Add to a token's count.
+         *
+         * @param token The token
+         * @param hash  The token's spread hash
+         * @param count The count to add
+         * @return Whether the token is new
+         */
+        boolean add(String token, int hash, long count) {
+            var mask = keys.length - 1;
+            var slot = hash & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(token)) {
+                    counts[slot] += count;
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = token;
+            counts[slot] = count;
+            bytes += ENTRY_OVERHEAD + token.length();
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return true;
+        }
+
+        long count(String token) {
+            var mask = keys.length - 1;
+            var slot = RankTable.spread(token.hashCode()) & mask;
+            while (!keys[slot].equals(token)) {
+                slot = (slot + 1) & mask;
+            }
+            return counts[slot];
+        }
+
+        String[] sortedWords() {
+            var words = new String[size];
+            var i = 0;
+            for (var key : keys) {
+                if (key != null) {
+                    words[i++] = key;
+                }
+            }
+            Arrays.sort(words);
+            return words;
+        }
+
+        void clear() {
+            keys = new String[16];
+            counts = new long[16];
+            size = 0;
+            bytes = 0;
+        }
+
+        private void resize() {
+            var oldKeys = keys;
+            var oldCounts = counts;
+            keys = new String[oldKeys.length * 2];
+            counts = new long[oldKeys.length * 2];
+            var mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    var slot = RankTable.spread(oldKeys[i].hashCode()) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted token/count sequence being merged.
+     */
+    private abstract static class Cursor {
+
+        String word;
+        long count;
+
+        /**
+         * Move to the next token.
+         *
+         * @return Whether there was a next token
+         */
+        abstract boolean advance();
+
+        void close() {
+        }
+    }
+
+    /**
+     * Cursor over a stripe's entries (sorted on creation).
+     */
+    private static final class StripeCursor extends Cursor {
+
+        private final Stripe stripe;
+        private final String[] words;
+        private int position;
+
+        StripeCursor(Stripe stripe) {
+            this.stripe = stripe;
+            this.words = stripe.sortedWords();
+        }
+
+        @Override
+        boolean advance() {
+            if (position == words.length) {
+                return false;
+            }
+            word = words[position++];
+            count = stripe.count(word);
+            return true;
+        }
+    }
+
+    /**
+     * Cursor over a run file: token/count pairs, each preceded by a
+     * <code>true</code> marker and followed by a final <code>false</code>.
+     * Tokens are written as their UTF-8 byte length followed by the bytes,
+     * as tokens may exceed the 64KB limit of
+     * {@link DataOutputStream#writeUTF(String)}.
+     */
+    private static final class RunCursor extends Cursor {
+
+        private final DataInputStream in;
+
+        RunCursor(Path path) {
+            try {
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        boolean advance() {
+            try {
+                if (!in.readBoolean()) {
+                    return false;
+                }
+                var bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                word = new String(bytes, UTF_8);
+                count = in.readLong();
+                return true;
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Writer of a run file.
+     */
+    private static final class RunWriter implements Closeable {
+
+        private final DataOutputStream out;
+
+        RunWriter(Path path) {
+            try {
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        void write(String word, long count) {
+            try {
+                out.writeBoolean(true);
+                var bytes = word.getBytes(UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                out.writeLong(count);
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                out.writeBoolean(false);
+                out.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+    }
+}
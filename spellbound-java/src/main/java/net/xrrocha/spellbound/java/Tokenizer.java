@@ -0,0 +1,225 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Zero-copy tokenizer of ASCII (or UTF-8) text, scanning bytes in place
+ * rather than decoding lines into strings.
+ * <p>
+ * Tokens are the whitespace-delimited runs of bytes consisting solely of
+ * ASCII letters: exactly the words {@link Main#processInputLines} keeps after
+ * splitting lines on <code>\s+</code> and filtering with
+ * {@link SpellingCorrector#isAlphabetic(String)}. Bytes are classified
+ * through a 256-entry lookup table; since every byte of a multi-byte UTF-8
+ * character is non-ASCII, tokens containing one are rejected just like their
+ * decoded counterparts. Tokens are reported as spans of the scanned buffer,
+ * so callers only create strings for the tokens they keep.
+ * </p>
+ * <p>
+ * Files are memory-mapped in regions of at most 1 GB, each ending at a
+ * whitespace byte, so files of any size can be scanned.
+ * </p>
+ */
+public final class Tokenizer {
+
+    /**
+     * Consumer of token spans.
+     */
+    @FunctionalInterface
+    public interface TokenSink {
+
+        /**
+         * Accept a token.
+         *
+         * @param text   The buffer holding the token (only valid during the call)
+         * @param offset The token's absolute offset within <code>text</code>
+         * @param length The token's length in bytes (and characters)
+         * @param line   The token's (1-based) line number
+         * @param column The token's (1-based) byte column
+         */
+        void accept(ByteBuffer text, int offset, int length, long line, long column);
+    }
+
+    /**
+     * Byte classes.
+     */
+    private static final byte OTHER = 0;
+    private static final byte LETTER = 1;
+    private static final byte SPACE = 2;
+
+    /**
+     * Byte-to-class lookup table.
+     */
+    private static final byte[] CLASSES = new byte[256];
+
+    static {
+        for (var c = 'a'; c <= 'z'; c++) {
+            CLASSES[c] = LETTER;
+            CLASSES[Character.toUpperCase(c)] = LETTER;
+        }
+        // The characters matched by \s
+        for (var c : new char[] {' ', '\t', '\n', 0x0B, '\f', '\r'}) {
+            CLASSES[c] = SPACE;
+        }
+    }
+
+    /**
+     * Maximum size of a mapped file region.
+     */
+    static final int MAX_REGION_SIZE = 1 << 30;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Tokenize a file.
+     *
+     * @param path The file to tokenize
+     * @param sink The consumer of token spans
+     */
+    public static void tokenize(Path path, TokenSink sink) {
+        tokenize(path, MAX_REGION_SIZE, sink);
+    }
+
+    /**
+     * Tokenize a file mapping regions of up to a given size.
+     *
+     * @param path          The file to tokenize
+     * @param maxRegionSize The maximum size of a mapped region
+     * @param sink          The consumer of token spans
+     */
+    static void tokenize(Path path, int maxRegionSize, TokenSink sink) {
+        checkNotNull(path);
+        checkNotNull(sink);
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var position = new Position();
+            var start = 0L;
+            while (start < size) {
+                var region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(maxRegionSize, size - start));
+                // Unless last, end the region after its last whitespace byte
+                var end = region.limit();
+                if (start + end < size) {
+                    while (end > 0 && CLASSES[region.get(end - 1) & 0xFF] != SPACE) {
+                        end--;
+                    }
+                    if (end == 0) {
+                        // No whitespace at all: skip this (region-sized,
+                        // hence not a word) token up to the next region's
+                        // first whitespace
+                        position.skipping = true;
+                        start += region.limit();
+                        continue;
+                    }
+                }
+                scan(region, 0, end, start, position, sink);
+                start += end;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tokenize a buffer's remaining bytes.
+     *
+     * @param text The buffer to tokenize
+     * @param sink The consumer of token spans
+     */
+    public static void tokenize(ByteBuffer text, TokenSink sink) {
+        checkNotNull(text);
+        checkNotNull(sink);
+        scan(text, text.position(), text.limit(), -text.position(), new Position(), sink);
+    }
+
+    /**
+     * Return a token's text.
+     *
+     * @param text   The buffer holding the token
+     * @param offset The token's offset
+     * @param length The token's length
+     * @return The token as a string
+     */
+    public static String toString(ByteBuffer text, int offset, int length) {
+        var chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) text.get(offset + i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Copy a token, lowercased, into a character buffer.
+     *
+     * @param text   The buffer holding the token
+     * @param offset The token's offset
+     * @param length The token's length
+     * @param chars  The destination buffer (at least <code>length</code> long)
+     */
+    public static void toLowerCase(ByteBuffer text, int offset, int length, char[] chars) {
+        for (int i = 0; i < length; i++) {
+            // Tokens are letters only: setting bit 5 lowercases them
+            chars[i] = (char) (text.get(offset + i) | 0x20);
+        }
+    }
+
+    /**
+     * Scan a buffer range, which must not end inside a token.
+     *
+     * @param text     The buffer to scan
+     * @param from     The range's start
+     * @param to       The range's end
+     * @param base     The absolute offset of the buffer's first byte
+     * @param position The line tracking state, carried across ranges
+     * @param sink     The consumer of token spans
+     */
+    private static void scan(ByteBuffer text, int from, int to, long base, Position position, TokenSink sink) {
+        var i = from;
+        if (position.skipping) {
+            while (i < to && CLASSES[text.get(i) & 0xFF] != SPACE) {
+                i++;
+            }
+            position.skipping = false;
+        }
+        while (i < to) {
+            var b = text.get(i);
+            if (CLASSES[b & 0xFF] == SPACE) {
+                if (b == '\n') {
+                    position.line++;
+                    position.lineStart = base + i + 1;
+                }
+                i++;
+                continue;
+            }
+
+            // Consume the token, noting whether it's all letters
+            var start = i;
+            var letters = true;
+            byte byteClass;
+            while (i < to && (byteClass = CLASSES[text.get(i) & 0xFF]) != SPACE) {
+                letters &= byteClass == LETTER;
+                i++;
+            }
+            if (letters) {
+                sink.accept(text, start, i - start, position.line, base + start - position.lineStart + 1);
+            }
+        }
+    }
+
+    /**
+     * Current line and the absolute offset it starts at, and whether the
+     * next range starts in the middle of a skipped token.
+     */
+    private static final class Position {
+        long line = 1;
+        long lineStart;
+        boolean skipping;
+    }
+}
@@ -0,0 +1,159 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded selection of the <code>k</code> highest-ranked words passed to it.
+ * <p>
+ * Words are kept on a min-heap keyed by primitive rank (ties favoring
+ * alphabetically smaller words, as elsewhere) so that the current k-th best
+ * word sits at the root: a new word either loses against it immediately or
+ * replaces it in <code>O(log k)</code>. Selecting the top 5 of thousands of
+ * hits thus needs neither a full sort nor boxed rank lookups.
+ * </p>
+ */
+final class TopSuggestions implements SuggestionSink {
+
+    /**
+     * Maximum number of words retained.
+     */
+    private final int k;
+
+    /**
+     * Heap-ordered words.
+     */
+    private String[] words;
+
+    /**
+     * Heap-ordered ranks, parallel to <code>words</code>.
+     */
+    private int[] ranks;
+
+    /**
+     * Number of words on the heap.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param k The maximum number of words to retain (at least 1)
+     */
+    TopSuggestions(int k) {
+        checkArgument(k > 0);
+        this.k = k;
+        var capacity = Math.min(k, 16);
+        words = new String[capacity];
+        ranks = new int[capacity];
+    }
+
+    @Override
+    public void accept(String word, int rank) {
+        if (size < k) {
+            if (size == words.length) {
+                words = Arrays.copyOf(words, (int) Math.min((long) size * 2, k));
+                ranks = Arrays.copyOf(ranks, words.length);
+            }
+            words[size] = word;
+            ranks[size] = rank;
+            siftUp(size++);
+        } else if (isBetter(rank, word, ranks[0], words[0])) {
+            words[0] = word;
+            ranks[0] = rank;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Whether <code>k</code> words have been retained already.
+     *
+     * @return Whether the heap is full
+     */
+    boolean isFull() {
+        return size == k;
+    }
+
+    /**
+     * Whether no word has been retained.
+     *
+     * @return Whether the heap is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return the rank of the current k-th best word; words whose rank is lower
+     * can no longer make it into a full heap.
+     *
+     * @return The lowest retained rank
+     */
+    int lowestRank() {
+        return ranks[0];
+    }
+
+    /**
+     * Drain the retained words best first.
+     *
+     * @param distance The edit distance to attach to every suggestion
+     * @return The rank-ordered suggestions
+     */
+    List<Suggestion> drain(int distance) {
+        var suggestions = new Suggestion[size];
+        while (size > 0) {
+            suggestions[size - 1] = new Suggestion(words[0], ranks[0], distance);
+            size--;
+            words[0] = words[size];
+            ranks[0] = ranks[size];
+            words[size] = null;
+            siftDown(0);
+        }
+        return Arrays.asList(suggestions);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            var parent = (index - 1) / 2;
+            if (!isBetter(ranks[parent], words[parent], ranks[index], words[index])) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            var worst = index;
+            for (var child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                if (isBetter(ranks[worst], words[worst], ranks[child], words[child])) {
+                    worst = child;
+                }
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        var word = words[i];
+        words[i] = words[j];
+        words[j] = word;
+        var rank = ranks[i];
+        ranks[i] = ranks[j];
+        ranks[j] = rank;
+    }
+
+    /**
+     * Whether a word outranks another: higher rank first, then alphabetical.
+     */
+    private static boolean isBetter(int rank1, String word1, int rank2, String word2) {
+        return rank1 > rank2 || rank1 == rank2 && word1.compareTo(word2) < 0;
+    }
+}
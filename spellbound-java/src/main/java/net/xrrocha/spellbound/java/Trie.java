@@ -0,0 +1,132 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Compact, immutable trie over lowercase words. Nodes are ids into parallel
+ * arrays holding each node's letter, first child, next sibling and the id of
+ * the word ending at the node (if any). Node 0 is the root.
+ */
+final class Trie {
+
+    /**
+     * Marker for "no node" and "no word".
+     */
+    static final int NONE = -1;
+
+    /**
+     * Letter labelling the edge into each node.
+     */
+    final char[] letters;
+
+    /**
+     * First child of each node.
+     */
+    final int[] firstChild;
+
+    /**
+     * Next sibling of each node.
+     */
+    final int[] nextSibling;
+
+    /**
+     * Id of the word ending at each node.
+     */
+    final int[] wordIds;
+
+    /**
+     * Number of nodes in use.
+     */
+    final int size;
+
+    /**
+     * Length of the longest word.
+     */
+    final int maxDepth;
+
+    /**
+     * Build a trie from an array of lowercase words. Word ids are positions in
+     * the given array.
+     *
+     * @param words The words to build the trie from
+     */
+    Trie(String[] words) {
+        var capacity = 1;
+        var longest = 0;
+        for (var word : words) {
+            checkArgument(EditDistance.isLowercase(word), "Not a lowercase word: %s", word);
+            capacity += word.length();
+            longest = Math.max(longest, word.length());
+        }
+
+        var letters = new char[capacity];
+        var firstChild = new int[capacity];
+        var nextSibling = new int[capacity];
+        var wordIds = new int[capacity];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        Arrays.fill(wordIds, NONE);
+
+        var size = 1;
+        for (int id = 0; id < words.length; id++) {
+            var word = words[id];
+            var node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                var letter = word.charAt(i);
+                var child = firstChild[node];
+                while (child != NONE && letters[child] != letter) {
+                    child = nextSibling[child];
+                }
+                if (child == NONE) {
+                    child = size++;
+                    letters[child] = letter;
+                    nextSibling[child] = firstChild[node];
+                    firstChild[node] = child;
+                }
+                node = child;
+            }
+            wordIds[node] = id;
+        }
+
+        // Shared prefixes leave most of the worst-case capacity unused
+        this.letters = Arrays.copyOf(letters, size);
+        this.firstChild = Arrays.copyOf(firstChild, size);
+        this.nextSibling = Arrays.copyOf(nextSibling, size);
+        this.wordIds = Arrays.copyOf(wordIds, size);
+        this.size = size;
+        this.maxDepth = longest;
+    }
+
+    /**
+     * Relink every node's children in descending order of a per-node priority.
+     *
+     * @param priorities The priority of each node
+     */
+    void sortChildren(int[] priorities) {
+        var children = new int[EditDistance.ALPHABET_SIZE];
+        for (int node = 0; node < size; node++) {
+            var count = 0;
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                children[count++] = child;
+            }
+            // Insertion sort: there are at most 26 children
+            for (int i = 1; i < count; i++) {
+                var child = children[i];
+                var j = i - 1;
+                while (j >= 0 && priorities[children[j]] < priorities[child]) {
+                    children[j + 1] = children[j];
+                    j--;
+                }
+                children[j + 1] = child;
+            }
+            var next = NONE;
+            for (int i = count - 1; i >= 0; i--) {
+                nextSibling[children[i]] = next;
+                next = children[i];
+            }
+            firstChild[node] = next;
+        }
+    }
+}
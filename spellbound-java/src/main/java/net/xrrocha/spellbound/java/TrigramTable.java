@@ -0,0 +1,137 @@
+package net.xrrocha.spellbound.java;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Presence table of the letter trigrams occurring in a set of lowercase
+ * words, telling which letters may be inserted or replaced at a position of
+ * a candidate without creating a trigram no word has (e.g. the
+ * <em>qx</em> in <em>sqxare</em>). Such candidates can't be words, so
+ * generating and probing them is wasted work.
+ * <p>
+ * Words are padded with a boundary marker at each end, so that trigrams are
+ * positional: <em>^ng</em> (a word starting with <em>ng</em>) is told apart
+ * from <em>ng$</em>. Every bigram of a padded word lies within one of its
+ * trigrams, so bigrams need no table of their own. For each pair of
+ * symbols, three masks hold the letters that may follow them, sit between
+ * them or precede them; a position's allowed letters are the intersection of
+ * the (up to) three masks covering it, in constant time.
+ * </p>
+ */
+final class TrigramTable {
+
+    /**
+     * Mask of all 26 letters.
+     */
+    static final int ALL_LETTERS = (1 << 26) - 1;
+
+    /**
+     * Symbol standing for the word boundary (letters are <code>0</code> to
+     * <code>25</code>).
+     */
+    private static final int BOUNDARY = 26;
+
+    /**
+     * Number of symbols: letters and boundary.
+     */
+    private static final int SYMBOLS = 27;
+
+    /**
+     * Letters following each symbol pair, by <code>first * SYMBOLS + second</code>.
+     */
+    private final int[] following = new int[SYMBOLS * SYMBOLS];
+
+    /**
+     * Letters between each symbol pair, by <code>first * SYMBOLS + third</code>.
+     */
+    private final int[] between = new int[SYMBOLS * SYMBOLS];
+
+    /**
+     * Letters preceding each symbol pair, by <code>second * SYMBOLS + third</code>.
+     */
+    private final int[] preceding = new int[SYMBOLS * SYMBOLS];
+
+    /**
+     * Constructor
+     */
+    private TrigramTable() {
+    }
+
+    /**
+     * Build the trigram table of a dictionary's lowercase words (other words
+     * can't be reached from a normalized typo).
+     *
+     * @param dictionary The dictionary
+     * @return The trigram table
+     */
+    static TrigramTable of(Dictionary dictionary) {
+        checkNotNull(dictionary);
+        var table = new TrigramTable();
+        dictionary.forEach((word, rank) -> {
+            if (EditDistance.isLowercase(word)) {
+                table.add(word);
+            }
+        });
+        return table;
+    }
+
+    /**
+     * Record the trigrams of a (lowercase) word, boundaries included.
+     *
+     * @param word The word
+     */
+    private void add(String word) {
+        var length = word.length();
+        for (int i = -1; i < length - 1; i++) {
+            var first = i < 0 ? BOUNDARY : word.charAt(i) - 'a';
+            var second = word.charAt(i + 1) - 'a';
+            var third = i + 2 < length ? word.charAt(i + 2) - 'a' : BOUNDARY;
+            if (third != BOUNDARY) {
+                following[first * SYMBOLS + second] |= 1 << third;
+            }
+            between[first * SYMBOLS + third] |= 1 << second;
+            if (first != BOUNDARY) {
+                preceding[second * SYMBOLS + third] |= 1 << first;
+            }
+        }
+    }
+
+    /**
+     * Return the letters that, placed at a position of a candidate, create
+     * no trigram absent from every word. The letter currently at the
+     * position is disregarded.
+     *
+     * @param chars    The buffer holding the (lowercase) candidate
+     * @param length   The candidate's length
+     * @param position The position to place letters at
+     * @return The mask of allowed letters (bit <code>0</code> for
+     * <em>a</em>, <code>25</code> for <em>z</em>)
+     */
+    int allowedLetters(char[] chars, int length, int position) {
+        checkArgument(position >= 0 && position < length);
+        var previous = symbol(chars, length, position - 1);
+        var next = symbol(chars, length, position + 1);
+        var letters = between[previous * SYMBOLS + next];
+        if (position > 0) {
+            letters &= following[symbol(chars, length, position - 2) * SYMBOLS + previous];
+        }
+        if (position < length - 1) {
+            letters &= preceding[next * SYMBOLS + symbol(chars, length, position + 2)];
+        }
+        return letters;
+    }
+
+    /**
+     * Return the symbol at a position of a candidate padded with boundaries.
+     *
+     * @param chars    The buffer holding the candidate
+     * @param length   The candidate's length
+     * @param position The position, between <code>-1</code> and
+     *                 <code>length</code>
+     * @return The symbol
+     */
+    private static int symbol(char[] chars, int length, int position) {
+        return position < 0 || position >= length ? BOUNDARY : chars[position] - 'a';
+    }
+}
@@ -0,0 +1,24 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class AutomatonEngineTest {
+
+    private final Map<String, Integer> dictionary = CorrectionEngineTest.DICTIONARY;
+
+    @Test
+    public void prunesTopCorrections() {
+        var engine = new AutomatonEngine(RankTable.of(dictionary));
+
+        assertEquals(
+            List.of(new Suggestion("sleeping", 101079, 1), new Suggestion("sloping", 79015, 1)),
+            engine.getTopCorrections("sleping", 2));
+        assertEquals(
+            List.of(new Suggestion("spelling", 98993, 2)),
+            engine.getTopCorrections("spelinmg", 1));
+    }
+}
@@ -0,0 +1,51 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class BkTreeEngineTest {
+
+    private final Map<String, Integer> dictionary = CorrectionEngineTest.DICTIONARY;
+
+    @Test
+    public void reachesBeyondTwoEdits() {
+        var engine = new BkTreeEngine(RankTable.of(dictionary), 3);
+
+        assertTrue(new BkTreeEngine(RankTable.of(dictionary)).getCorrections("kauntyr").isEmpty());
+        assertEquals(List.of("country"), engine.getCorrections("kauntyr"));
+    }
+
+    @Test
+    public void groupsCorrectionsByDistance() {
+        var engine = new BkTreeEngine(RankTable.of(dictionary), 3);
+
+        var correctionsByDistance = engine.getCorrectionsByDistance("slping");
+
+        assertEquals(List.of(1, 2, 3), List.copyOf(correctionsByDistance.keySet()));
+        assertEquals(List.of("sloping", "sliping"), correctionsByDistance.get(1));
+        assertEquals(List.of("sleeping", "spiling"), correctionsByDistance.get(2));
+        assertEquals(List.of("spelling", "spewing"), correctionsByDistance.get(3));
+    }
+
+    @Test
+    public void reportsBuild() {
+        var engine = new BkTreeEngine(RankTable.of(dictionary), 3);
+
+        // Every word hangs at least one edge below the root, at most all of them
+        assertTrue(engine.depth() >= 1 && engine.depth() < dictionary.size());
+        assertTrue(engine.buildMillis() >= 0);
+        var wordBytes = dictionary.keySet().stream().mapToLong(String::length).sum();
+        assertTrue(engine.footprintBytes() > wordBytes + 16L * dictionary.size());
+        assertTrue(engine.report(), engine.report().startsWith("BK-tree: 10 nodes, depth " + engine.depth() +
+                                                                   ", max distance 3, built in "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveMaxDistance() {
+        new BkTreeEngine(RankTable.of(dictionary), 0);
+    }
+}
@@ -0,0 +1,78 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+    @Test
+    public void hasNoFalseNegatives() {
+        var words = randomWords(new Random(1), 10_000);
+        var filter = BloomFilter.of(words, 0.01);
+        for (var word : words) {
+            assertTrue(word, filter.mightContain(word.hashCode()));
+        }
+    }
+
+    @Test
+    public void approximatesFalsePositiveRate() {
+        var random = new Random(2);
+        var words = randomWords(random, 10_000);
+        var added = new HashSet<>(List.of(words));
+        for (var falsePositiveRate : new double[] {0.1, 0.01, 0.001}) {
+            var filter = BloomFilter.of(words, falsePositiveRate);
+            var falsePositives = 0;
+            var probes = 0;
+            for (var probe : randomWords(random, 200_000)) {
+                if (!added.contains(probe)) {
+                    probes++;
+                    if (filter.mightContain(probe.hashCode())) {
+                        falsePositives++;
+                    }
+                }
+            }
+            var actualRate = (double) falsePositives / probes;
+            assertTrue(falsePositiveRate + ": " + actualRate, actualRate < 1.5 * falsePositiveRate);
+        }
+    }
+
+    @Test
+    public void leavesCorrectionsUnchanged() {
+        var dictionary = RankTable.of(Map.of(
+            "sleeping", 101079,
+            "sliping", 0,
+            "sloping", 79015,
+            "spelling", 98993,
+            "spewing", 64515,
+            "spiling", 0
+        ));
+        for (var typo : new String[] {"speling", "slpng", "spelingx"}) {
+            var expected = new BruteForceEngine(dictionary, 1).getCorrections(typo);
+            assertEquals(expected, new BruteForceEngine(dictionary, 0.01).getCorrections(typo));
+            assertEquals(expected, new ScratchBufferEngine(dictionary, 0.01).getCorrections(typo));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidRates() {
+        new BloomFilter(10, 1.0);
+    }
+
+    private static String[] randomWords(Random random, int count) {
+        var words = new String[count];
+        for (int i = 0; i < count; i++) {
+            var chars = new char[3 + random.nextInt(10)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(chars);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,203 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class ConcurrentDictionaryTest {
+
+    private final Map<String, Integer> words = Map.of(
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515
+    );
+
+    @Test
+    public void addsRemovesAndRanksWords() {
+        var dictionary = ConcurrentDictionary.of(words);
+        assertEquals(4, dictionary.size());
+
+        assertTrue(dictionary.addWord("spieling", 12));
+        assertFalse(dictionary.addWord("spieling", 13));
+        assertEquals(12, dictionary.rank("spieling"));
+        assertEquals(12, dictionary.rank("xspielingx".toCharArray(), 1, 8));
+
+        assertTrue(dictionary.updateRank("spieling", 14));
+        assertFalse(dictionary.updateRank("speiling", 14));
+        assertEquals(14, dictionary.rank(new StringBuilder("spieling")));
+
+        assertTrue(dictionary.removeWord("spieling"));
+        assertFalse(dictionary.removeWord("spieling"));
+        assertFalse(dictionary.contains("spieling"));
+        assertEquals(4, dictionary.size());
+    }
+
+    @Test
+    public void copiesDictionaries() {
+        var dictionary = ConcurrentDictionary.copyOf(RankTable.of(words));
+        assertEquals(4, dictionary.size());
+        words.forEach((word, rank) -> assertEquals(word, rank.intValue(), dictionary.rank(word)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyWords() {
+        ConcurrentDictionary.of(words).addWord("", 1);
+    }
+
+    @Test
+    public void notifiesListeners() {
+        var dictionary = ConcurrentDictionary.of(words);
+        var changes = new ArrayList<String>();
+        dictionary.addListener((word, rank) -> changes.add(word + "=" + rank));
+
+        dictionary.addWord("spieling", 12);
+        dictionary.addWord("spieling", 13);
+        dictionary.updateRank("spieling", 14);
+        dictionary.removeWord("spieling");
+        dictionary.removeWord("spieling");
+        assertEquals(List.of("spieling=12", "spieling=14", "spieling=" + Dictionary.ABSENT), changes);
+    }
+
+    @Test
+    public void correctsWithLiveWords() {
+        var dictionary = ConcurrentDictionary.of(words);
+        var spellingCorrector = new SpellingCorrector(dictionary, BruteForceEngine::new).withCache(16);
+        assertEquals(List.of("spelling", "spewing"), spellingCorrector.getCorrections("speling").get());
+
+        // New words get past the prefilter, and cached corrections are discarded
+        dictionary.addWord("spieling", 99999);
+        assertEquals(List.of("spieling", "spelling", "spewing"), spellingCorrector.getCorrections("speling").get());
+
+        dictionary.updateRank("spewing", 100000);
+        assertEquals(List.of("spewing", "spieling", "spelling"), spellingCorrector.getCorrections("speling").get());
+
+        dictionary.removeWord("spelling");
+        assertEquals(List.of("spewing", "spieling"), spellingCorrector.getCorrections("speling").get());
+        assertEquals(Optional.empty(), spellingCorrector.getCorrections("spieling"));
+    }
+
+    @Test
+    public void discardsCorrectionsInFlightAcrossChanges() throws Exception {
+        var dictionary = ConcurrentDictionary.of(Map.of("sleeping", 101079, "spelling", 98993));
+        var entered = new CountDownLatch(1);
+        var released = new CountDownLatch(1);
+        var blocking = new AtomicBoolean(true);
+        var spellingCorrector = new SpellingCorrector(dictionary, d -> {
+            var engine = new BruteForceEngine(d);
+            // Hold the first correction until released
+            return (typo, distance, sink) -> {
+                if (blocking.getAndSet(false)) {
+                    entered.countDown();
+                    try {
+                        released.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                engine.collect(typo, distance, sink);
+            };
+        }).withCache(100);
+
+        var inFlight = CompletableFuture.supplyAsync(() -> spellingCorrector.getCorrections("speling"));
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        // The change isn't hidden by the in-flight correction, nor by its result
+        dictionary.addWord("spewing", 1000);
+        assertEquals(List.of("spelling", "spewing"), spellingCorrector.getCorrections("speling").get());
+        released.countDown();
+        inFlight.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("spelling", "spewing"), spellingCorrector.getCorrections("speling").get());
+    }
+
+    @Test
+    public void stopsListeningToReplacedDictionaries() {
+        var dictionary = ConcurrentDictionary.of(words);
+        var spellingCorrector = new SpellingCorrector(dictionary, BruteForceEngine::new).withCache(16);
+        // The engine's prefilter and the cache follow the dictionary
+        assertEquals(2, dictionary.listenerCount());
+        for (int i = 0; i < 3; i++) {
+            spellingCorrector.reload(dictionary);
+        }
+        assertEquals(2, dictionary.listenerCount());
+        spellingCorrector.reload(RankTable.of(words));
+        assertEquals(0, dictionary.listenerCount());
+        assertEquals(List.of("spelling", "spewing"), spellingCorrector.getCorrections("speling").get());
+
+        // Changes to the replaced dictionary no longer discard cached corrections
+        dictionary.addWord("spieling", 99999);
+        assertEquals(1, spellingCorrector.getCache().get().size());
+        assertEquals(List.of("spelling", "spewing"), spellingCorrector.getCorrections("speling").get());
+    }
+
+    @Test
+    public void refusesSnapshotEngines() {
+        var dictionary = ConcurrentDictionary.of(words);
+        for (var engineType : EngineType.values()) {
+            if (engineType == EngineType.BRUTE_FORCE) {
+                continue;
+            }
+            try {
+                new SpellingCorrector(dictionary, engineType.factory());
+                fail(engineType.name());
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("snapshot"));
+            }
+        }
+    }
+
+    @Test
+    public void readsWhileWriting() throws Exception {
+        var dictionary = ConcurrentDictionary.of(words);
+        var spellingCorrector = new SpellingCorrector(dictionary,
+                                                      d -> new BruteForceEngine(d, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false));
+        var done = new AtomicBoolean();
+
+        // Readers always find the stable words, whatever else comes and goes
+        var readers = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < 3; i++) {
+            readers.add(CompletableFuture.runAsync(() -> {
+                while (!done.get()) {
+                    var corrections = spellingCorrector.getCorrections("sleping").get();
+                    assertTrue(corrections.toString(), corrections.containsAll(List.of("sleeping", "sloping")));
+                }
+            }));
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            var word = "sle" + (char) ('a' + i % 26) + "ping";
+            if (words.containsKey(word)) {
+                continue;
+            }
+            if (!dictionary.addWord(word, i)) {
+                dictionary.updateRank(word, i);
+            }
+            if (i % 3 == 0) {
+                dictionary.removeWord(word);
+            }
+        }
+        done.set(true);
+        for (var reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+
+        // Every surviving word is found once writers are done
+        var corrections = spellingCorrector.getCorrections("sleping").get();
+        dictionary.forEach((word, rank) -> {
+            if (word.startsWith("sle") && word.endsWith("ping") && word.length() == 8) {
+                assertTrue(word, corrections.contains(word));
+            }
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class CorrectionBudgetTest {
+
+    private final Map<String, Integer> dictionary = Map.of(
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515
+    );
+
+    private final List<Function<Dictionary, ? extends CorrectionEngine>> engineFactories = List.of(
+        d -> new BruteForceEngine(d, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false),
+        BruteForceEngine::new,
+        ScratchBufferEngine::new,
+        SymmetricDeleteEngine::new
+    );
+
+    @Test
+    public void countsEdits1Candidates() {
+        assertEquals(SpellingCorrector.edits1("speling").count(), CorrectionBudget.edits1Count(7));
+        assertEquals(SpellingCorrector.edits1("a").count(), CorrectionBudget.edits1Count(1));
+        assertEquals(SpellingCorrector.edits1("").count(), CorrectionBudget.edits1Count(0));
+    }
+
+    @Test
+    public void completesWithinAmpleBudget() {
+        for (var engineFactory : engineFactories) {
+            var spellingCorrector = new SpellingCorrector(dictionary, engineFactory);
+            for (var typo : List.of("speling", "sxpeling", "slepingg", "xqzkwv")) {
+                var corrections = spellingCorrector.getCorrections(typo, Duration.ofMinutes(1)).get();
+                assertFalse(typo, corrections.isPartial());
+                assertEquals(typo, spellingCorrector.getCorrections(typo).get(), corrections.getCorrections());
+            }
+            assertTrue(spellingCorrector.getCorrections("spelling", CorrectionBudget.ofCandidates(0)).isEmpty());
+        }
+    }
+
+    @Test
+    public void alwaysCompletesDistanceOne() {
+        for (var engineFactory : engineFactories) {
+            var spellingCorrector = new SpellingCorrector(dictionary, engineFactory);
+            assertEquals(new BoundedCorrections(List.of("spelling", "spewing"), false),
+                         spellingCorrector.getCorrections("speling", expiredBudget()).get());
+            assertEquals(new BoundedCorrections(List.of(), true),
+                         spellingCorrector.getCorrections("sxpeling", expiredBudget()).get());
+        }
+    }
+
+    @Test
+    public void returnsBestSoFarWhenOutOfCandidates() {
+        // Deleting the "x" is the second edit expanded, finding both words
+        var budget = 2 * CorrectionBudget.edits1Count("sxpeling".length() - 1);
+        for (var engineFactory : List.<Function<Dictionary, ? extends CorrectionEngine>>of(
+            d -> new BruteForceEngine(d, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false),
+            ScratchBufferEngine::new)) {
+            var spellingCorrector = new SpellingCorrector(dictionary, engineFactory);
+            assertEquals(new BoundedCorrections(List.of("spelling", "spewing"), true),
+                         spellingCorrector.getCorrections("sxpeling", CorrectionBudget.ofCandidates(budget)).get());
+            assertEquals(new BoundedCorrections(List.of(), true),
+                         spellingCorrector.getCorrections("sxpeling", CorrectionBudget.ofCandidates(budget - 1)).get());
+        }
+    }
+
+    @Test
+    public void stopsLongTyposAtDeadline() {
+        var typo = "xqzkwvjxqzkwvjxqzkwvjxqzk";
+        // Trigram pruning makes short work of gibberish: search exhaustively
+        for (var engineFactory : List.<Function<Dictionary, ? extends CorrectionEngine>>of(
+            d -> new BruteForceEngine(d, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false),
+            BruteForceEngine::new,
+            d -> new ScratchBufferEngine(d, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false))) {
+            var spellingCorrector = new SpellingCorrector(dictionary, engineFactory);
+            var startTime = System.nanoTime();
+            var corrections = spellingCorrector.getCorrections(typo, Duration.ofMillis(20)).get();
+            var elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            assertTrue(corrections.isPartial());
+            assertTrue(corrections.getCorrections().isEmpty());
+            // Generous bound: an unbounded search takes seconds
+            assertTrue(String.valueOf(elapsedMillis), elapsedMillis < 1000);
+        }
+    }
+
+    @Test
+    public void staysExhausted() {
+        var budget = CorrectionBudget.ofCandidates(10);
+        assertTrue(budget.spend(10));
+        assertFalse(budget.isExhausted());
+        assertFalse(budget.spend(1));
+        assertTrue(budget.isExhausted());
+        assertFalse(budget.spend(0));
+        assertEquals(11, budget.getCandidateCount());
+
+        assertFalse(CorrectionBudget.within(Duration.ofMinutes(1)).isExhausted());
+        assertTrue(expiredBudget().isExhausted());
+    }
+
+    private static CorrectionBudget expiredBudget() {
+        var budget = CorrectionBudget.within(Duration.ZERO);
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return budget;
+    }
+}
@@ -0,0 +1,170 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class CorrectionCacheTest {
+
+    @Test
+    public void countsHitsAndMisses() {
+        var cache = new CorrectionCache(10);
+        var loads = new AtomicInteger();
+
+        assertEquals(List.of("spelling"), cache.get("speling", typo -> {
+            loads.incrementAndGet();
+            return List.of("spelling");
+        }));
+        assertEquals(List.of("spelling"), cache.get("speling", typo -> List.of("wrong")));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void cachesEmptyCorrections() {
+        var cache = new CorrectionCache(10);
+        var loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of(), cache.get("xqzkwv", typo -> {
+                loads.incrementAndGet();
+                return List.of();
+            }));
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.hitCount());
+    }
+
+    @Test
+    public void staysWithinBounds() {
+        var cache = new CorrectionCache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.get("typo" + i, typo -> List.of());
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.evictionCount());
+    }
+
+    @Test
+    public void keepsFrequentTyposThroughScans() {
+        var cache = new CorrectionCache(100);
+        var frequent = List.of("teh", "recieve", "seperate", "definately", "occured");
+        var loads = new AtomicInteger();
+
+        // Popular typos recur every 200 one-off typos: more than an LRU cache
+        // of this size could retain in between. Once they've been seen a few
+        // times, they must never be reloaded
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 1000) {
+                loads.set(0);
+            }
+            if (i % 200 == 0) {
+                frequent.forEach(typo -> cache.get(typo, t -> {
+                    loads.incrementAndGet();
+                    return List.of();
+                }));
+            }
+            cache.get("oneoff" + i, typo -> List.of());
+        }
+
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    public void coalescesConcurrentLookups() throws Exception {
+        var cache = new CorrectionCache(10);
+        var loads = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var first = executor.submit(() -> cache.get("speling", typo -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return List.of("spelling");
+            }));
+            started.await();
+
+            var others = List.of(
+                executor.submit(() -> cache.get("speling", typo -> {
+                    loads.incrementAndGet();
+                    return List.of("wrong");
+                })),
+                executor.submit(() -> cache.get("speling", typo -> {
+                    loads.incrementAndGet();
+                    return List.of("wrong");
+                })));
+
+            // Let the followers reach the ongoing computation before releasing it
+            while (cache.coalescedCount() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals(List.of("spelling"), first.get());
+            for (var other : others) {
+                assertEquals(List.of("spelling"), other.get());
+            }
+            assertEquals(1, loads.get());
+            assertEquals(3, cache.missCount());
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void discardsCorrectionsComputedAcrossClear() throws Exception {
+        var cache = new CorrectionCache(10);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var stale = executor.submit(() -> cache.get("speling", typo -> {
+                started.countDown();
+                await(release);
+                return List.of("spelling");
+            }));
+            started.await();
+
+            // Lookups after the clear neither join nor see the stale computation
+            cache.clear();
+            assertEquals(List.of("spewing"), cache.get("speling", typo -> List.of("spewing")));
+            release.countDown();
+            assertEquals(List.of("spelling"), stale.get());
+            assertEquals(List.of("spewing"), cache.get("speling", typo -> List.of("wrong")));
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void propagatesLoaderFailures() {
+        new CorrectionCache(10).get("speling", typo -> {
+            throw new IllegalStateException();
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package net.xrrocha.spellbound.java;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class CorrectionDaemonTest {
+
+    private final Map<String, Integer> dictionary = Map.of(
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515
+    );
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void respondsToEachLine() {
+        var daemon = new CorrectionDaemon(new SpellingCorrector(dictionary), executor, 8);
+
+        assertEquals("speling\tspelling,spewing\n\n" +
+                         "\n" +
+                         "sleping\tsleeping,sloping\nSpeling\tspelling,spewing\n\n" +
+                         "\n",
+                     serve(daemon, "speling is\nspelling\nsleping Speling, sleping 42 Speling xqzkwv\n\n"));
+    }
+
+    @Test
+    public void keepsRequestOrder() {
+        // The first request takes longest to correct
+        var spellingCorrector = new SpellingCorrector(dictionary, d -> (typo, distance, sink) -> {
+            if (typo.equals("speling")) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sink.accept("spelling", 98993);
+        });
+
+        var input = new StringBuilder("speling\n");
+        var expected = new StringBuilder("speling\tspelling\n\n");
+        for (int i = 0; i < 100; i++) {
+            input.append("speeling").append(i % 10 == 0 ? " speling" : "").append('\n');
+            expected.append("speeling\tspelling\n").append(i % 10 == 0 ? "speling\tspelling\n" : "").append('\n');
+        }
+
+        for (var maxInFlight : new int[] {1, 3, 64}) {
+            var daemon = new CorrectionDaemon(spellingCorrector, executor, maxInFlight);
+            assertEquals(expected.toString(), serve(daemon, input.toString()));
+        }
+    }
+
+    @Test
+    public void servesPipelinedConnections() throws Exception {
+        var daemon = new CorrectionDaemon(new SpellingCorrector(dictionary), executor, 4);
+        Thread listener;
+        try (var serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            listener = new Thread(() -> daemon.listen(serverSocket));
+            listener.start();
+
+            for (int connection = 0; connection < 3; connection++) {
+                try (var socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+                    // Send every request before reading any response
+                    var output = socket.getOutputStream();
+                    for (int i = 0; i < 200; i++) {
+                        output.write((i % 2 == 0 ? "speling\n" : "sleeping sleping\n").getBytes(UTF_8));
+                    }
+                    socket.shutdownOutput();
+
+                    var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+                    for (int i = 0; i < 200; i++) {
+                        assertEquals(i % 2 == 0 ? "speling\tspelling,spewing" : "sleping\tsleeping,sloping",
+                                     reader.readLine());
+                        assertEquals("", reader.readLine());
+                    }
+                    assertEquals(null, reader.readLine());
+                }
+            }
+        }
+
+        // Closing the server socket stops listening
+        listener.join(10_000);
+        assertEquals(false, listener.isAlive());
+    }
+
+    @Test
+    public void closesConnectionOnFailure() throws Exception {
+        var spellingCorrector = new SpellingCorrector(dictionary, d -> (typo, distance, sink) -> {
+            if (typo.equals("xqzkwv")) {
+                throw new IllegalStateException("Engine failure");
+            }
+            sink.accept("spelling", 98993);
+        });
+        var daemon = new CorrectionDaemon(spellingCorrector, executor, 4);
+        Thread listener;
+        try (var serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            listener = new Thread(() -> daemon.listen(serverSocket));
+            listener.start();
+
+            try (var socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+                // The connection is left open by the client
+                socket.setSoTimeout(10_000);
+                socket.getOutputStream().write("speling\nxqzkwv\nspeling\n".getBytes(UTF_8));
+
+                var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+                assertEquals("speling\tspelling", reader.readLine());
+                assertEquals("", reader.readLine());
+                assertEquals(null, reader.readLine());
+            }
+        }
+        listener.join(10_000);
+    }
+
+    @Test
+    public void boundsRequestsInFlight() {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var spellingCorrector = new SpellingCorrector(dictionary, d -> (typo, distance, sink) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            sink.accept("spelling", 98993);
+        });
+
+        var input = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            input.append("speling\n");
+        }
+        for (var maxInFlight : new int[] {1, 2}) {
+            maxRunning.set(0);
+            serve(new CorrectionDaemon(spellingCorrector, executor, maxInFlight), input.toString());
+            assertTrue(maxRunning.toString(), maxRunning.get() > 0 && maxRunning.get() <= maxInFlight);
+        }
+    }
+
+    private static String serve(CorrectionDaemon daemon, String input) {
+        var output = new ByteArrayOutputStream();
+        daemon.serve(new ByteArrayInputStream(input.getBytes(UTF_8)), output);
+        return output.toString(UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Cases every {@link EngineType engine} must pass. Engine-specific cases live
+ * in each engine's own test.
+ */
+@RunWith(Parameterized.class)
+public class CorrectionEngineTest {
+
+    static final Map<String, Integer> DICTIONARY = Map.of(
+        "centry", 12463,
+        "contra", 93053,
+        "country", 105902,
+        "ricksha", 0,
+        "sleeping", 101079,
+        "sliping", 0,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515,
+        "spiling", 0
+    );
+
+    @Parameters(name = "{0}")
+    public static EngineType[] engineTypes() {
+        return EngineType.values();
+    }
+
+    @Parameter
+    public EngineType engineType;
+
+    @Test
+    public void yieldsEmptyOnDictionaryWord() {
+        var spellingCorrector = new SpellingCorrector(DICTIONARY, engineType.factory());
+
+        assertFalse(spellingCorrector.getCorrections("spelling").isPresent());
+    }
+
+    @Test
+    public void yieldsCorrectionsOnOneTypo() {
+        var spellingCorrector = new SpellingCorrector(DICTIONARY, engineType.factory());
+
+        assertEquals(List.of("spelling", "spewing", "spiling"), spellingCorrector.getCorrections("speling").get());
+    }
+
+    @Test
+    public void yieldsCorrectionsOnTwoTypos() {
+        var spellingCorrector = new SpellingCorrector(DICTIONARY, engineType.factory());
+
+        assertEquals(List.of("spelling", "spewing", "spiling"), spellingCorrector.getCorrections("spelinmg").get());
+    }
+
+    @Test
+    public void yieldsNoCorrectionsOnGibberish() {
+        var spellingCorrector = new SpellingCorrector(DICTIONARY, engineType.factory());
+
+        assertTrue(spellingCorrector.getCorrections("xwphjwl").get().isEmpty());
+    }
+
+    @Test
+    public void agreesWithBruteForce() {
+        var bruteForce = new BruteForceEngine(RankTable.of(DICTIONARY));
+        var engine = engineType.factory().apply(RankTable.of(DICTIONARY));
+
+        List.of("cuntry", "contry", "centyr", "ocntra", "slepin", "sipling", "rikcsha", "sploing", "xwphjwl", "a", "zz")
+            .forEach(typo -> assertEquals(typo, bruteForce.getCorrections(typo), engine.getCorrections(typo)));
+    }
+
+    @Test
+    public void findsTransposeThenInsertPairs() {
+        // "ca" -> "ac" -> "abc": a transpose followed by an insert
+        var engine = engineType.factory().apply(RankTable.of(Map.of("abc", 1, "abd", 2)));
+
+        assertEquals(List.of("abc"), engine.getCorrections("ca"));
+    }
+}
@@ -0,0 +1,114 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+public class CorrectionListenerTest {
+
+    private final Map<String, Integer> dictionary = Map.of(
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515
+    );
+
+    // Deletes, transposes, replaces and inserts of a 7-letter typo
+    private static final long EDITS1_COUNT = 7 + 6 + 26 * 7 + 26 * 8;
+
+    @Test
+    public void reportsBruteForceCorrections() {
+        var metrics = new ArrayList<CorrectionMetrics>();
+        var spellingCorrector = new SpellingCorrector(dictionary, d -> new BruteForceEngine(d, 1, false))
+            .withListener(metrics::add);
+
+        assertEquals(List.of("spelling", "spewing"), spellingCorrector.getCorrections("Speling").get());
+        var speling = metrics.get(0);
+        assertEquals("speling", speling.getWord());
+        assertFalse(speling.isKnown());
+        assertEquals(1, speling.getTier());
+        assertEquals(2, speling.getSuggestionCount());
+        assertEquals(EDITS1_COUNT, speling.getCandidateCount());
+        assertEquals(SpellingCorrector.edits1("speling").distinct().count(), speling.getProbeCount());
+        assertEquals(2, speling.getHitCount());
+        assertTrue(speling.getKnownNanos() > 0);
+        assertTrue(speling.getLatencyNanos() >= speling.getKnownNanos());
+
+        // No distance-1 words: the edits2 fallback is taken
+        spellingCorrector.getCorrections("sxpeling");
+        assertEquals(2, metrics.get(1).getTier());
+        assertTrue(metrics.get(1).getCandidateCount() > metrics.get(1).getProbeCount());
+
+        spellingCorrector.getCorrections("sleeping");
+        assertTrue(metrics.get(2).isKnown());
+        assertEquals(0, metrics.get(2).getTier());
+        assertEquals(0, metrics.get(2).getCandidateCount());
+
+        // Gibberish searches every tier in vain
+        spellingCorrector.getCorrections("xqzkwv");
+        assertEquals(CorrectionEngine.DEFAULT_MAX_DISTANCE, metrics.get(3).getTier());
+        assertEquals(0, metrics.get(3).getSuggestionCount());
+    }
+
+    @Test
+    public void reportsScratchBufferCorrections() {
+        var metrics = new ArrayList<CorrectionMetrics>();
+        var spellingCorrector = new SpellingCorrector(dictionary, d -> new ScratchBufferEngine(d, 1, false))
+            .withListener(metrics::add);
+
+        assertEquals(1, spellingCorrector.getCorrections("speling", 1).get().size());
+        var speling = metrics.get(0);
+        assertEquals(1, speling.getTier());
+        assertEquals(1, speling.getSuggestionCount());
+        assertEquals(EDITS1_COUNT, speling.getCandidateCount());
+        assertEquals(EDITS1_COUNT, speling.getProbeCount());
+        // Inserting an "l" at either of two positions yields "spelling"
+        assertEquals(3, speling.getHitCount());
+        assertEquals(0, speling.getKnownNanos());
+    }
+
+    @Test
+    public void reportsCachedCorrections() {
+        var metrics = new ArrayList<CorrectionMetrics>();
+        var spellingCorrector = new SpellingCorrector(dictionary).withCache(16).withListener(metrics::add);
+
+        spellingCorrector.getCorrections("sleping");
+        spellingCorrector.getCorrections("sleping");
+        assertTrue(metrics.get(0).getCandidateCount() > 0);
+        assertEquals(0, metrics.get(1).getCandidateCount());
+        assertEquals(1, metrics.get(1).getTier());
+        assertEquals(2, metrics.get(1).getSuggestionCount());
+    }
+
+    @Test
+    public void emitsFlightRecorderEvents() throws Exception {
+        var spellingCorrector = new SpellingCorrector(dictionary);
+        var file = Files.createTempFile("spellbound", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("net.xrrocha.spellbound.Correction");
+            recording.start();
+            spellingCorrector.getCorrections("speling");
+            spellingCorrector.getCorrections("spelling");
+            recording.stop();
+            recording.dump(file);
+
+            var events = RecordingFile.readAllEvents(file);
+            assertEquals(2, events.size());
+            assertEquals("speling", events.get(0).getString("word"));
+            assertEquals(1, events.get(0).getInt("tier"));
+            assertEquals(2, events.get(0).getInt("suggestionCount"));
+            assertEquals(EDITS1_COUNT, events.get(0).getLong("candidateCount"));
+            assertTrue(events.get(1).getBoolean("known"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package net.xrrocha.spellbound.java;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class CorrectionServerTest {
+
+    private final Map<String, Integer> dictionary = Map.of(
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515
+    );
+
+    private CorrectionServer server;
+
+    @After
+    public void stopServer() {
+        if (server != null) {
+            server.stop(Duration.ZERO);
+        }
+    }
+
+    @Test
+    public void correctsSingleWords() throws Exception {
+        start(new SpellingCorrector(dictionary), 2, 8);
+
+        assertEquals(new Response(200, "{\"word\":\"speling\",\"known\":false,\"corrections\":[\"spelling\",\"spewing\"]}"),
+                     request("GET", "/correct?word=Speling", null));
+        assertEquals(new Response(200, "{\"word\":\"sleeping\",\"known\":true,\"corrections\":[]}"),
+                     request("GET", "/correct?word=sleeping", null));
+        assertEquals(new Response(200, "{\"word\":\"xqzkwv\",\"known\":false,\"corrections\":[]}"),
+                     request("GET", "/correct?word=xqzkwv", null));
+        assertTrue(request("GET", "/health", null).body.startsWith("{\"status\":\"ok\",\"requests\":4,"));
+    }
+
+    @Test
+    public void correctsBatches() throws Exception {
+        start(new SpellingCorrector(dictionary), 2, 8);
+
+        assertEquals(
+            new Response(200, "{\"results\":[" +
+                "{\"word\":\"sleping\",\"known\":false,\"corrections\":[\"sleeping\",\"sloping\"]}," +
+                "{\"word\":\"spelling\",\"known\":true,\"corrections\":[]}]}"),
+            request("POST", "/batch", "[\"sleping\", \"SPELLING\", \"Sleping\"]"));
+        assertEquals(new Response(200, "{\"results\":[]}"), request("POST", "/batch", " [ ] "));
+    }
+
+    @Test
+    public void rejectsInvalidRequests() throws Exception {
+        start(new SpellingCorrector(dictionary), 2, 8);
+
+        assertEquals(400, request("GET", "/correct?word=sp3ling", null).status);
+        assertEquals(400, request("GET", "/correct", null).status);
+        assertEquals(400, request("POST", "/batch", "[\"speling\"").status);
+        assertEquals(400, request("POST", "/batch", "{\"word\":\"speling\"}").status);
+        assertEquals(405, request("POST", "/correct?word=speling", "").status);
+        assertEquals(405, request("GET", "/batch", null).status);
+
+        var words = new ArrayList<String>();
+        for (int i = 0; i <= CorrectionServer.MAX_BATCH_SIZE; i++) {
+            words.add("word");
+        }
+        assertEquals(413, request("POST", "/batch", Json.array(new StringBuilder(), words).toString()).status);
+    }
+
+    @Test
+    public void rejectsRequestsBeyondQueueCapacity() throws Exception {
+        // Each correction blocks until released
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        start(new SpellingCorrector(dictionary, d -> (typo, distance, sink) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), 1, 1);
+
+        // One request occupies the only worker...
+        var running = CompletableFuture.supplyAsync(() -> request("GET", "/correct?word=speling", null));
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        // ...so of three more, one takes the only queue slot and two are shed
+        var pending = new ArrayList<CompletableFuture<Response>>();
+        for (var word : List.of("sleping", "spewng", "slopng")) {
+            pending.add(CompletableFuture.supplyAsync(() -> request("GET", "/correct?word=" + word, null)));
+        }
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pending.stream().filter(CompletableFuture::isDone).count() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        var statuses = new ArrayList<Integer>();
+        for (var future : pending) {
+            statuses.add(future.get(10, TimeUnit.SECONDS).status);
+        }
+        statuses.sort(null);
+        assertEquals(List.of(200, 503, 503), statuses);
+        assertEquals(200, running.get(10, TimeUnit.SECONDS).status);
+        assertTrue(request("GET", "/health", null).body.contains("\"rejected\":2,"));
+    }
+
+    @Test
+    public void completesPendingRequestsOnStop() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        start(new SpellingCorrector(dictionary, d -> (typo, distance, sink) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sink.accept("spelling", 98993);
+        }), 1, 1);
+
+        var running = CompletableFuture.supplyAsync(() -> request("GET", "/correct?word=speling", null));
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        // Stopping waits for the running request
+        var stopped = CompletableFuture.runAsync(() -> server.stop(Duration.ofSeconds(10)));
+        Thread.sleep(100);
+        release.countDown();
+        stopped.get(10, TimeUnit.SECONDS);
+        assertEquals(new Response(200, "{\"word\":\"speling\",\"known\":false,\"corrections\":[\"spelling\"]}"),
+                     running.get(10, TimeUnit.SECONDS));
+    }
+
+    private void start(SpellingCorrector spellingCorrector, int threads, int queueCapacity) {
+        server = new CorrectionServer(spellingCorrector, new InetSocketAddress("127.0.0.1", 0),
+                                      threads, queueCapacity);
+        server.start();
+    }
+
+    private Response request(String method, String path, String body) {
+        try {
+            var url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+            var connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                try (var output = connection.getOutputStream()) {
+                    output.write(body.getBytes(UTF_8));
+                }
+            }
+            var status = connection.getResponseCode();
+            var input = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            try (input) {
+                return new Response(status, new String(input.readAllBytes(), UTF_8));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static final class Response {
+
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Response &&
+                ((Response) other).status == status && ((Response) other).body.equals(body);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * status + body.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return status + " " + body;
+        }
+    }
+}
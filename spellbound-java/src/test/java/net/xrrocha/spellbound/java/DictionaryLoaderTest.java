@@ -0,0 +1,108 @@
+package net.xrrocha.spellbound.java;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DictionaryLoaderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void loadsValidWords() throws IOException {
+        var file = folder.newFile("dictionary.tsv").toPath();
+        Files.writeString(file, "the\t106295\nCountry\t105902\r\nspelling\t+98993\n\ntriose\t1");
+
+        var problems = new ArrayList<String>();
+        var dictionary = DictionaryLoader.load(file, problems::add);
+
+        assertEquals(List.of(), problems);
+        assertEquals(Map.of("the", 106295, "Country", 105902, "spelling", 98993, "triose", 1), toMap(dictionary));
+    }
+
+    @Test
+    public void skipsNonAlphabeticAndUnrankedWords() throws IOException {
+        var file = folder.newFile("dictionary.tsv").toPath();
+        Files.writeString(file, "the\t106295\nneo42\t7\nmaybe\t0\nnever\t-3\ncafé\t5\n\t9\n");
+
+        var problems = new ArrayList<String>();
+        var dictionary = DictionaryLoader.load(file, problems::add);
+
+        assertEquals(List.of(), problems);
+        assertEquals(Map.of("the", 106295), toMap(dictionary));
+    }
+
+    @Test
+    public void reportsMalformedLines() throws IOException {
+        var file = folder.newFile("dictionary.tsv").toPath();
+        Files.writeString(file, "the\t106295\ncountry\nspelling\t98x93\nsloping\t\n" +
+            "huge\t2147483648\nthe\t3\nsleeping\t101079\n");
+
+        var problems = new ArrayList<String>();
+        var dictionary = DictionaryLoader.load(file, problems::add);
+
+        assertEquals(
+            List.of(
+                "line 2: missing rank: country",
+                "line 3: invalid rank: 98x93",
+                "line 4: invalid rank: ",
+                "line 5: invalid rank: 2147483648",
+                "line 6: duplicate word"),
+            problems);
+        assertEquals(Map.of("the", 106295, "sleeping", 101079), toMap(dictionary));
+    }
+
+    @Test
+    public void mergesChunksInOrder() throws IOException {
+        var file = folder.newFile("dictionary.tsv").toPath();
+        var lines = new StringBuilder();
+        var expected = new HashMap<String, Integer>();
+        for (int i = 1; i <= 5000; i++) {
+            var word = Integer.toString(i, 26).chars()
+                .map(c -> Character.isDigit(c) ? 'a' + c - '0' : c + 10)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+            if (i % 1000 == 0) {
+                lines.append(word).append("\toops\n");
+            } else {
+                lines.append(word).append('\t').append(i).append('\n');
+                expected.put(word, i);
+            }
+        }
+        Files.writeString(file, lines);
+
+        // Tiny chunks exercise boundary alignment and line numbering
+        var problems = new ArrayList<String>();
+        RankTable dictionary;
+        try (var channel = FileChannel.open(file, READ)) {
+            dictionary = DictionaryLoader.load(channel, 97, problems::add);
+        }
+
+        assertEquals(
+            List.of(
+                "line 1000: invalid rank: oops",
+                "line 2000: invalid rank: oops",
+                "line 3000: invalid rank: oops",
+                "line 4000: invalid rank: oops",
+                "line 5000: invalid rank: oops"),
+            problems);
+        assertEquals(expected, toMap(dictionary));
+    }
+
+    private static Map<String, Integer> toMap(Dictionary dictionary) {
+        var map = new HashMap<String, Integer>();
+        dictionary.forEach(map::put);
+        return map;
+    }
+}
@@ -0,0 +1,140 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DictionaryWatcherTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, Integer> words = Map.of(
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515
+    );
+
+    private final Map<String, Integer> newWords = Map.of(
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spieling", 99999,
+        "spewing", 64515
+    );
+
+    @Test
+    public void reloadsSharedCorrectors() {
+        var spellingCorrector = new SpellingCorrector(words, BruteForceEngine::new);
+        var cachingCorrector = spellingCorrector.withCache(16);
+        assertEquals(1, cachingCorrector.getVersion());
+        assertEquals(List.of("spelling", "spewing"), cachingCorrector.getCorrections("speling").get());
+
+        assertEquals(2, spellingCorrector.reload(RankTable.of(newWords)));
+        assertEquals(2, cachingCorrector.getVersion());
+        assertEquals(List.of("spieling", "spewing"), cachingCorrector.getCorrections("speling").get());
+        assertEquals(Optional.empty(), spellingCorrector.getCorrections("spieling"));
+        assertTrue(spellingCorrector.contains("spieling"));
+    }
+
+    @Test
+    public void finishesInFlightCorrectionsOnOldVersion() throws Exception {
+        var entered = new CountDownLatch(1);
+        var released = new CountDownLatch(1);
+        var spellingCorrector = new SpellingCorrector(words, dictionary -> {
+            var engine = new BruteForceEngine(dictionary);
+            // Hold corrections against the first version until released
+            return dictionary.contains("spelling") ?
+                (typo, distance, sink) -> {
+                    entered.countDown();
+                    try {
+                        released.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    engine.collect(typo, distance, sink);
+                } :
+                engine;
+        });
+
+        var inFlight = CompletableFuture.supplyAsync(() -> spellingCorrector.getCorrections("speling"));
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        spellingCorrector.reload(RankTable.of(newWords));
+        assertEquals(List.of("spieling", "spewing"), spellingCorrector.getCorrections("speling").get());
+
+        released.countDown();
+        assertEquals(List.of("spelling", "spewing"), inFlight.get(10, TimeUnit.SECONDS).get());
+    }
+
+    @Test
+    public void reloadsChangedFile() throws Exception {
+        var file = folder.newFile("dictionary.tsv").toPath();
+        write(file, words);
+        var spellingCorrector = new SpellingCorrector(DictionaryLoader.load(file, System.err::println));
+
+        var messages = new ArrayList<String>();
+        try (var watcher = new DictionaryWatcher(spellingCorrector, file,
+                                                 path -> DictionaryLoader.load(path, System.err::println),
+                                                 Duration.ofMillis(50), message -> {
+            synchronized (messages) {
+                messages.add(message);
+            }
+        })) {
+            watcher.start();
+
+            // Replaced files are reloaded
+            var newFile = folder.newFile("dictionary.tsv.new").toPath();
+            write(newFile, newWords);
+            Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            await(() -> watcher.getVersion() == 2);
+            assertEquals(1, watcher.getReloadCount());
+            assertTrue(watcher.getLastReloadDuration().isPresent());
+            assertEquals(List.of("spieling", "spewing"), spellingCorrector.getCorrections("speling").get());
+
+            // Files failing to load keep the current version
+            Files.writeString(file, "");
+            await(() -> watcher.getFailureCount() == 1);
+            assertEquals(2, watcher.getVersion());
+
+            // Rewritten files are reloaded
+            write(file, words);
+            await(() -> watcher.getVersion() == 3);
+            assertEquals(List.of("spelling", "spewing"), spellingCorrector.getCorrections("speling").get());
+            synchronized (messages) {
+                assertEquals(3, messages.size());
+                assertTrue(messages.get(0), messages.get(0).contains("version 2"));
+            }
+        }
+    }
+
+    private static void write(Path file, Map<String, Integer> words) throws IOException {
+        var contents = new StringBuilder();
+        words.forEach((word, rank) -> contents.append(word).append('\t').append(rank).append('\n'));
+        Files.writeString(file, contents);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.xrrocha.spellbound.java;
+
+import static net.xrrocha.spellbound.java.EditDistance.distance;
+import static net.xrrocha.spellbound.java.EditDistance.isLowercase;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class EditDistanceTest {
+
+    @Test
+    public void measuresSingleEdits() {
+        assertEquals(0, distance("spelling", "spelling", 2));
+        assertEquals(1, distance("speling", "spelling", 2));
+        assertEquals(1, distance("spellling", "spelling", 2));
+        assertEquals(1, distance("spelming", "spelling", 2));
+        assertEquals(1, distance("pselling", "spelling", 2));
+    }
+
+    @Test
+    public void measuresUnrestrictedTransposes() {
+        // Optimal string alignment would rate this pair 3
+        assertEquals(2, distance("ca", "abc", 3));
+    }
+
+    @Test
+    public void capsDistanceAtLimit() {
+        assertEquals(3, distance("spelling", "country", 2));
+        assertEquals(3, distance("a", "abcdef", 2));
+    }
+
+    @Test
+    public void givesUpConsistently() {
+        // Words over a small alphabet come close to each other in many ways
+        var random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            var source = randomWord(random);
+            var target = randomWord(random);
+            var exact = distance(source, target, source.length() + target.length());
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                assertEquals(source + "/" + target, Math.min(exact, maxDistance + 1),
+                             distance(source, target, maxDistance));
+            }
+        }
+    }
+
+    @Test
+    public void recognizesLowercase() {
+        assertTrue(isLowercase("neo"));
+        assertFalse(isLowercase("Neo"));
+        assertFalse(isLowercase(""));
+    }
+
+    private static String randomWord(Random random) {
+        var word = new StringBuilder();
+        for (int i = random.nextInt(8); i > 0; i--) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class FrontCodedDictionaryTest {
+
+    private final Map<String, Integer> dictionary = Map.of(
+        "the", 106295,
+        "country", 105902,
+        "spelling", 98993,
+        "sloping", 79015,
+        "Cuba", 0
+    );
+
+    private final FrontCodedDictionary frontCoded = FrontCodedDictionary.of(dictionary);
+
+    @Test
+    public void looksUpStrings() {
+        assertEquals(dictionary.size(), frontCoded.size());
+        dictionary.forEach((word, rank) -> assertEquals(word, rank.intValue(), frontCoded.rank(word)));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank("spelling "));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank("cuba"));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank("th"));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank("A"));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank("zzz"));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank(""));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank("thé"));
+        assertTrue(frontCoded.contains("Cuba"));
+        assertFalse(frontCoded.contains("slopping"));
+    }
+
+    @Test
+    public void looksUpCharSequencesAndSlices() {
+        assertEquals(105902, frontCoded.rank(new StringBuilder("country")));
+        var chars = "xxslopingxx".toCharArray();
+        assertEquals(79015, frontCoded.rank(chars, 2, 7));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank(chars, 2, 6));
+        assertEquals(Dictionary.ABSENT, frontCoded.rank(chars, 1, 7));
+    }
+
+    @Test
+    public void looksUpSharedPrefixesAcrossBlocks() {
+        var words = new HashMap<String, Integer>();
+        for (var word : List.of("a", "ab", "abc", "abd", "abde", "abe", "b", "ba", "bab", "babe")) {
+            words.put(word, words.size());
+        }
+        // Enough generated words for dozens of blocks
+        var random = new Random(42);
+        while (words.size() < 50 * FrontCodedDictionary.BLOCK_SIZE) {
+            var word = new StringBuilder();
+            for (int i = 1 + random.nextInt(12); i > 0; i--) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            words.putIfAbsent(word.toString(), random.nextInt(1 << 20));
+        }
+        var frontCoded = FrontCodedDictionary.of(RankTable.of(words));
+
+        var rankTable = RankTable.of(words);
+        for (int i = 0; i < 10_000; i++) {
+            var word = new StringBuilder();
+            for (int j = random.nextInt(13); j > 0; j--) {
+                word.append((char) ('a' + random.nextInt(5)));
+            }
+            assertEquals(word.toString(), rankTable.rank(word), frontCoded.rank(word));
+            assertEquals(word.toString(), rankTable.rank(word), frontCoded.rank(word.toString().toCharArray(), 0,
+                                                                                word.length()));
+        }
+        words.forEach((word, rank) -> assertEquals(word, rank.intValue(), frontCoded.rank(word)));
+        assertTrue(frontCoded.footprintBytes() < rankTable.footprintBytes());
+    }
+
+    @Test
+    public void iteratesAllWordsInOrder() {
+        var words = new HashMap<String, Integer>();
+        var previous = new StringBuilder();
+        frontCoded.forEach((word, rank) -> {
+            assertTrue(word, previous.toString().compareTo(word) < 0);
+            previous.setLength(0);
+            previous.append(word);
+            words.put(word, rank);
+        });
+        assertEquals(dictionary, words);
+    }
+
+    @Test
+    public void correctsLikeRankTable() {
+        for (var typo : List.of("speling", "sxpeling", "contry", "teh")) {
+            assertEquals(new SpellingCorrector(dictionary).getCorrections(typo),
+                         new SpellingCorrector(frontCoded).getCorrections(typo));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonAsciiWords() {
+        FrontCodedDictionary.of(Map.of("café", 1));
+    }
+}
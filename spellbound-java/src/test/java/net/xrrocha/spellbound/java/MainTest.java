@@ -0,0 +1,80 @@
+package net.xrrocha.spellbound.java;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MainTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SpellingCorrector spellingCorrector = new SpellingCorrector(Map.of(
+        "country", 105902,
+        "sleeping", 101079,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515
+    ));
+
+    @Test
+    public void processesFilesInInputOrder() throws Exception {
+        var filenames = files();
+
+        var expected = Main.processInputLines(Main.loadInputLines(filenames.stream()), spellingCorrector,
+                                              (word, suggestions) -> word + "\t" + String.join(",", suggestions))
+            .collect(toList());
+        var output = new ArrayList<String>();
+        var timings = new ArrayList<String>();
+        Main.processFiles(filenames, spellingCorrector, 3, true, output::add, timings::add);
+
+        assertEquals(expected, output);
+        assertEquals(filenames.size(), timings.size());
+        for (int i = 0; i < filenames.size(); i++) {
+            assertTrue(timings.get(i), timings.get(i).startsWith(filenames.get(i) + "\t"));
+        }
+    }
+
+    @Test
+    public void processesFilesUnorderedWithFileTags() throws Exception {
+        var filenames = files();
+
+        var output = new ArrayList<String>();
+        Main.processFiles(filenames, spellingCorrector, 3, false, output::add, timing -> {});
+
+        // Each typo is reported once, tagged with a file containing it
+        var typos = new HashSet<String>();
+        for (var line : output) {
+            var fields = line.split("\t");
+            assertTrue(line, filenames.contains(fields[0]));
+            assertTrue(line, Files.readString(folder.getRoot().toPath().resolve(fields[0])).contains(fields[1]));
+            assertTrue(line, typos.add(fields[1]));
+        }
+        assertEquals(new HashSet<>(List.of("speling", "Speling", "sleping", "contry", "cuntry")), typos);
+    }
+
+    private List<String> files() throws Exception {
+        var contents = List.of(
+            "speling is fine\nnot sleping",
+            "sleping again\nSpeling",
+            "",
+            "xqzkwv contry\nspeling",
+            "cuntry 42 contry");
+        var filenames = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            var file = folder.getRoot().toPath().resolve("file" + i + ".txt");
+            Files.writeString(file, contents.get(i % contents.size()));
+            filenames.add(file.toString());
+        }
+        return filenames;
+    }
+}
@@ -0,0 +1,77 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedDictionaryTest {
+
+    private final Map<String, Integer> dictionary = Map.of(
+        "centry", 12463,
+        "contra", 93053,
+        "country", 105902,
+        "ricksha", 0,
+        "sleeping", 101079,
+        "sliping", 0,
+        "sloping", 79015,
+        "spelling", 98993,
+        "spewing", 64515,
+        "spiling", 0
+    );
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mapsCompiledImage() throws IOException {
+        var image = folder.newFile("dictionary.img").toPath();
+        MappedDictionary.write(RankTable.of(dictionary), image);
+        assertTrue(MappedDictionary.isImage(image));
+
+        var mappedDictionary = MappedDictionary.open(image);
+        assertEquals(dictionary.size(), mappedDictionary.size());
+        dictionary.forEach((word, rank) -> assertEquals(rank.intValue(), mappedDictionary.rank(word)));
+        assertEquals(79015, mappedDictionary.rank("xsloping".toCharArray(), 1, 7));
+        assertEquals(Dictionary.ABSENT, mappedDictionary.rank("speling"));
+
+        var words = new HashMap<String, Integer>();
+        mappedDictionary.forEach(words::put);
+        assertEquals(dictionary, words);
+    }
+
+    @Test
+    public void correctsFromImage() throws IOException {
+        var image = folder.newFile("dictionary.img").toPath();
+        MappedDictionary.write(RankTable.of(dictionary), image);
+
+        var spellingCorrector = new SpellingCorrector(MappedDictionary.open(image), AutomatonEngine::new);
+        assertFalse(spellingCorrector.getCorrections("spelling").isPresent());
+        assertEquals(List.of("spelling", "spewing", "spiling"), spellingCorrector.getCorrections("speling").get());
+    }
+
+    @Test
+    public void recognizesTextFiles() throws IOException {
+        var text = folder.newFile("dictionary.tsv").toPath();
+        Files.writeString(text, "the\t106295\n");
+        assertFalse(MappedDictionary.isImage(text));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncatedImage() throws IOException {
+        var image = folder.newFile("dictionary.img").toPath();
+        MappedDictionary.write(RankTable.of(dictionary), image);
+        var bytes = Files.readAllBytes(image);
+        Files.write(image, Arrays.copyOf(bytes, bytes.length - 1));
+        MappedDictionary.open(image);
+    }
+}
@@ -0,0 +1,109 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class RankTableTest {
+
+    private final Map<String, Integer> dictionary = Map.of(
+        "the", 106295,
+        "country", 105902,
+        "spelling", 98993,
+        "sloping", 79015,
+        "Cuba", 0
+    );
+
+    private final RankTable rankTable = RankTable.of(dictionary);
+
+    @Test
+    public void looksUpStrings() {
+        assertEquals(dictionary.size(), rankTable.size());
+        dictionary.forEach((word, rank) -> assertEquals(rank.intValue(), rankTable.rank(word)));
+        assertEquals(Dictionary.ABSENT, rankTable.rank("spelling "));
+        assertEquals(Dictionary.ABSENT, rankTable.rank("cuba"));
+        assertEquals(Dictionary.ABSENT, rankTable.rank("th"));
+        assertTrue(rankTable.contains("Cuba"));
+        assertFalse(rankTable.contains("slopping"));
+    }
+
+    @Test
+    public void looksUpCharSequencesAndSlices() {
+        assertEquals(105902, rankTable.rank(new StringBuilder("country")));
+        var chars = "xxslopingxx".toCharArray();
+        assertEquals(79015, rankTable.rank(chars, 2, 7));
+        assertEquals(Dictionary.ABSENT, rankTable.rank(chars, 2, 6));
+        assertEquals(Dictionary.ABSENT, rankTable.rank(chars, 1, 7));
+    }
+
+    @Test
+    public void iteratesAllWords() {
+        var words = new HashMap<String, Integer>();
+        rankTable.forEach(words::put);
+        assertEquals(dictionary, words);
+    }
+
+    @Test
+    public void buildsFromBytes() {
+        var bytes = "the\tcountry".getBytes();
+        var rankTable = RankTable.builder()
+            .add(bytes, 0, 3, 2)
+            .add(bytes, 4, 7, 1)
+            .build();
+        assertEquals(2, rankTable.rank("the"));
+        assertEquals(1, rankTable.rank("country"));
+    }
+
+    @Test
+    public void survivesCollidingHashes() {
+        // "Aa" and "BB" share String.hashCode()
+        var rankTable = RankTable.of(Map.of("Aa", 1, "BB", 2, "AaBB", 3, "BBAa", 4));
+        assertEquals(1, rankTable.rank("Aa"));
+        assertEquals(2, rankTable.rank("BB"));
+        assertEquals(3, rankTable.rank("AaBB"));
+        assertEquals(4, rankTable.rank("BBAa"));
+        assertEquals(Dictionary.ABSENT, rankTable.rank("AaAa"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicateWords() {
+        RankTable.builder().add("the", 1).add("the", 2).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeRanks() {
+        RankTable.builder().add("the", -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonAsciiWords() {
+        RankTable.builder().add("café", 1);
+    }
+
+    @Test
+    public void leavesNoTraceOfRejectedWords() {
+        var builder = RankTable.builder().add("the", 1);
+        for (Runnable add : new Runnable[] {
+            () -> builder.add("café", 2),
+            () -> builder.add("", 2),
+            () -> builder.add("country", -1),
+            () -> builder.add("\u00ff".getBytes(StandardCharsets.ISO_8859_1), 0, 1, 2)}) {
+            try {
+                add.run();
+                fail();
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+        assertEquals(1, builder.size());
+        var rankTable = builder.add("spelling", 3).build();
+        assertEquals(2, rankTable.size());
+        assertEquals(3, rankTable.rank("spelling"));
+    }
+}
@@ -0,0 +1,93 @@
+package net.xrrocha.spellbound.java;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ScratchBufferEngineTest {
+
+    private final Map<String, Integer> dictionary = CorrectionEngineTest.DICTIONARY;
+
+    private final ScratchBufferEngine engine = new ScratchBufferEngine(RankTable.of(dictionary));
+
+    private final ScratchBufferEngine unprunedEngine = new ScratchBufferEngine(
+        RankTable.of(dictionary), BloomFilter.DEFAULT_FALSE_POSITIVE_RATE, false);
+
+    @Test
+    public void agreesWithUnprunedEngine() {
+        List.of("speling", "spelinmg", "cuntry", "ocntra", "rikcsha", "sploing", "xwphjwl", "a", "zz", "qcountry")
+            .forEach(typo -> assertEquals(typo, unprunedEngine.getCorrections(typo), engine.getCorrections(typo)));
+    }
+
+    @Test
+    public void prunesCandidatesWithUnknownTrigrams() {
+        var typo = "sleping";
+        var expectedCandidates = SpellingCorrector.edits1(typo).collect(toList());
+
+        var scratch = engine.new Scratch();
+        scratch.reset(typo);
+        var actualCandidates = new ArrayList<String>();
+        ScratchBufferEngine.generate(scratch.typo, typo.length(), 1, scratch,
+                                     (chars, length, hash) -> actualCandidates.add(new String(chars, 0, length)));
+
+        // Fewer candidates, in the same order, none of the words lost
+        assertTrue(actualCandidates.size() < expectedCandidates.size() / 2);
+        var expected = expectedCandidates.iterator();
+        for (var candidate : actualCandidates) {
+            while (!expected.next().equals(candidate)) {
+            }
+        }
+        assertTrue(actualCandidates.containsAll(List.of("sleeping", "sliping", "sloping")));
+        assertTrue(actualCandidates.stream().noneMatch(candidate -> candidate.contains("q")));
+    }
+
+    @Test
+    public void derivesCandidateHashes() {
+        for (var levels = 1; levels <= 2; levels++) {
+            for (var typo : List.of("a", "zz", "wally", "sxpeling", "abcdefghijklmnopqrstuvwxyzabcdefghijklmn")) {
+                var scratch = unprunedEngine.new Scratch();
+                scratch.reset(typo);
+                var candidateCount = new int[1];
+                ScratchBufferEngine.generate(scratch.typo, typo.length(), levels, scratch, (chars, length, hash) -> {
+                    assertEquals(new String(chars, 0, length).hashCode(), hash);
+                    candidateCount[0]++;
+                });
+                assertTrue(candidateCount[0] > 0);
+            }
+        }
+    }
+
+    @Test
+    public void generatesSameCandidatesAsEdits1() {
+        var typo = "wally";
+        var expectedCandidates = SpellingCorrector.edits1(typo).collect(toList());
+
+        var scratch = unprunedEngine.new Scratch();
+        scratch.reset(typo);
+        var actualCandidates = new ArrayList<String>();
+        ScratchBufferEngine.generate(scratch.typo, typo.length(), 1, scratch,
+                                     (chars, length, hash) -> actualCandidates.add(new String(chars, 0, length)));
+
+        assertEquals(expectedCandidates, actualCandidates);
+    }
+
+    @Test
+    public void generatesSameCandidatesAsEdits2() {
+        var typo = "asok";
+        var expectedCandidates = SpellingCorrector.edits2(typo).sorted().collect(toList());
+
+        var scratch = unprunedEngine.new Scratch();
+        scratch.reset(typo);
+        var actualCandidates = new ArrayList<String>();
+        ScratchBufferEngine.generate(scratch.typo, typo.length(), 2, scratch,
+                                     (chars, length, hash) -> actualCandidates.add(new String(chars, 0, length)));
+        actualCandidates.sort(null);
+
+        assertEquals(expectedCandidates, actualCandidates);
+    }
+}
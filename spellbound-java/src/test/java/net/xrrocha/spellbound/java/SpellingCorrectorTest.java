@@ -16,6 +16,9 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import net.xrrocha.spellbound.java.SpellingCorrector.WordSplit;
 import org.junit.Test;
 
@@ -68,6 +71,41 @@ public class SpellingCorrectorTest {
         assertEquals(actualCorrections.get(), expectedCorrections);
     }
 
+    @Test
+    public void yieldsTopCorrectionsWithRankAndDistance() {
+        var expectedCorrections = List.of(
+            new Suggestion("spelling", 98993, 1),
+            new Suggestion("spewing", 64515, 1)
+        );
+
+        var actualCorrections = spellingCorrector.getCorrections("speling", 2);
+
+        assertTrue(actualCorrections.isPresent());
+        assertEquals(expectedCorrections, actualCorrections.get());
+    }
+
+    @Test
+    public void yieldsEmptyTopCorrectionsOnDictionaryWord() {
+        assertFalse(spellingCorrector.getCorrections("spelling", 3).isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveTopCorrectionCount() {
+        spellingCorrector.getCorrections("speling", 0);
+    }
+
+    @Test
+    public void yieldsLazySuggestionsNearestFirst() {
+        var suggestions = spellingCorrector.getSuggestions("sleping");
+
+        assertTrue(suggestions.isPresent());
+        var iterator = suggestions.get();
+        assertEquals(new Suggestion("sleeping", 101079, 1), iterator.next());
+        assertEquals(new Suggestion("sloping", 79015, 1), iterator.next());
+        assertEquals(new Suggestion("sliping", 0, 1), iterator.next());
+        assertEquals(new Suggestion("spewing", 64515, 2), iterator.next());
+    }
+
     @Test
     public void yieldsNoCorrectionsOnGibberish() {
         var corrections = spellingCorrector.getCorrections("xwphjwl");
@@ -228,15 +266,77 @@ public class SpellingCorrectorTest {
         normalize("!@#$");
     }
 
+    @Test
+    public void skipsEntriesRankTablesCantHold() {
+        var spellingCorrector = new SpellingCorrector(Map.of(
+            "spelling", 98993,
+            "café", 12,
+            "", 12,
+            "spewing", -1
+        ));
+        assertTrue(spellingCorrector.contains("spelling"));
+        assertFalse(spellingCorrector.contains("spewing"));
+        assertEquals(List.of("spelling"), spellingCorrector.getCorrections("speling").get());
+    }
+
     @Test
     public void acceptsAlphaNormalization() {
         String normalizedWord = normalize(" Neo\t\n");
         assertEquals("neo", normalizedWord);
     }
 
+    @Test
+    public void cachesCorrections() {
+        var cachingCorrector = spellingCorrector.withCache(100);
+
+        assertEquals(Optional.of(List.of("spelling", "spewing", "spiling")), cachingCorrector.getCorrections("speling"));
+        assertEquals(Optional.of(List.of("spelling", "spewing", "spiling")), cachingCorrector.getCorrections("Speling"));
+        assertEquals(Optional.empty(), cachingCorrector.getCorrections("spelling"));
+
+        var cache = cachingCorrector.getCache().orElseThrow();
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertFalse(spellingCorrector.getCache().isPresent());
+    }
+
+    @Test
+    public void correctsBatchesOncePerDistinctWord() {
+        var cachingCorrector = spellingCorrector.withCache(100);
+
+        var corrections = cachingCorrector.correctAll(List.of("speling", "spelling", "Speling", "xqzkwv", "speling"));
+
+        assertEquals(List.of("speling", "spelling", "xqzkwv"), List.copyOf(corrections.keySet()));
+        assertEquals(Optional.of(List.of("spelling", "spewing", "spiling")), corrections.get("speling"));
+        assertEquals(Optional.empty(), corrections.get("spelling"));
+        assertEquals(Optional.of(List.of()), corrections.get("xqzkwv"));
+        assertEquals(2, cachingCorrector.getCache().orElseThrow().missCount());
+        assertEquals(0, cachingCorrector.getCache().orElseThrow().hitCount());
+    }
+
+    @Test
+    public void correctsBatchesOnExecutor() throws InterruptedException {
+        var sequentialCorrector = new SpellingCorrector(dictionary, d -> new BruteForceEngine(d, 0.01, false));
+        var words = List.of("speling", "sleping", "cuntry", "contry", "xqzkwv", "spelling");
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var corrections = sequentialCorrector.correctAll(words, executor);
+            assertEquals(words, List.copyOf(corrections.keySet()));
+            words.forEach(word -> assertEquals(spellingCorrector.getCorrections(word), corrections.get(word)));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidBatchWords() {
+        spellingCorrector.correctAll(List.of("speling", "number42"));
+    }
+
     @Test(expected = NullPointerException.class)
     public void rejectsNullDictionary() {
-        new SpellingCorrector(null);
+        new SpellingCorrector((Map<String, Integer>) null);
     }
 
     @Test(expected = IllegalArgumentException.class)
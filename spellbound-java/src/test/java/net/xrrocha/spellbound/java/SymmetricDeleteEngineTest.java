@@ -0,0 +1,14 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SymmetricDeleteEngineTest {
+
+    @Test
+    public void hashesDistinctDeletesOnce() {
+        // "aa", "a" (twice) and "" (once)
+        assertEquals(3, SymmetricDeleteEngine.deleteHashes("aa").length);
+    }
+}
@@ -0,0 +1,95 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TokenCounterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void countsInMemory() throws Exception {
+        try (var counter = new TokenCounter(1 << 20, folder.getRoot().toPath())) {
+            List.of("teh", "recieve", "teh", "adress", "teh", "recieve").forEach(counter::add);
+
+            assertEquals(Map.of("adress", 1L, "recieve", 2L, "teh", 3L), collect(counter));
+            assertEquals(0, counter.runCount());
+        }
+    }
+
+    @Test
+    public void spillsAndMergesRuns() throws Exception {
+        var random = new Random(1);
+        var expected = new TreeMap<String, Long>();
+        var tokens = new ArrayList<String>();
+        for (int i = 0; i < 50_000; i++) {
+            var token = "typo" + (int) Math.abs(random.nextGaussian() * 5_000);
+            tokens.add(token);
+            expected.merge(token, 1L, Long::sum);
+        }
+
+        // A tiny budget forces hundreds of runs, and intermediate merges
+        try (var counter = new TokenCounter(16 << 10, folder.getRoot().toPath())) {
+            tokens.parallelStream().forEach(counter::add);
+            assertTrue(counter.runCount() > TokenCounter.MAX_FAN_IN);
+
+            var actual = collect(counter);
+            assertEquals(expected, actual);
+            // Reported in sorted order
+            assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.keySet()));
+        }
+
+        try (var files = Files.list(folder.getRoot().toPath())) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void spillsLongTokens() throws Exception {
+        var longToken = "a".repeat(70_000);
+        try (var counter = new TokenCounter(1, folder.getRoot().toPath())) {
+            List.of(longToken, "teh", longToken).forEach(counter::add);
+            assertEquals(3, counter.runCount());
+
+            assertEquals(Map.of(longToken, 2L, "teh", 1L), collect(counter));
+        }
+    }
+
+    @Test
+    public void countsCorpusTyposOnce() throws Exception {
+        var spellingCorrector = new SpellingCorrector(Map.of(
+            "sleeping", 101079,
+            "sloping", 79015,
+            "spelling", 98993,
+            "spewing", 64515
+        ));
+        var lines = Stream.concat(
+            IntStream.range(0, 1_000).mapToObj(i -> "Speling is not sleping " + i),
+            Stream.of("speling xqzkwv spelling"));
+
+        var output = new ArrayList<String>();
+        Main.processCorpus(lines, spellingCorrector, 1 << 10, output::add);
+
+        assertEquals(List.of("sleping\t1000\tsleeping,sloping", "speling\t1001\tspelling,spewing"), output);
+    }
+
+    private static Map<String, Long> collect(TokenCounter counter) {
+        var counts = new LinkedHashMap<String, Long>();
+        counter.forEachSorted(counts::put);
+        return counts;
+    }
+}
@@ -0,0 +1,93 @@
+package net.xrrocha.spellbound.java;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TokenizerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reportsAlphabeticTokensWithPositions() {
+        var text = ByteBuffer.wrap("Speling is\tfun, 42\n\n  na\u00efve x\r\nok".getBytes(UTF_8));
+
+        var tokens = new ArrayList<String>();
+        Tokenizer.tokenize(text, (buffer, offset, length, line, column) ->
+            tokens.add(Tokenizer.toString(buffer, offset, length) + "@" + line + ":" + column));
+
+        assertEquals(List.of("Speling@1:1", "is@1:9", "x@3:10", "ok@4:1"), tokens);
+    }
+
+    @Test
+    public void matchesLineSplitting() throws Exception {
+        var random = new Random(1);
+        var pieces = List.of("word", "Word", "WORD", "a", "don't", "x1", "caf\u00e9", "na\u00efve", "overlongwords", "-", "ok.", "zz");
+        var separators = List.of(" ", "  ", "\t", "\n", "\r\n", "\f", "\u000B", " ");
+        var text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append(pieces.get(random.nextInt(pieces.size())));
+            text.append(separators.get(random.nextInt(separators.size())));
+        }
+        var file = folder.newFile("text.txt").toPath();
+        Files.writeString(file, text);
+
+        var expected = Files.lines(file)
+            .flatMap(line -> Arrays.stream(line.split("\\s+")))
+            .filter(SpellingCorrector::isAlphabetic)
+            .collect(toList());
+
+        // Small regions exercise region boundaries
+        for (var regionSize : new int[] {Tokenizer.MAX_REGION_SIZE, 4096, 16}) {
+            var actual = new ArrayList<String>();
+            Tokenizer.tokenize(file, regionSize, (buffer, offset, length, line, column) ->
+                actual.add(Tokenizer.toString(buffer, offset, length)));
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void skipsTokensLongerThanRegions() throws Exception {
+        var file = folder.newFile("long.txt").toPath();
+        Files.writeString(file, "ok " + "x".repeat(30) + " fine\nyes");
+
+        var tokens = new ArrayList<String>();
+        Tokenizer.tokenize(file, 8, (buffer, offset, length, line, column) ->
+            tokens.add(Tokenizer.toString(buffer, offset, length) + "@" + line + ":" + column));
+
+        assertEquals(List.of("ok@1:1", "fine@1:35", "yes@2:1"), tokens);
+    }
+
+    @Test
+    public void tokenizesFilesLikeLines() throws Exception {
+        var spellingCorrector = new SpellingCorrector(Map.of(
+            "sleeping", 101079,
+            "sloping", 79015,
+            "spelling", 98993,
+            "spewing", 64515
+        ));
+        var file = folder.newFile("typos.txt").toPath();
+        Files.writeString(file, "Speling is not sleping\nspeling SPELLING Spelling, xqzkwv sleping\n");
+        var filenames = List.of(file.toString(), file.toString());
+
+        assertEquals(List.of("Speling", "is", "not", "sleping", "speling", "xqzkwv"),
+                     Main.tokenizeFiles(List.of(file.toString()), spellingCorrector).collect(toList()));
+        assertEquals(
+            Main.processInputLines(Main.loadInputLines(filenames.stream()), spellingCorrector,
+                                   (word, suggestions) -> word + "\t" + suggestions).collect(toList()),
+            Main.processWords(Main.tokenizeFiles(filenames, spellingCorrector), spellingCorrector,
+                              (word, suggestions) -> word + "\t" + suggestions).collect(toList()));
+    }
+}
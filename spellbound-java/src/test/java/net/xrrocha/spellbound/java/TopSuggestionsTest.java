@@ -0,0 +1,51 @@
+package net.xrrocha.spellbound.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class TopSuggestionsTest {
+
+    @Test
+    public void retainsHighestRanks() {
+        var topSuggestions = new TopSuggestions(3);
+        topSuggestions.accept("spiling", 0);
+        topSuggestions.accept("spelling", 98993);
+        topSuggestions.accept("country", 105902);
+        topSuggestions.accept("centry", 12463);
+        topSuggestions.accept("sloping", 79015);
+
+        assertTrue(topSuggestions.isFull());
+        assertEquals(79015, topSuggestions.lowestRank());
+        assertEquals(
+            List.of(
+                new Suggestion("country", 105902, 1),
+                new Suggestion("spelling", 98993, 1),
+                new Suggestion("sloping", 79015, 1)),
+            topSuggestions.drain(1));
+    }
+
+    @Test
+    public void breaksTiesAlphabetically() {
+        var topSuggestions = new TopSuggestions(2);
+        topSuggestions.accept("spiling", 0);
+        topSuggestions.accept("sliping", 0);
+        topSuggestions.accept("ricksha", 0);
+
+        assertEquals(
+            List.of(new Suggestion("ricksha", 0, 2), new Suggestion("sliping", 0, 2)),
+            topSuggestions.drain(2));
+    }
+
+    @Test
+    public void drainsEmpty() {
+        var topSuggestions = new TopSuggestions(5);
+
+        assertTrue(topSuggestions.isEmpty());
+        assertFalse(topSuggestions.isFull());
+        assertTrue(topSuggestions.drain(1).isEmpty());
+    }
+}